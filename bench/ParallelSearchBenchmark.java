@@ -0,0 +1,92 @@
+import java.util.Random;
+
+import model.BitboardReversi;
+import model.MoveList;
+import model.ReversiModel;
+import strategy.AlphaBetaSearch;
+import strategy.PositionalEvaluator;
+import strategy.TranspositionTable;
+
+/**
+ * Measures how the alpha-beta search scales with its thread count, by timing how long it takes
+ * to search a set of mid-game positions to a fixed depth on 1, 2, 4, 8 and 16 threads for side
+ * sizes 4 through 8. Every search starts from an empty transposition table. Run it with the
+ * compiled src classes on the classpath:
+ *
+ * <p>java -cp out ParallelSearchBenchmark
+ */
+public final class ParallelSearchBenchmark {
+
+  private static final int[] THREADS = {1, 2, 4, 8, 16};
+  private static final int POSITIONS = 4;
+  private static final int OPENING_MOVES = 8;
+
+  /**
+   * Prints the time to depth, speed up over one thread and nodes per second for every side size
+   * and thread count.
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    System.out.println("cores available: " + Runtime.getRuntime().availableProcessors());
+    System.out.println("sideSize\tdepth\tthreads\ttime (ms)\tspeedup\tnodes/sec");
+    for (int sideSize = 4; sideSize <= 8; sideSize++) {
+      int depth = sideSize <= 5 ? 8 : 6;
+      ReversiModel[] positions = new ReversiModel[POSITIONS];
+      for (int game = 0; game < POSITIONS; game++) {
+        positions[game] = midGame(sideSize, new Random(game));
+      }
+      // warm up the compiler on the smallest and largest thread counts
+      search(positions, depth, 1);
+      search(positions, depth, THREADS[THREADS.length - 1]);
+      double single = 0;
+      for (int threads : THREADS) {
+        long[] result = search(positions, depth, threads);
+        double millis = result[0] / 1_000_000.0;
+        if (threads == 1) {
+          single = millis;
+        }
+        long nodesPerSecond = (long) (result[1] * (1_000_000_000.0 / result[0]));
+        System.out.printf("%d\t%d\t%d\t%.1f\t%.2f\t%d%n", sideSize, depth, threads, millis,
+                single / millis, nodesPerSecond);
+      }
+    }
+  }
+
+  /**
+   * Searches every position to the given depth with a fresh search on the given number of
+   * threads.
+   *
+   * @return the total time taken in nanoseconds and the total number of nodes searched.
+   */
+  private static long[] search(ReversiModel[] positions, int depth, int threads) {
+    long time = 0;
+    long nodes = 0;
+    for (ReversiModel position : positions) {
+      AlphaBetaSearch search = new AlphaBetaSearch(depth, Long.MAX_VALUE, threads,
+              new PositionalEvaluator(), new TranspositionTable(1 << 20));
+      long start = System.nanoTime();
+      search.chooseCoordinate(position, position.whoseTurn());
+      time += System.nanoTime() - start;
+      nodes += search.getNodes();
+    }
+    return new long[]{time, nodes};
+  }
+
+  /**
+   * Plays a few random moves from the start of a game to reach a varied position.
+   */
+  private static ReversiModel midGame(int sideSize, Random random) {
+    ReversiModel model = new BitboardReversi(sideSize);
+    model.startGame();
+    MoveList moves = new MoveList();
+    for (int move = 0; move < OPENING_MOVES; move++) {
+      model.findLegalMoves(model.whoseTurn(), moves);
+      if (moves.isEmpty()) {
+        break;
+      }
+      model.makeMove(moves.coordinate(random.nextInt(moves.size())));
+    }
+    return model;
+  }
+}
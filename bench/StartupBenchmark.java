@@ -0,0 +1,130 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import model.BasicReversi;
+import model.Cell;
+import model.CellModel;
+import model.ReversiModel;
+
+/**
+ * Measures how long it takes to construct and start a BasicReversi model for side sizes 4
+ * through 50, next to a baseline that does the work startGame used to do before the board
+ * topology was shared: building the board and then, for every cell, scanning the whole board for
+ * the cells on its three planes. Run it with the compiled src classes on the classpath:
+ *
+ * <p>java -cp out StartupBenchmark
+ */
+public final class StartupBenchmark {
+
+  private static final int[] SIDE_SIZES = {4, 6, 8, 12, 16, 20, 25, 30, 40, 50};
+
+  /**
+   * Prints the median start up time of the baseline and of a model for each side size.
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    System.out.println("sideSize\tcells\tbaseline (us)\tstartGame (us)\tspeedup");
+    for (int sideSize : SIDE_SIZES) {
+      int cells = (3 * sideSize * (sideSize - 1)) + 1;
+      // larger boards are slower, so fewer repetitions keep the run short; the baseline is
+      // quadratic in the cell count, so it gets fewer still
+      long baseline = median(sideSize, Math.max(3, 200000 / (cells * cells)), true);
+      long current = median(sideSize, Math.max(5, 20000 / cells), false);
+      System.out.println(sideSize + "\t" + cells + "\t" + (baseline / 1000) + "\t"
+              + (current / 1000) + "\t" + String.format("%.1fx", baseline / (double) current));
+    }
+  }
+
+  /**
+   * Returns the median time of starting a board of the given size, after as many warm up runs.
+   */
+  private static long median(int sideSize, int runs, boolean baseline) {
+    for (int warmup = 0; warmup < runs; warmup++) {
+      start(sideSize, baseline);
+    }
+    long[] times = new long[runs];
+    for (int run = 0; run < runs; run++) {
+      long start = System.nanoTime();
+      start(sideSize, baseline);
+      times[run] = System.nanoTime() - start;
+    }
+    Arrays.sort(times);
+    return times[runs / 2];
+  }
+
+  /**
+   * Starts a board of the given size, either the baseline way or as a model.
+   */
+  private static Object start(int sideSize, boolean baseline) {
+    return baseline ? scanPlanes(makeBoard(sideSize)) : startModel(sideSize);
+  }
+
+  /**
+   * Constructs and starts a model with the given side size.
+   */
+  private static ReversiModel startModel(int sideSize) {
+    ReversiModel model = new BasicReversi(sideSize);
+    model.startGame();
+    return model;
+  }
+
+  /**
+   * Builds a blank board of cells row by row, as BasicReversi does.
+   */
+  private static List<List<Cell>> makeBoard(int sideSize) {
+    int length = (sideSize * 2) - 1;
+    List<List<Cell>> board = new ArrayList<List<Cell>>();
+    int r = sideSize - length;
+    int qInit = 0;
+    int width = sideSize;
+    for (int curLen = 0; curLen < length; curLen++) {
+      List<Cell> row = new ArrayList<Cell>();
+      for (int curWid = 0; curWid < width; curWid++) {
+        row.add(new CellModel(qInit + curWid, r, CellModel.CellStatus.BLANK));
+      }
+      board.add(row);
+      if (r < 0) {
+        qInit--;
+        width++;
+      } else {
+        width--;
+      }
+      r++;
+    }
+    return board;
+  }
+
+  /**
+   * Finds the cells on the q, r and s planes of every cell by scanning the whole board once per
+   * cell, the way CellModel.addSamePlaneCells did before the planes were kept in the topology.
+   *
+   * @return the three planes of every cell, in board order.
+   */
+  private static List<List<List<Cell>>> scanPlanes(List<List<Cell>> board) {
+    List<List<List<Cell>>> planes = new ArrayList<List<List<Cell>>>();
+    for (List<Cell> boardRow : board) {
+      for (Cell current : boardRow) {
+        List<Cell> sameQ = new ArrayList<Cell>();
+        List<Cell> sameR = new ArrayList<Cell>();
+        List<Cell> sameS = new ArrayList<Cell>();
+        for (List<Cell> row : board) {
+          for (Cell cell : row) {
+            if (current.getCoordinate().q == cell.getCoordinate().q) {
+              sameQ.add(cell);
+            }
+            if (current.getCoordinate().r == cell.getCoordinate().r) {
+              sameR.add(cell);
+            }
+            if (current.getCoordinate().s == cell.getCoordinate().s) {
+              sameS.add(cell);
+            }
+          }
+        }
+        planes.add(new ArrayList<List<Cell>>(Arrays.asList(sameQ, sameR, sameS)));
+      }
+    }
+    return planes;
+  }
+}
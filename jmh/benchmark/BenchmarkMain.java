@@ -0,0 +1,54 @@
+package benchmark;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so every result reports the bytes allocated per
+ * operation alongside its time. Any JMH command line options can be given, such as a pattern
+ * naming the benchmarks to run or -p sideSize=8 to measure one board size; without a pattern,
+ * every benchmark is run. The -l, -lp and -h options list the benchmarks or print the help
+ * instead of running anything.
+ */
+public final class BenchmarkMain {
+
+  private BenchmarkMain() {
+  }
+
+  /**
+   * Runs the benchmarks.
+   *
+   * @param args JMH command line options.
+   * @throws CommandLineOptionException if the options cannot be understood
+   * @throws RunnerException            if a benchmark fails
+   * @throws IOException                if the help cannot be printed
+   */
+  public static void main(String[] args)
+          throws CommandLineOptionException, RunnerException, IOException {
+    CommandLineOptions options = new CommandLineOptions(args);
+    if (options.shouldHelp()) {
+      options.showHelp();
+      return;
+    }
+    ChainedOptionsBuilder builder = new OptionsBuilder().parent(options)
+            .addProfiler(GCProfiler.class);
+    if (options.getIncludes().isEmpty()) {
+      builder.include("benchmark\\..*Benchmark");
+    }
+    Runner runner = new Runner(builder.build());
+    if (options.shouldListWithParams()) {
+      runner.listWithParams(options);
+    } else if (options.shouldList()) {
+      runner.list();
+    } else {
+      runner.run();
+    }
+  }
+}
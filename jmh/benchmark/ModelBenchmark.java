@@ -0,0 +1,194 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import model.Cell;
+import model.CellModel;
+import model.Coordinate;
+import model.MoveList;
+import model.ReversiModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the model operations the game, the players and the strategies call on every turn,
+ * on both models and a range of board sizes. Apart from startGame, every operation runs on a
+ * position from the middle of a recorded game, and the operations that take a cell step through
+ * the cells of the board in turn, so no one cell is measured alone.
+ *
+ * <p>Run with the GC profiler, as BenchmarkMain does, to see the bytes allocated per operation
+ * next to its time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelBenchmark {
+
+  // how many moves are played in each iteration of playADiscMove, one on each prebuilt copy
+  private static final int MOVE_BATCH = 1000;
+
+  @Param({"4", "6", "8", "12"})
+  public int sideSize;
+
+  @Param({"basic", "bitboard"})
+  public String engine;
+
+  private ReversiModel midGame;
+  private CellModel.CellStatus player;
+  private Cell[] blankCells;
+  private Coordinate[] coordinates;
+  private int nextBlank;
+  private int nextCoordinate;
+
+  /**
+   * Replays the recorded game to its middle and lists the cells to step through.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    this.midGame = RecordedGames.midGame(this.engine, this.sideSize, 0);
+    this.player = this.midGame.whoseTurn();
+    List<Cell> blanks = new ArrayList<Cell>();
+    List<Coordinate> all = new ArrayList<Coordinate>();
+    for (List<Cell> row : this.midGame.getBoard()) {
+      for (Cell cell : row) {
+        all.add(cell.getCoordinate());
+        if (cell.getCellStatus() == CellModel.CellStatus.BLANK) {
+          blanks.add(cell);
+        }
+      }
+    }
+    this.blankCells = blanks.toArray(new Cell[0]);
+    this.coordinates = all.toArray(new Coordinate[0]);
+  }
+
+  /**
+   * Constructs and starts a new model.
+   */
+  @Benchmark
+  public ReversiModel startGame() {
+    ReversiModel model = RecordedGames.newModel(this.engine, this.sideSize);
+    model.startGame();
+    return model;
+  }
+
+  /**
+   * Asks whether the player to move could play on a blank cell, without playing there, as the
+   * strategies and the view do for every cell they consider.
+   */
+  @Benchmark
+  public boolean playADiscProbe() {
+    Cell cell = this.blankCells[this.nextBlank];
+    this.nextBlank = this.nextBlank + 1 == this.blankCells.length ? 0 : this.nextBlank + 1;
+    return this.midGame.playADisc(cell, this.player, false);
+  }
+
+  /**
+   * Plays a legal move on a position from the middle of a game. A move changes the position
+   * for good, so each iteration plays one batch of moves, each on its own copy of the position
+   * made before the iteration is timed. A move takes too little time to be timed alone, so the
+   * batch is timed as a whole and the score is the time of the batch; divide it by MOVE_BATCH
+   * for the time of one move. The copies' allocation is counted by the GC profiler, so compare
+   * the allocation of this benchmark with that of the others with care.
+   *
+   * @param state the copies of the position and their moves, made new for every iteration.
+   * @return whether the move was played.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Warmup(iterations = 40, batchSize = MOVE_BATCH)
+  @Measurement(iterations = 20, batchSize = MOVE_BATCH)
+  public boolean playADiscMove(MoveState state) {
+    if (state.next == MOVE_BATCH) {
+      throw new IllegalStateException("Batch size cannot be more than " + MOVE_BATCH);
+    }
+    ReversiModel model = state.models[state.next];
+    Cell cell = state.cells[state.next];
+    state.next++;
+    return model.playADisc(cell, model.whoseTurn(), true);
+  }
+
+  /**
+   * Asks whether the player to move has any legal move.
+   */
+  @Benchmark
+  public boolean anyValidMoves() {
+    return this.midGame.anyValidMoves();
+  }
+
+  /**
+   * Asks whether the game is over, which the controllers do after every turn.
+   */
+  @Benchmark
+  public boolean isGameOver() {
+    return this.midGame.isGameOver();
+  }
+
+  /**
+   * Counts the discs of the player to move.
+   */
+  @Benchmark
+  public int getScore() {
+    return this.midGame.getScore(this.player);
+  }
+
+  /**
+   * Finds the cell at a coordinate, as the view does for every click.
+   */
+  @Benchmark
+  public Cell getClickedCell() {
+    Coordinate coordinate = this.coordinates[this.nextCoordinate];
+    this.nextCoordinate =
+            this.nextCoordinate + 1 == this.coordinates.length ? 0 : this.nextCoordinate + 1;
+    return this.midGame.getClickedCell(coordinate);
+  }
+
+  /**
+   * A batch of copies of a position from the middle of a recorded game, each with a legal move
+   * to play on it, made again before every iteration. The legal moves are given to the copies in
+   * turn, so every one of them is measured.
+   */
+  @State(Scope.Thread)
+  public static class MoveState {
+
+    @Param({"4", "6", "8", "12"})
+    public int sideSize;
+
+    @Param({"basic", "bitboard"})
+    public String engine;
+
+    private final MoveList moves = new MoveList();
+    private final ReversiModel[] models = new ReversiModel[MOVE_BATCH];
+    private final Cell[] cells = new Cell[MOVE_BATCH];
+    private int next;
+
+    /**
+     * Replays the recorded game to its middle once for every move of the batch.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+      for (int copy = 0; copy < MOVE_BATCH; copy++) {
+        ReversiModel model = RecordedGames.midGame(this.engine, this.sideSize, 0);
+        model.findLegalMoves(model.whoseTurn(), this.moves);
+        this.models[copy] = model;
+        this.cells[copy] = model.getClickedCell(
+                this.moves.packedCoordinate(copy % this.moves.size()));
+      }
+      this.next = 0;
+    }
+  }
+}
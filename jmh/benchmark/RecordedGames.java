@@ -0,0 +1,74 @@
+package benchmark;
+
+import java.util.Random;
+
+import model.BasicReversi;
+import model.BitboardReversi;
+import model.CellModel;
+import model.MoveList;
+import model.ReversiModel;
+
+/**
+ * Replays the same seeded games to mid-game for the benchmarks, so every run and every fork
+ * measures the same positions. Each game is played with random legal moves from the start
+ * position until half the board is filled, so the positions have discs of both colors spread
+ * across the board and plenty of legal moves, as a strategy sees them in the middle of a game.
+ */
+final class RecordedGames {
+
+  private RecordedGames() {
+  }
+
+  /**
+   * Returns a model of the given kind at the middle of the recorded game with the given number.
+   *
+   * @param engine   "basic" for a BasicReversi or "bitboard" for a BitboardReversi.
+   * @param sideSize the side size of the board.
+   * @param game     the number of the recorded game.
+   * @return a started model at the middle of the game, with the player to move having a move.
+   * @throws IllegalArgumentException if the kind of model is unknown
+   */
+  static ReversiModel midGame(String engine, int sideSize, long game) {
+    for (long seed = game; ; seed += 1_000_003L) {
+      ReversiModel model = newModel(engine, sideSize);
+      model.startGame();
+      Random random = new Random(seed);
+      MoveList moves = new MoveList();
+      while (!model.isGameOver() && model.getBlankCount() * 2 > countCells(sideSize)) {
+        CellModel.CellStatus player = model.whoseTurn();
+        model.findLegalMoves(player, moves);
+        if (moves.isEmpty()) {
+          model.passTurn(player);
+        } else {
+          int move = moves.packedCoordinate(random.nextInt(moves.size()));
+          model.playADisc(model.getClickedCell(move), player, true);
+        }
+      }
+      // a game that ended early, or left the player to move without a move, is played again
+      if (!model.isGameOver() && model.anyValidMoves()) {
+        return model;
+      }
+    }
+  }
+
+  /**
+   * Returns a new, unstarted model of the given kind.
+   */
+  static ReversiModel newModel(String engine, int sideSize) {
+    switch (engine) {
+      case "basic":
+        return new BasicReversi(sideSize);
+      case "bitboard":
+        return new BitboardReversi(sideSize);
+      default:
+        throw new IllegalArgumentException("Unknown model: " + engine);
+    }
+  }
+
+  /**
+   * Returns how many cells a board with the given side size has.
+   */
+  static int countCells(int sideSize) {
+    return (3 * sideSize * (sideSize - 1)) + 1;
+  }
+}
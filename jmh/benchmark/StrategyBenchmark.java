@@ -0,0 +1,88 @@
+package benchmark;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import model.Coordinate;
+import model.ReversiModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import strategy.AvoidCornerAdjacent;
+import strategy.CaptureMost;
+import strategy.PlayToCorner;
+import strategy.ReversiStrategy;
+
+/**
+ * Measures how long the simple strategies take to choose a move, on positions from the middle
+ * of several recorded games. PlayToCorner and AvoidCornerAdjacent are measured the way the game
+ * plays them, each falling back on the strategies below it, so the difference between them and
+ * CaptureMost is the cost of their own rule.
+ *
+ * <p>Run with the GC profiler, as BenchmarkMain does, to see the bytes allocated per move next
+ * to its time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StrategyBenchmark {
+
+  // how many recorded positions the moves are chosen on, a power of two
+  private static final int POSITIONS = 16;
+
+  @Param({"4", "6", "8", "12"})
+  public int sideSize;
+
+  @Param({"captureMost", "playToCorner", "avoidCornerAdjacent"})
+  public String strategy;
+
+  private ReversiStrategy chooser;
+  private ReversiModel[] positions;
+  private int next;
+
+  /**
+   * Makes the strategy and replays the recorded games to their middles.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    switch (this.strategy) {
+      case "captureMost":
+        this.chooser = new CaptureMost();
+        break;
+      case "playToCorner":
+        this.chooser = new PlayToCorner(new CaptureMost());
+        break;
+      case "avoidCornerAdjacent":
+        this.chooser = new AvoidCornerAdjacent(new PlayToCorner(new CaptureMost()));
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown strategy: " + this.strategy);
+    }
+    this.positions = new ReversiModel[POSITIONS];
+    for (int game = 0; game < POSITIONS; game++) {
+      this.positions[game] = RecordedGames.midGame("basic", this.sideSize, game);
+    }
+  }
+
+  /**
+   * Chooses a move on the next of the recorded positions.
+   */
+  @Benchmark
+  public Optional<Coordinate> chooseCoordinate() {
+    ReversiModel position = this.positions[this.next];
+    this.next = (this.next + 1) & (POSITIONS - 1);
+    return this.chooser.chooseCoordinate(position, position.whoseTurn());
+  }
+}
@@ -3,15 +3,15 @@ import java.util.List;
 
 import controller.ReversiController;
 import controller.ReversiControllerImplementation;
+import match.StrategyFactory;
 import model.BasicReversi;
 import model.CellModel;
 import model.ReversiModel;
 import player.AIPlayer;
 import player.HumanPlayer;
 import player.Player;
-import strategy.AvoidCornerAdjacent;
-import strategy.CaptureMost;
-import strategy.PlayToCorner;
+import strategy.MoveWatchdog;
+import strategy.ReversiStrategy;
 import view.ReversiView;
 import view.SimpleReversiView;
 
@@ -24,6 +24,10 @@ import static model.CellModel.CellStatus.WHITE;
  */
 public final class Reversi {
 
+  // how long the searching players may think about each move, and how late they may be
+  private static final long MOVE_BUDGET_MILLIS = 5000;
+  private static final long MOVE_GRACE_MILLIS = 250;
+
   /**
    * The main method that initializes the Reversi game by creating a BasicReversi model
    * with a specified size, creating a SimpleReversiView, and displaying the game window.
@@ -77,23 +81,29 @@ public final class Reversi {
    * @return a player (human or AI) to be used in the game of Reversi.
    */
   private static Player constructPlayer(String arg, ReversiView view, CellModel.CellStatus color) {
-    Player player;
-    switch (arg) {
-      case "human":
-        player = new HumanPlayer(color, view);
-        break;
-      case "captureMost":
-        player = new AIPlayer(color, new CaptureMost());
-        break;
-      case "avoidCorner":
-        player = new AIPlayer(color, new AvoidCornerAdjacent(new PlayToCorner(new CaptureMost())));
-        break;
-      case "playToCorner":
-        player = new AIPlayer(color, new PlayToCorner(new CaptureMost()));
-        break;
-      default:
-        throw new IllegalArgumentException("Invalid Input");
+    if (arg.equals("human")) {
+      return new HumanPlayer(color, view);
+    }
+    ReversiStrategy strategy;
+    try {
+      strategy = StrategyFactory.create(arg, Runtime.getRuntime().availableProcessors(),
+              System.nanoTime());
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid Input");
     }
-    return player;
+    if (StrategyFactory.searches(arg)) {
+      return new AIPlayer(color, strategy, watchdog(), true);
+    }
+    return new AIPlayer(color, strategy);
+  }
+
+  /**
+   * Creates a watchdog that gives a searching player a fixed time for each move and prints the
+   * moves that overrun it.
+   *
+   * @return the watchdog for one player.
+   */
+  private static MoveWatchdog watchdog() {
+    return new MoveWatchdog(MOVE_BUDGET_MILLIS, MOVE_GRACE_MILLIS, System.err::println);
   }
 }
@@ -2,9 +2,11 @@ package controller;
 
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.util.Optional;
 
 import model.Cell;
 import model.CellModel;
+import model.Coordinate;
 import model.ReversiModel;
 import player.Player;
 import view.ReversiView;
@@ -105,7 +107,7 @@ public class ReversiControllerImplementation implements ReversiController, KeyLi
     } else {
       String won;
       CellModel.CellStatus lost;
-      if (this.model.whoWon() == BLACK) {
+      if (winner == BLACK) {
         won = "BLACK";
         lost = WHITE;
       } else {
@@ -131,8 +133,10 @@ public class ReversiControllerImplementation implements ReversiController, KeyLi
     Cell clickCell;
     if (decision.equals("M")) {
       try {
-        if (this.player.play(model).isPresent()) {
-          clickCell = this.model.getClickedCell(this.player.play(model).get());
+        // asked once, since an AI player searches afresh every time it is asked
+        Optional<Coordinate> choice = this.player.play(model);
+        if (choice.isPresent()) {
+          clickCell = this.model.getClickedCell(choice.get());
           action = new Move(this.player.getDiscColor(), clickCell);
         } else {
           action = new Pass(this.player.getDiscColor());
@@ -0,0 +1,161 @@
+package match;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+
+import model.BitboardReversi;
+import model.CellModel;
+import model.Coordinate;
+import model.MoveList;
+import model.ReversiModel;
+import strategy.Deadline;
+import strategy.ReversiStrategy;
+
+import static model.CellModel.CellStatus.BLACK;
+import static model.CellModel.CellStatus.WHITE;
+
+/**
+ * One game between two strategies, played to the end without a view, controller or player, and
+ * the record of how it went. The game can start with a few random moves, chosen by a seed, so
+ * that two strategies that never make random choices do not play the same game every time, and
+ * so that the same opening can be played again with the colors swapped.
+ */
+public final class HeadlessGame {
+
+  private final int sideSize;
+  private final int blackScore;
+  private final int whiteScore;
+  private final long[] blackNanos;
+  private final long[] whiteNanos;
+
+  private HeadlessGame(int sideSize, int blackScore, int whiteScore, long[] blackNanos,
+                       long[] whiteNanos) {
+    this.sideSize = sideSize;
+    this.blackScore = blackScore;
+    this.whiteScore = whiteScore;
+    this.blackNanos = blackNanos;
+    this.whiteNanos = whiteNanos;
+  }
+
+  /**
+   * Plays a game between two strategies on a new board, giving each move of either strategy
+   * the same time budget.
+   *
+   * @param sideSize     how many hexagons long each side of the board is.
+   * @param black        the strategy playing the black discs.
+   * @param white        the strategy playing the white discs.
+   * @param budgetMillis how long each strategy has to choose each move.
+   * @param openingPlies how many random moves to start the game with.
+   * @param openingSeed  the seed that chooses the random moves.
+   * @return the record of the finished game.
+   * @throws IllegalArgumentException if a strategy is null or the budget or number of opening
+   *                                  moves is negative
+   * @throws IllegalStateException    if a strategy chooses a move that is not legal
+   */
+  public static HeadlessGame play(int sideSize, ReversiStrategy black, ReversiStrategy white,
+                                  long budgetMillis, int openingPlies, long openingSeed) {
+    if (black == null || white == null) {
+      throw new IllegalArgumentException("Strategies cannot be null");
+    }
+    if (budgetMillis < 0 || openingPlies < 0) {
+      throw new IllegalArgumentException("Budget and opening moves cannot be negative");
+    }
+    ReversiModel model = new BitboardReversi(sideSize);
+    model.startGame();
+    playOpening(model, openingPlies, openingSeed);
+    long[] blackNanos = new long[16];
+    long[] whiteNanos = new long[16];
+    int blackMoves = 0;
+    int whiteMoves = 0;
+    while (!model.isGameOver()) {
+      CellModel.CellStatus player = model.whoseTurn();
+      ReversiStrategy strategy = player == BLACK ? black : white;
+      long start = System.nanoTime();
+      Optional<Coordinate> move = strategy.chooseCoordinate(model, player,
+              Deadline.in(budgetMillis));
+      long elapsed = System.nanoTime() - start;
+      if (player == BLACK) {
+        blackNanos = append(blackNanos, blackMoves++, elapsed);
+      } else {
+        whiteNanos = append(whiteNanos, whiteMoves++, elapsed);
+      }
+      if (move.isPresent()) {
+        model.playADisc(model.getClickedCell(move.get()), player, true);
+      } else {
+        model.passTurn(player);
+      }
+    }
+    return new HeadlessGame(sideSize, model.getScore(BLACK), model.getScore(WHITE),
+            Arrays.copyOf(blackNanos, blackMoves), Arrays.copyOf(whiteNanos, whiteMoves));
+  }
+
+  /**
+   * Plays random legal moves at the start of a game, passing when there are none.
+   */
+  private static void playOpening(ReversiModel model, int plies, long seed) {
+    Random random = new Random(seed);
+    MoveList moves = new MoveList();
+    for (int ply = 0; ply < plies && !model.isGameOver(); ply++) {
+      CellModel.CellStatus player = model.whoseTurn();
+      model.findLegalMoves(player, moves);
+      if (moves.isEmpty()) {
+        model.passTurn(player);
+      } else {
+        int move = moves.packedCoordinate(random.nextInt(moves.size()));
+        model.playADisc(model.getClickedCell(move), player, true);
+      }
+    }
+  }
+
+  /**
+   * Stores a time in an array of times, growing the array when it is full.
+   */
+  private static long[] append(long[] times, int index, long time) {
+    long[] grown = index < times.length ? times : Arrays.copyOf(times, times.length * 2);
+    grown[index] = time;
+    return grown;
+  }
+
+  /**
+   * Returns how many hexagons long each side of the board was.
+   *
+   * @return the side size of the board.
+   */
+  public int getSideSize() {
+    return this.sideSize;
+  }
+
+  /**
+   * Returns how many discs a player had at the end of the game.
+   *
+   * @param player the player, BLACK or WHITE.
+   * @return the player's final disc count.
+   */
+  public int getScore(CellModel.CellStatus player) {
+    return player == BLACK ? this.blackScore : this.whiteScore;
+  }
+
+  /**
+   * Returns who won the game.
+   *
+   * @return BLACK or WHITE for the winner, or BLANK for a draw.
+   */
+  public CellModel.CellStatus getWinner() {
+    if (this.blackScore == this.whiteScore) {
+      return CellModel.CellStatus.BLANK;
+    }
+    return this.blackScore > this.whiteScore ? BLACK : WHITE;
+  }
+
+  /**
+   * Returns how long a player's strategy took over each of its moves, not counting the random
+   * opening moves.
+   *
+   * @param player the player, BLACK or WHITE.
+   * @return the time each move took, in nanoseconds, in the order the moves were made.
+   */
+  public long[] getMoveNanos(CellModel.CellStatus player) {
+    return (player == WHITE ? this.whiteNanos : this.blackNanos).clone();
+  }
+}
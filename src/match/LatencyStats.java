@@ -0,0 +1,96 @@
+package match;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects how long a strategy took over its moves and summarizes them as a mean, median, 95th
+ * percentile and worst time.
+ */
+public final class LatencyStats {
+
+  private long[] nanos;
+  private int count;
+  private long total;
+  private boolean sorted;
+
+  /**
+   * Constructs an empty collection of move times.
+   */
+  public LatencyStats() {
+    this.nanos = new long[64];
+    this.count = 0;
+    this.total = 0;
+    this.sorted = true;
+  }
+
+  /**
+   * Adds the times of some moves.
+   *
+   * @param moveNanos how long each move took, in nanoseconds.
+   */
+  public void addAll(long[] moveNanos) {
+    if (this.count + moveNanos.length > this.nanos.length) {
+      this.nanos = Arrays.copyOf(this.nanos,
+              Math.max(this.nanos.length * 2, this.count + moveNanos.length));
+    }
+    for (long time : moveNanos) {
+      this.nanos[this.count++] = time;
+      this.total += time;
+    }
+    this.sorted = moveNanos.length == 0 && this.sorted;
+  }
+
+  /**
+   * Returns how many move times have been added.
+   *
+   * @return the number of moves.
+   */
+  public int getCount() {
+    return this.count;
+  }
+
+  /**
+   * Returns the mean time of a move.
+   *
+   * @return the mean move time in milliseconds, or 0 if there are no moves.
+   */
+  public double getMeanMillis() {
+    return this.count == 0 ? 0 : toMillis(this.total) / this.count;
+  }
+
+  /**
+   * Returns the time that the given fraction of moves took no longer than.
+   *
+   * @param fraction the fraction of moves, from 0 to 1, so 0.5 gives the median.
+   * @return the move time at that percentile in milliseconds, or 0 if there are no moves.
+   * @throws IllegalArgumentException if the fraction is not between 0 and 1
+   */
+  public double getPercentileMillis(double fraction) {
+    if (!(fraction >= 0 && fraction <= 1)) {
+      throw new IllegalArgumentException("Fraction must be between 0 and 1");
+    }
+    if (this.count == 0) {
+      return 0;
+    }
+    if (!this.sorted) {
+      Arrays.sort(this.nanos, 0, this.count);
+      this.sorted = true;
+    }
+    int rank = (int) Math.ceil(fraction * this.count) - 1;
+    return toMillis(this.nanos[Math.max(0, rank)]);
+  }
+
+  /**
+   * Returns the longest time a move took.
+   *
+   * @return the worst move time in milliseconds, or 0 if there are no moves.
+   */
+  public double getMaxMillis() {
+    return this.getPercentileMillis(1);
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+}
@@ -0,0 +1,41 @@
+package match;
+
+/**
+ * What the headless match runners share: how the seed of each opening is drawn from the seed of
+ * the match, and how their command line options are read.
+ */
+final class MatchSupport {
+
+  // the golden ratio in 64 bits, which spreads consecutive numbers far apart across the seeds
+  private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+
+  private MatchSupport() {
+  }
+
+  /**
+   * Returns the seed of one of the random openings of a match. Openings with different numbers
+   * get seeds far apart, so their games share nothing by chance.
+   *
+   * @param seed    the seed of the match.
+   * @param opening the number of the opening within the match.
+   * @return the seed the opening's random moves are chosen by.
+   */
+  static long openingSeed(long seed, long opening) {
+    return seed + opening * SEED_STEP;
+  }
+
+  /**
+   * Returns the value following an option on the command line.
+   *
+   * @param args  the command line.
+   * @param index where the value should be, just after the option.
+   * @return the value.
+   * @throws IllegalArgumentException if the command line ends with the option
+   */
+  static String optionValue(String[] args, int index) {
+    if (index >= args.length) {
+      throw new IllegalArgumentException("Missing value after " + args[index - 1]);
+    }
+    return args[index];
+  }
+}
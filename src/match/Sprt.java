@@ -0,0 +1,257 @@
+package match;
+
+/**
+ * A sequential probability ratio test between two hypotheses about how much stronger a
+ * candidate strategy is than a baseline, measured in Elo. Results come in pairs of games played
+ * from the same opening with the colors swapped, and each pair scores 0, 1/2, 1, 3/2 or 2 points
+ * for the candidate, so the test counts how many pairs ended with each score. Counting pairs
+ * rather than games cancels most of the luck of the opening, which lets the test stop sooner.
+ *
+ * <p>After every pair the log-likelihood ratio of the two hypotheses is compared with bounds set
+ * by the accepted error rates. Once it leaves the bounds the test is decided: either the
+ * candidate is at least elo1 stronger, or it is no more than elo0 stronger. The ratio uses the
+ * normal approximation to the pair scores, with the mean and variance measured from the pairs
+ * played together with one prior pair of each score.
+ */
+public final class Sprt {
+
+  /**
+   * What the test has concluded so far.
+   */
+  public enum Decision {
+    /**
+     * Neither hypothesis can be accepted yet, so more pairs are needed.
+     */
+    CONTINUE,
+    /**
+     * The candidate is no more than elo0 stronger than the baseline.
+     */
+    ACCEPT_H0,
+    /**
+     * The candidate is at least elo1 stronger than the baseline.
+     */
+    ACCEPT_H1
+  }
+
+  // pairs of every score counted as if already played when weighing the hypotheses, so that a
+  // handful of one-sided results cannot decide the test before their spread is known
+  private static final int PRIOR_PAIRS = 1;
+
+  private final double elo0;
+  private final double elo1;
+  private final double lowerBound;
+  private final double upperBound;
+  private final long[] pairs;
+
+  /**
+   * Constructs a test with no pairs played yet.
+   *
+   * @param elo0  how much stronger in Elo the candidate is under the null hypothesis.
+   * @param elo1  how much stronger in Elo the candidate is under the alternative hypothesis.
+   * @param alpha the accepted chance of accepting H1 when H0 is true, from 0 to 1.
+   * @param beta  the accepted chance of accepting H0 when H1 is true, from 0 to 1.
+   * @throws IllegalArgumentException if elo1 is not greater than elo0 or an error rate is not
+   *                                  strictly between 0 and 1
+   */
+  public Sprt(double elo0, double elo1, double alpha, double beta) {
+    if (!(elo1 > elo0)) {
+      throw new IllegalArgumentException("elo1 must be greater than elo0");
+    }
+    if (!(alpha > 0 && alpha < 1) || !(beta > 0 && beta < 1)) {
+      throw new IllegalArgumentException("Error rates must be between 0 and 1");
+    }
+    this.elo0 = elo0;
+    this.elo1 = elo1;
+    this.lowerBound = Math.log(beta / (1 - alpha));
+    this.upperBound = Math.log((1 - beta) / alpha);
+    this.pairs = new long[5];
+  }
+
+  /**
+   * Counts a pair of games played from the same opening with the colors swapped.
+   *
+   * @param halfPoints the candidate's score over both games in half points, from 0 for two
+   *                   losses to 4 for two wins.
+   * @throws IllegalArgumentException if the score is not between 0 and 4
+   */
+  public void addPair(int halfPoints) {
+    if (halfPoints < 0 || halfPoints > 4) {
+      throw new IllegalArgumentException("A pair scores from 0 to 4 half points");
+    }
+    this.pairs[halfPoints]++;
+  }
+
+  /**
+   * Returns how many pairs ended with the given score.
+   *
+   * @param halfPoints the candidate's score over both games in half points, from 0 to 4.
+   * @return the number of pairs with that score.
+   */
+  public long getPairs(int halfPoints) {
+    return this.pairs[halfPoints];
+  }
+
+  /**
+   * Returns how many pairs have been counted.
+   *
+   * @return the number of pairs.
+   */
+  public long getPairCount() {
+    long count = 0;
+    for (long pair : this.pairs) {
+      count += pair;
+    }
+    return count;
+  }
+
+  /**
+   * Returns the log-likelihood ratio of H1 to H0 given the pairs counted so far.
+   *
+   * @return the log-likelihood ratio, or 0 if no pairs have been counted.
+   */
+  public double getLlr() {
+    long count = this.getPairCount();
+    if (count == 0) {
+      return 0;
+    }
+    double[] stats = this.stats(true);
+    double score0 = expectedScore(this.elo0);
+    double score1 = expectedScore(this.elo1);
+    return count * (score1 - score0) * (2 * stats[0] - score0 - score1) / (2 * stats[1]);
+  }
+
+  /**
+   * Returns the lower bound of the log-likelihood ratio, below which H0 is accepted.
+   *
+   * @return the lower bound.
+   */
+  public double getLowerBound() {
+    return this.lowerBound;
+  }
+
+  /**
+   * Returns the upper bound of the log-likelihood ratio, above which H1 is accepted.
+   *
+   * @return the upper bound.
+   */
+  public double getUpperBound() {
+    return this.upperBound;
+  }
+
+  /**
+   * Returns what the test has concluded from the pairs counted so far.
+   *
+   * @return the decision.
+   */
+  public Decision getDecision() {
+    double llr = this.getLlr();
+    if (llr >= this.upperBound) {
+      return Decision.ACCEPT_H1;
+    }
+    if (llr <= this.lowerBound) {
+      return Decision.ACCEPT_H0;
+    }
+    return Decision.CONTINUE;
+  }
+
+  /**
+   * Returns the candidate's average score per game.
+   *
+   * @return the mean score, from 0 to 1, or 1/2 if no pairs have been counted.
+   */
+  public double getScore() {
+    return this.getPairCount() == 0 ? 0.5 : this.stats(false)[0];
+  }
+
+  /**
+   * Returns how much stronger the candidate has played than the baseline.
+   *
+   * @return the estimated Elo difference, which is infinite if the candidate won or lost every
+   *         game.
+   */
+  public double getElo() {
+    return elo(this.getScore());
+  }
+
+  /**
+   * Returns the lower end of a confidence interval around the Elo difference.
+   *
+   * @param z how many standard errors wide each side of the interval is, such as 1.96 for 95%.
+   * @return the lowest Elo difference in the interval.
+   */
+  public double getEloLower(double z) {
+    return elo(this.getScore() - z * this.standardError());
+  }
+
+  /**
+   * Returns the upper end of a confidence interval around the Elo difference.
+   *
+   * @param z how many standard errors wide each side of the interval is, such as 1.96 for 95%.
+   * @return the highest Elo difference in the interval.
+   */
+  public double getEloUpper(double z) {
+    return elo(this.getScore() + z * this.standardError());
+  }
+
+  /**
+   * Returns the standard error of the mean score per game.
+   */
+  private double standardError() {
+    long count = this.getPairCount();
+    return count == 0 ? Double.POSITIVE_INFINITY : Math.sqrt(this.stats(false)[1] / count);
+  }
+
+  /**
+   * Returns the mean and variance of the score of a pair, each pair's score given per game.
+   *
+   * @param regularize whether to add the prior pairs of every score to the pairs played.
+   * @return the mean and variance.
+   */
+  private double[] stats(boolean regularize) {
+    double total = 0;
+    double sum = 0;
+    double[] counts = new double[this.pairs.length];
+    for (int score = 0; score < counts.length; score++) {
+      counts[score] = this.pairs[score] + (regularize ? PRIOR_PAIRS : 0);
+      total += counts[score];
+      sum += counts[score] * (score / 4.0);
+    }
+    double mean = sum / total;
+    double variance = 0;
+    for (int score = 0; score < counts.length; score++) {
+      double deviation = score / 4.0 - mean;
+      variance += counts[score] * deviation * deviation;
+    }
+    return new double[]{mean, variance / total};
+  }
+
+  /**
+   * Returns the score per game expected of a player the given number of Elo stronger.
+   */
+  private static double expectedScore(double elo) {
+    return 1 / (1 + Math.pow(10, -elo / 400));
+  }
+
+  /**
+   * Returns the Elo difference that gives the expected score per game, which is infinite for
+   * scores of 0 and 1 and beyond.
+   */
+  private static double elo(double score) {
+    if (score <= 0) {
+      return Double.NEGATIVE_INFINITY;
+    }
+    if (score >= 1) {
+      return Double.POSITIVE_INFINITY;
+    }
+    return -400 * Math.log10(1 / score - 1);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("pairs %d [%d %d %d %d %d], score %.3f, Elo %+.1f [%+.1f, %+.1f], "
+                    + "LLR %.2f (%.2f, %.2f) %s", this.getPairCount(), this.pairs[0],
+            this.pairs[1], this.pairs[2], this.pairs[3], this.pairs[4], this.getScore(),
+            this.getElo(), this.getEloLower(1.96), this.getEloUpper(1.96), this.getLlr(),
+            this.lowerBound, this.upperBound, this.getDecision());
+  }
+}
@@ -0,0 +1,219 @@
+package match;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import model.CellModel;
+import strategy.ReversiStrategy;
+
+import static model.CellModel.CellStatus.BLACK;
+import static model.CellModel.CellStatus.WHITE;
+
+/**
+ * Plays a candidate strategy against a baseline until a sequential probability ratio test
+ * decides whether the candidate is stronger, so a change to a strategy can be checked for a
+ * gain or a loss in strength at the same time budget. Games are played in pairs from the same
+ * random opening with the colors swapped, and pairs are played in parallel on a fixed pool of
+ * threads, with a few more pairs queued than there are threads so no thread waits. Pairs are
+ * counted by the test in the order they were queued, not the order they finish, so pairs that
+ * finish quickly, such as short games, are not counted out of turn before the test is decided.
+ * Once it is decided, the games still being played are abandoned.
+ */
+public final class SprtMatch {
+
+  // how many finished pairs go by between reports of the test's progress
+  private static final int REPORT_INTERVAL = 50;
+
+  private final String candidate;
+  private final String baseline;
+  private final int sideSize;
+  private final long budgetMillis;
+  private final int openingPlies;
+  private final int threads;
+  private final long seed;
+  private final Consumer<String> reporter;
+
+  /**
+   * Constructs a match between two strategies.
+   *
+   * @param candidate    the name of the strategy being tested, as understood by
+   *                     StrategyFactory.
+   * @param baseline     the name of the strategy it is tested against.
+   * @param sideSize     the side size of the board the games are played on.
+   * @param budgetMillis how long each strategy has to choose each move.
+   * @param openingPlies how many random moves each pair of games starts with.
+   * @param threads      how many pairs to play at the same time.
+   * @param seed         the seed the openings and random strategies are chosen by.
+   * @param reporter     where to send a line on the test's progress now and then.
+   * @throws IllegalArgumentException if a strategy name is unknown, the board is too small, the
+   *                                  budget or opening moves are negative, the thread count is
+   *                                  not positive or the reporter is null
+   */
+  public SprtMatch(String candidate, String baseline, int sideSize, long budgetMillis,
+                   int openingPlies, int threads, long seed, Consumer<String> reporter) {
+    if (!StrategyFactory.getNames().contains(candidate)
+            || !StrategyFactory.getNames().contains(baseline)) {
+      throw new IllegalArgumentException("Unknown strategy in " + candidate + ":" + baseline);
+    }
+    if (sideSize < 2) {
+      throw new IllegalArgumentException("Size of board inadequate");
+    }
+    if (budgetMillis < 0 || openingPlies < 0) {
+      throw new IllegalArgumentException("Budget and opening moves cannot be negative");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("Thread count must be positive");
+    }
+    if (reporter == null) {
+      throw new IllegalArgumentException("Reporter cannot be null");
+    }
+    this.candidate = candidate;
+    this.baseline = baseline;
+    this.sideSize = sideSize;
+    this.budgetMillis = budgetMillis;
+    this.openingPlies = openingPlies;
+    this.threads = threads;
+    this.seed = seed;
+    this.reporter = reporter;
+  }
+
+  /**
+   * Plays pairs of games until the test is decided or the most pairs have been played.
+   *
+   * @param sprt     the test that counts the pairs, which may already hold earlier pairs.
+   * @param maxPairs the most pairs to play if the test is not decided before.
+   * @return the test, holding every pair counted.
+   * @throws InterruptedException  if the thread is interrupted while the games are played
+   * @throws IllegalStateException if a game fails, such as by a strategy making an illegal move
+   */
+  public Sprt run(Sprt sprt, long maxPairs) throws InterruptedException {
+    ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+    Queue<Future<Integer>> queued = new ArrayDeque<Future<Integer>>();
+    try {
+      long submitted = 0;
+      long counted = 0;
+      while (submitted < maxPairs && submitted < 2L * this.threads) {
+        queued.add(pool.submit(this.pair(submitted++)));
+      }
+      while (counted < submitted) {
+        // the oldest pair is counted first, even if later pairs have already finished
+        sprt.addPair(queued.remove().get());
+        counted++;
+        if (counted % REPORT_INTERVAL == 0) {
+          this.reporter.accept(sprt.toString());
+        }
+        if (sprt.getDecision() != Sprt.Decision.CONTINUE) {
+          break;
+        }
+        if (submitted < maxPairs) {
+          queued.add(pool.submit(this.pair(submitted++)));
+        }
+      }
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A game failed: " + e.getCause(), e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+    return sprt;
+  }
+
+  /**
+   * Returns a task playing the pair of games with the given number, each game with newly made
+   * strategies searching on one thread, that returns the candidate's half points.
+   */
+  private Callable<Integer> pair(long pair) {
+    long opening = MatchSupport.openingSeed(this.seed, pair);
+    return () -> {
+      int halfPoints = 0;
+      for (CellModel.CellStatus color : new CellModel.CellStatus[]{BLACK, WHITE}) {
+        long strategies = opening ^ color.ordinal();
+        ReversiStrategy mine = StrategyFactory.create(this.candidate, 1, strategies);
+        ReversiStrategy theirs = StrategyFactory.create(this.baseline, 1, ~strategies);
+        HeadlessGame game = HeadlessGame.play(this.sideSize, color == BLACK ? mine : theirs,
+                color == BLACK ? theirs : mine, this.budgetMillis, this.openingPlies, opening);
+        CellModel.CellStatus winner = game.getWinner();
+        halfPoints += winner == color ? 2 : winner == CellModel.CellStatus.BLANK ? 1 : 0;
+      }
+      return halfPoints;
+    };
+  }
+
+  /**
+   * Runs a match from the command line and prints the outcome of the test.
+   *
+   * @param args options followed by the candidate and the baseline strategy names. The options
+   *             are -size followed by the side size (default 4), -budget followed by the
+   *             milliseconds per move (default 100), -plies followed by the random opening moves
+   *             (default 2), -threads followed by the pairs to play at once (default one per
+   *             processor), -elo0 and -elo1 followed by the hypotheses in Elo (default 0 and
+   *             20), -alpha and -beta followed by the error rates (default 0.05) and -pairs
+   *             followed by the most pairs to play (default 20000).
+   * @throws InterruptedException if the match is interrupted
+   */
+  public static void main(String[] args) throws InterruptedException {
+    int size = 4;
+    long budget = 100;
+    int plies = 2;
+    int threads = Runtime.getRuntime().availableProcessors();
+    double elo0 = 0;
+    double elo1 = 20;
+    double alpha = 0.05;
+    double beta = 0.05;
+    long maxPairs = 20_000;
+    String[] names = new String[2];
+    int named = 0;
+    for (int arg = 0; arg < args.length; arg++) {
+      switch (args[arg]) {
+        case "-size":
+          size = Integer.parseInt(MatchSupport.optionValue(args, ++arg));
+          break;
+        case "-budget":
+          budget = Long.parseLong(MatchSupport.optionValue(args, ++arg));
+          break;
+        case "-plies":
+          plies = Integer.parseInt(MatchSupport.optionValue(args, ++arg));
+          break;
+        case "-threads":
+          threads = Integer.parseInt(MatchSupport.optionValue(args, ++arg));
+          break;
+        case "-elo0":
+          elo0 = Double.parseDouble(MatchSupport.optionValue(args, ++arg));
+          break;
+        case "-elo1":
+          elo1 = Double.parseDouble(MatchSupport.optionValue(args, ++arg));
+          break;
+        case "-alpha":
+          alpha = Double.parseDouble(MatchSupport.optionValue(args, ++arg));
+          break;
+        case "-beta":
+          beta = Double.parseDouble(MatchSupport.optionValue(args, ++arg));
+          break;
+        case "-pairs":
+          maxPairs = Long.parseLong(MatchSupport.optionValue(args, ++arg));
+          break;
+        default:
+          if (named == 2) {
+            throw new IllegalArgumentException("Too many strategy names: " + args[arg]);
+          }
+          names[named++] = args[arg];
+      }
+    }
+    if (named != 2) {
+      throw new IllegalArgumentException("Usage: [options] candidate baseline with strategies "
+              + "from " + StrategyFactory.getNames());
+    }
+    long start = System.nanoTime();
+    SprtMatch match = new SprtMatch(names[0], names[1], size, budget, plies, threads, 1L,
+            System.out::println);
+    Sprt sprt = match.run(new Sprt(elo0, elo1, alpha, beta), maxPairs);
+    System.out.println(sprt);
+    System.out.println(String.format("Played %d games in %.1f s on %d threads",
+            2 * sprt.getPairCount(), (System.nanoTime() - start) / 1e9, threads));
+  }
+}
@@ -0,0 +1,161 @@
+package match;
+
+import model.CellModel;
+
+import static model.CellModel.CellStatus.BLACK;
+import static model.CellModel.CellStatus.WHITE;
+
+/**
+ * The results of the games between two strategies on one board size, counted from the first
+ * strategy's point of view: its wins, losses and draws, how many more discs it ended with on
+ * average, and how long each of the two took over its moves.
+ */
+public final class Standing {
+
+  private final String first;
+  private final String second;
+  private final int sideSize;
+  private final LatencyStats firstLatency;
+  private final LatencyStats secondLatency;
+  private int wins;
+  private int losses;
+  private int draws;
+  private long differential;
+
+  /**
+   * Constructs a standing with no games yet.
+   *
+   * @param first    the name of the first strategy.
+   * @param second   the name of the second strategy.
+   * @param sideSize the side size of the board the strategies play on.
+   */
+  Standing(String first, String second, int sideSize) {
+    this.first = first;
+    this.second = second;
+    this.sideSize = sideSize;
+    this.firstLatency = new LatencyStats();
+    this.secondLatency = new LatencyStats();
+  }
+
+  /**
+   * Counts a finished game between the two strategies.
+   *
+   * @param game         the finished game.
+   * @param firstIsBlack whether the first strategy played the black discs.
+   */
+  void record(HeadlessGame game, boolean firstIsBlack) {
+    CellModel.CellStatus firstColor = firstIsBlack ? BLACK : WHITE;
+    CellModel.CellStatus secondColor = firstIsBlack ? WHITE : BLACK;
+    CellModel.CellStatus winner = game.getWinner();
+    if (winner == firstColor) {
+      this.wins++;
+    } else if (winner == secondColor) {
+      this.losses++;
+    } else {
+      this.draws++;
+    }
+    this.differential += game.getScore(firstColor) - game.getScore(secondColor);
+    this.firstLatency.addAll(game.getMoveNanos(firstColor));
+    this.secondLatency.addAll(game.getMoveNanos(secondColor));
+  }
+
+  /**
+   * Returns the name of the first strategy.
+   *
+   * @return the first strategy's name.
+   */
+  public String getFirst() {
+    return this.first;
+  }
+
+  /**
+   * Returns the name of the second strategy.
+   *
+   * @return the second strategy's name.
+   */
+  public String getSecond() {
+    return this.second;
+  }
+
+  /**
+   * Returns the side size of the board the games were played on.
+   *
+   * @return the side size.
+   */
+  public int getSideSize() {
+    return this.sideSize;
+  }
+
+  /**
+   * Returns how many games have been counted.
+   *
+   * @return the number of games.
+   */
+  public int getGames() {
+    return this.wins + this.losses + this.draws;
+  }
+
+  /**
+   * Returns how many games the first strategy won.
+   *
+   * @return the first strategy's wins.
+   */
+  public int getWins() {
+    return this.wins;
+  }
+
+  /**
+   * Returns how many games the first strategy lost.
+   *
+   * @return the first strategy's losses.
+   */
+  public int getLosses() {
+    return this.losses;
+  }
+
+  /**
+   * Returns how many games were drawn.
+   *
+   * @return the number of draws.
+   */
+  public int getDraws() {
+    return this.draws;
+  }
+
+  /**
+   * Returns how many more discs than the second strategy the first ended its games with, on
+   * average.
+   *
+   * @return the mean disc differential, or 0 if no games have been counted.
+   */
+  public double getMeanDifferential() {
+    return this.getGames() == 0 ? 0 : this.differential / (double) this.getGames();
+  }
+
+  /**
+   * Returns how long the first strategy took over its moves.
+   *
+   * @return the first strategy's move times.
+   */
+  public LatencyStats getFirstLatency() {
+    return this.firstLatency;
+  }
+
+  /**
+   * Returns how long the second strategy took over its moves.
+   *
+   * @return the second strategy's move times.
+   */
+  public LatencyStats getSecondLatency() {
+    return this.secondLatency;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%-16s %-16s %4d %5d %5d %5d %+8.2f %8.2f %8.2f %8.2f %8.2f",
+            this.first, this.second, this.sideSize, this.wins, this.losses, this.draws,
+            this.getMeanDifferential(), this.firstLatency.getMeanMillis(),
+            this.firstLatency.getPercentileMillis(0.95), this.secondLatency.getMeanMillis(),
+            this.secondLatency.getPercentileMillis(0.95));
+  }
+}
@@ -0,0 +1,120 @@
+package match;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import model.CellModel;
+import model.Coordinate;
+import model.MoveList;
+import model.ReversiModel;
+import strategy.AlphaBetaSearch;
+import strategy.EndgameSolver;
+import strategy.MonteCarloSearch;
+import strategy.MoveRules;
+import strategy.ReversiStrategy;
+import strategy.StrategyPipeline;
+
+/**
+ * Makes strategies from the names they are known by on the command line, so that the game and
+ * the headless match runners understand the same names. Every call makes a new strategy, since
+ * the searching strategies remember positions from one move to the next and must not be shared
+ * between games played at the same time.
+ */
+public final class StrategyFactory {
+
+  private static final List<String> NAMES = Collections.unmodifiableList(Arrays.asList(
+          "captureMost", "avoidCorner", "playToCorner", "alphaBeta", "monteCarlo",
+          "shallowAlphaBeta", "random"));
+
+  private StrategyFactory() {
+  }
+
+  /**
+   * Makes a new strategy with the given name.
+   *
+   * @param name    the name of the strategy, one of those returned by getNames.
+   * @param threads how many threads a searching strategy may search with.
+   * @param seed    the seed of a strategy that makes random choices, so a game can be replayed.
+   * @return the strategy.
+   * @throws IllegalArgumentException if no strategy has that name or the thread count is not
+   *                                  positive
+   */
+  public static ReversiStrategy create(String name, int threads, long seed) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Thread count must be positive");
+    }
+    switch (String.valueOf(name)) {
+      case "captureMost":
+        return new StrategyPipeline(MoveRules.captureMost());
+      case "avoidCorner":
+        // the same choices as AvoidCornerAdjacent(PlayToCorner(CaptureMost)) in one board pass
+        return new StrategyPipeline(MoveRules.avoidCornerAdjacent(), MoveRules.playToCorner(),
+                MoveRules.captureMost());
+      case "playToCorner":
+        return new StrategyPipeline(MoveRules.playToCorner(), MoveRules.captureMost());
+      case "alphaBeta":
+        return new EndgameSolver(new AlphaBetaSearch(8, 2_000_000, threads));
+      case "monteCarlo":
+        return new EndgameSolver(new MonteCarloSearch(20_000, threads));
+      case "shallowAlphaBeta":
+        return new AlphaBetaSearch(4, 200_000, threads);
+      case "random":
+        return new RandomMove(seed);
+      default:
+        throw new IllegalArgumentException("Unknown strategy: " + name);
+    }
+  }
+
+  /**
+   * Returns whether the named strategy searches ahead, and so takes long enough over its moves
+   * to be worth a time budget.
+   *
+   * @param name the name of the strategy.
+   * @return true if the strategy searches.
+   * @throws IllegalArgumentException if no strategy has that name
+   */
+  public static boolean searches(String name) {
+    if (!NAMES.contains(name)) {
+      throw new IllegalArgumentException("Unknown strategy: " + name);
+    }
+    return name.equals("alphaBeta") || name.equals("monteCarlo")
+            || name.equals("shallowAlphaBeta");
+  }
+
+  /**
+   * Returns the name of every strategy the factory can make.
+   *
+   * @return the strategy names.
+   */
+  public static List<String> getNames() {
+    return NAMES;
+  }
+
+  /**
+   * A strategy that plays one of its legal moves at random, as a baseline every other strategy
+   * should beat.
+   */
+  private static final class RandomMove implements ReversiStrategy {
+
+    private final Random random;
+    private final MoveList moves;
+
+    RandomMove(long seed) {
+      this.random = new Random(seed);
+      this.moves = new MoveList();
+    }
+
+    @Override
+    public Optional<Coordinate> chooseCoordinate(ReversiModel model,
+                                                 CellModel.CellStatus player) {
+      model.findLegalMoves(player, this.moves);
+      if (this.moves.isEmpty()) {
+        return Optional.empty();
+      }
+      return Optional.of(this.moves.coordinate(this.random.nextInt(this.moves.size())));
+    }
+  }
+}
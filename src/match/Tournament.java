@@ -0,0 +1,224 @@
+package match;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import strategy.ReversiStrategy;
+
+/**
+ * Plays many games between pairs of strategies without a view, so matches can be run on a
+ * machine with no display. Games are played in parallel on a fixed pool of threads, each game
+ * with its own newly made strategies searching on one thread, so games do not slow each other
+ * down beyond sharing the processors.
+ *
+ * <p>The games of each pairing come in twos that start from the same random opening, once with
+ * each strategy playing black, so neither strategy is favoured by its color or its openings.
+ */
+public final class Tournament {
+
+  private final int threads;
+  private final long budgetMillis;
+  private final int openingPlies;
+  private final long seed;
+  private final List<Pairing> pairings;
+
+  /**
+   * Constructs a tournament with no pairings yet.
+   *
+   * @param threads      how many games to play at the same time.
+   * @param budgetMillis how long each strategy has to choose each move.
+   * @param openingPlies how many random moves each game starts with.
+   * @param seed         the seed the openings and random strategies are chosen by.
+   * @throws IllegalArgumentException if the thread count is not positive or the budget or
+   *                                  number of opening moves is negative
+   */
+  public Tournament(int threads, long budgetMillis, int openingPlies, long seed) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Thread count must be positive");
+    }
+    if (budgetMillis < 0 || openingPlies < 0) {
+      throw new IllegalArgumentException("Budget and opening moves cannot be negative");
+    }
+    this.threads = threads;
+    this.budgetMillis = budgetMillis;
+    this.openingPlies = openingPlies;
+    this.seed = seed;
+    this.pairings = new ArrayList<Pairing>();
+  }
+
+  /**
+   * Adds a pairing of two strategies on one board size.
+   *
+   * @param first    the name of the first strategy, as understood by StrategyFactory.
+   * @param second   the name of the second strategy.
+   * @param sideSize the side size of the board they play on.
+   * @param count    how many games they play, half with each color if the count is even.
+   * @throws IllegalArgumentException if a strategy name is unknown, the board is too small or
+   *                                  the number of games is not positive
+   */
+  public void add(String first, String second, int sideSize, int count) {
+    List<String> names = StrategyFactory.getNames();
+    if (!names.contains(first) || !names.contains(second)) {
+      throw new IllegalArgumentException("Unknown strategy in " + first + ":" + second);
+    }
+    if (sideSize < 2) {
+      throw new IllegalArgumentException("Size of board inadequate");
+    }
+    if (count < 1) {
+      throw new IllegalArgumentException("Number of games must be positive");
+    }
+    this.pairings.add(new Pairing(first, second, sideSize, count));
+  }
+
+  /**
+   * Plays every game of every pairing and returns the results, in the order the pairings were
+   * added. Each run plays the games afresh and returns new standings, so running a tournament
+   * again replays it rather than adding to the earlier results.
+   *
+   * @return the standing of each pairing.
+   * @throws InterruptedException  if the thread is interrupted while the games are played
+   * @throws IllegalStateException if a game fails, such as by a strategy making an illegal move
+   */
+  public List<Standing> run() throws InterruptedException {
+    ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+    List<Standing> standings = new ArrayList<Standing>();
+    try {
+      List<List<Future<HeadlessGame>>> results = new ArrayList<List<Future<HeadlessGame>>>();
+      for (int index = 0; index < this.pairings.size(); index++) {
+        Pairing pairing = this.pairings.get(index);
+        List<Future<HeadlessGame>> played = new ArrayList<Future<HeadlessGame>>();
+        for (int game = 0; game < pairing.games; game++) {
+          played.add(pool.submit(this.game(pairing, index, game)));
+        }
+        results.add(played);
+      }
+      for (int index = 0; index < results.size(); index++) {
+        Pairing pairing = this.pairings.get(index);
+        Standing standing = new Standing(pairing.first, pairing.second, pairing.sideSize);
+        List<Future<HeadlessGame>> played = results.get(index);
+        for (int game = 0; game < played.size(); game++) {
+          standing.record(played.get(game).get(), game % 2 == 0);
+        }
+        standings.add(standing);
+      }
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A game failed: " + e.getCause(), e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+    return standings;
+  }
+
+  /**
+   * Returns a task playing one game of a pairing. Games 2n and 2n + 1 share an opening, with
+   * the first strategy playing black in the even game. The pairing's index fills the high half
+   * of the opening number and the opening within the pairing the low half, so no two openings of
+   * a tournament share a number however many games a pairing has.
+   */
+  private Callable<HeadlessGame> game(Pairing pairing, int index, int game) {
+    long opening = MatchSupport.openingSeed(this.seed, ((long) index << 32) | (game / 2));
+    long strategies = opening ^ game;
+    return () -> {
+      ReversiStrategy first = StrategyFactory.create(pairing.first, 1, strategies);
+      ReversiStrategy second = StrategyFactory.create(pairing.second, 1, ~strategies);
+      boolean firstIsBlack = game % 2 == 0;
+      return HeadlessGame.play(pairing.sideSize, firstIsBlack ? first : second,
+              firstIsBlack ? second : first, this.budgetMillis, this.openingPlies, opening);
+    };
+  }
+
+  /**
+   * Two strategies, the board they play on and how many games they play there.
+   */
+  private static final class Pairing {
+
+    private final String first;
+    private final String second;
+    private final int sideSize;
+    private final int games;
+
+    Pairing(String first, String second, int sideSize, int games) {
+      this.first = first;
+      this.second = second;
+      this.sideSize = sideSize;
+      this.games = games;
+    }
+  }
+
+  /**
+   * Runs a tournament from the command line and prints a table of the results.
+   *
+   * @param args options followed by pairings written first:second, such as alphaBeta:random.
+   *             The options are -sizes followed by side sizes separated by commas (default 4),
+   *             -games followed by the games per pairing and size (default 20), -threads
+   *             followed by the number of games to play at once (default one per processor),
+   *             -budget followed by the milliseconds per move (default 1000) and -plies
+   *             followed by the number of random opening moves (default 2).
+   * @throws InterruptedException if the tournament is interrupted
+   */
+  public static void main(String[] args) throws InterruptedException {
+    List<Integer> sizes = new ArrayList<Integer>();
+    int count = 20;
+    int threads = Runtime.getRuntime().availableProcessors();
+    long budget = 1000;
+    int plies = 2;
+    List<String[]> pairings = new ArrayList<String[]>();
+    for (int arg = 0; arg < args.length; arg++) {
+      switch (args[arg]) {
+        case "-sizes":
+          for (String size : MatchSupport.optionValue(args, ++arg).split(",")) {
+            sizes.add(Integer.parseInt(size));
+          }
+          break;
+        case "-games":
+          count = Integer.parseInt(MatchSupport.optionValue(args, ++arg));
+          break;
+        case "-threads":
+          threads = Integer.parseInt(MatchSupport.optionValue(args, ++arg));
+          break;
+        case "-budget":
+          budget = Long.parseLong(MatchSupport.optionValue(args, ++arg));
+          break;
+        case "-plies":
+          plies = Integer.parseInt(MatchSupport.optionValue(args, ++arg));
+          break;
+        default:
+          String[] pairing = args[arg].split(":");
+          if (pairing.length != 2) {
+            throw new IllegalArgumentException("Pairings are written first:second, not "
+                    + args[arg]);
+          }
+          pairings.add(pairing);
+      }
+    }
+    if (pairings.isEmpty()) {
+      throw new IllegalArgumentException("Usage: [-sizes 4,5] [-games n] [-threads n] "
+              + "[-budget millis] [-plies n] first:second ... with strategies from "
+              + StrategyFactory.getNames());
+    }
+    if (sizes.isEmpty()) {
+      sizes.add(4);
+    }
+    Tournament tournament = new Tournament(threads, budget, plies, 1L);
+    for (String[] pairing : pairings) {
+      for (int size : sizes) {
+        tournament.add(pairing[0], pairing[1], size, count);
+      }
+    }
+    long start = System.nanoTime();
+    List<Standing> standings = tournament.run();
+    System.out.println(String.format("%-16s %-16s %4s %5s %5s %5s %8s %8s %8s %8s %8s",
+            "first", "second", "size", "wins", "losses", "draws", "discs", "1st ms",
+            "1st p95", "2nd ms", "2nd p95"));
+    for (Standing standing : standings) {
+      System.out.println(standing);
+    }
+    System.out.println(String.format("Played in %.1f s on %d threads",
+            (System.nanoTime() - start) / 1e9, threads));
+  }
+}
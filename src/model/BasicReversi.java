@@ -21,11 +21,18 @@ public class BasicReversi implements ReversiModel, ReadOnlyReversi {
 
   private final int sideSize;
   private final int length;
+  private final BoardTopology topology;
   private final List<List<Cell>> board;
+  private final BoardCell[] cells;
+  private final UndoStack undoStack;
+  private final ZobristKeys zobrist;
+  private long hash;
   private boolean gameOn;
   private CellModel.CellStatus playerTurn;
   private int passesInARow;
   private int numTilesFlipped;
+  private int blackCount;
+  private int whiteCount;
   private ReversiController blackController;
   private ReversiController whiteController;
   private String reasonOver;
@@ -45,7 +52,18 @@ public class BasicReversi implements ReversiModel, ReadOnlyReversi {
     this.gameOn = false;
     this.sideSize = sideSize;
     this.length = (this.sideSize * 2) - 1;
+    this.topology = BoardTopology.of(sideSize);
     this.board = this.makeBoard();
+    this.cells = new BoardCell[this.topology.getCellCount()];
+    int index = 0;
+    for (List<Cell> row : this.board) {
+      for (Cell cell : row) {
+        this.cells[index] = (BoardCell) cell;
+        index++;
+      }
+    }
+    this.undoStack = new UndoStack(this.cells.length);
+    this.zobrist = ZobristKeys.of(sideSize);
     this.playerTurn = WHITE;
   }
 
@@ -64,6 +82,7 @@ public class BasicReversi implements ReversiModel, ReadOnlyReversi {
         cell.addSamePlaneCells(this.board);
       }
     }
+    this.hash = this.zobrist.hash(this.board, this.playerTurn);
     this.passesInARow = 0;
 
   }
@@ -102,10 +121,12 @@ public class BasicReversi implements ReversiModel, ReadOnlyReversi {
     int r = this.sideSize - this.length;
     int qInit = 0;
     int width = sideSize;
+    int index = 0;
     for (int curLen = 0; curLen < this.length; curLen++) {
       List<Cell> row = new ArrayList<Cell>();
       for (int curWid = 0; curWid < width; curWid++) {
-        row.add(new CellModel(qInit + curWid, r, CellModel.CellStatus.BLANK));
+        row.add(new BoardCell(qInit + curWid, r, index));
+        index++;
       }
       gameBoard.add(row);
       if (r < 0) {
@@ -125,6 +146,7 @@ public class BasicReversi implements ReversiModel, ReadOnlyReversi {
   public void passTurn(CellModel.CellStatus playerCalling) {
     this.isPlayersTurn(playerCalling);
     this.isGameOn();
+    this.undoStack.clear();
     this.passesInARow++;
     this.switchPlayer();
 
@@ -136,19 +158,34 @@ public class BasicReversi implements ReversiModel, ReadOnlyReversi {
    */
   protected void switchPlayer() {
     this.isGameOn();
+    this.hash ^= this.zobrist.blackToMove();
     if (this.playerTurn.equals(BLACK)) {
       this.playerTurn = WHITE;
-      this.whiteController.notifyTurnBegin();
-      this.blackController.notifyTurnEnd();
+      notifyTurn(this.whiteController, this.blackController);
     } else if (this.playerTurn.equals(WHITE)) {
       this.playerTurn = BLACK;
-      this.blackController.notifyTurnBegin();
-      this.whiteController.notifyTurnEnd();
+      notifyTurn(this.blackController, this.whiteController);
     } else {
       throw new IllegalStateException("Not a valid player to switch from...");
     }
   }
 
+  /**
+   * Tells the controllers that the turn has passed from one player to the other. A game played
+   * without controllers, such as a headless match between strategies, has no one to tell.
+   *
+   * @param next     the controller of the player whose turn begins, or null if there is none.
+   * @param previous the controller of the player whose turn ends, or null if there is none.
+   */
+  private static void notifyTurn(ReversiController next, ReversiController previous) {
+    if (next != null) {
+      next.notifyTurnBegin();
+    }
+    if (previous != null) {
+      previous.notifyTurnEnd();
+    }
+  }
+
   /**
    * Return the board being used for the game of Reversi.
    *
@@ -171,7 +208,8 @@ public class BasicReversi implements ReversiModel, ReadOnlyReversi {
       this.isPlayersTurn(playerCalling);
     }
     this.isGameOn();
-    if (clickCell.getCellStatus() != CellModel.CellStatus.BLANK) {
+    int index = this.indexOf(clickCell);
+    if (this.cells[index].getCellStatus() != CellModel.CellStatus.BLANK) {
       if (move) {
         throw new IllegalStateException("Cell already full");
       } else {
@@ -180,13 +218,12 @@ public class BasicReversi implements ReversiModel, ReadOnlyReversi {
     }
 
     boolean moveValid = false;
-    for (List<Cell> cellsOnPlane : clickCell.getSamePlaneCells()) {
-      if (this.flipRow(clickCell, cellsOnPlane, move)) {
+    for (int dir = 0; dir < BoardTopology.DIRECTIONS; dir++) {
+      if (this.flipRay(index, dir, move)) {
         moveValid = true;
       }
     }
 
-
     if (!moveValid) {
       if (move) {
         throw new IllegalStateException("Invalid move!!! :(((((((((");
@@ -196,79 +233,202 @@ public class BasicReversi implements ReversiModel, ReadOnlyReversi {
     }
 
     if (move) {
+      this.setStatus(index, this.playerTurn);
       if (this.playerTurn == BLACK) {
-        clickCell.flipToBlack();
+        this.blackCount += this.numTilesFlipped + 1;
+        this.whiteCount -= this.numTilesFlipped;
       } else {
-        clickCell.flipToWhite();
+        this.whiteCount += this.numTilesFlipped + 1;
+        this.blackCount -= this.numTilesFlipped;
       }
+      this.undoStack.clear();
       this.switchPlayer();
       this.passesInARow = 0;
     }
     return true;
   }
 
+  @Override
+  public void makeMove(Coordinate move) {
+    this.isGameOn();
+    int index = this.topology.indexOf(move.q, move.r);
+    if (index < 0) {
+      throw new IllegalArgumentException("No cell corresponding to coordinates");
+    }
+    if (this.cells[index].getCellStatus() != CellModel.CellStatus.BLANK) {
+      throw new IllegalStateException("Cell already full");
+    }
+    if (this.countFlips(index, this.playerTurn) == 0) {
+      throw new IllegalStateException("Invalid move!!! :(((((((((");
+    }
+    this.undoStack.push(index, this.passesInARow, this.playerTurn);
+    int flipped = 0;
+    for (int dir = 0; dir < BoardTopology.DIRECTIONS; dir++) {
+      int rayLength = this.topology.rayLength(index, dir);
+      int run = 0;
+      while (run < rayLength && this.isOpponent(this.topology.rayCell(index, dir, run))) {
+        run++;
+      }
+      if (run > 0 && run < rayLength
+              && this.cells[this.topology.rayCell(index, dir, run)].getCellStatus()
+              == this.playerTurn) {
+        for (int step = 0; step < run; step++) {
+          int cell = this.topology.rayCell(index, dir, step);
+          this.setStatus(cell, this.playerTurn);
+          this.undoStack.addFlip(cell);
+        }
+        flipped += run;
+      }
+    }
+    this.setStatus(index, this.playerTurn);
+    if (this.playerTurn == BLACK) {
+      this.blackCount += flipped + 1;
+      this.whiteCount -= flipped;
+      this.playerTurn = WHITE;
+    } else {
+      this.whiteCount += flipped + 1;
+      this.blackCount -= flipped;
+      this.playerTurn = BLACK;
+    }
+    this.hash ^= this.zobrist.blackToMove();
+    this.passesInARow = 0;
+  }
+
+  @Override
+  public void makePass() {
+    this.isGameOn();
+    this.undoStack.push(-1, this.passesInARow, this.playerTurn);
+    this.passesInARow++;
+    this.playerTurn = this.playerTurn == BLACK ? WHITE : BLACK;
+    this.hash ^= this.zobrist.blackToMove();
+  }
+
+  @Override
+  public void unmakeMove() {
+    int index = this.undoStack.cell();
+    CellModel.CellStatus mover = this.undoStack.turn();
+    if (index >= 0) {
+      CellModel.CellStatus other = mover == BLACK ? WHITE : BLACK;
+      int flipped = this.undoStack.flipCount();
+      for (int flip = 0; flip < flipped; flip++) {
+        this.setStatus(this.undoStack.flip(flip), other);
+      }
+      this.setStatus(index, CellModel.CellStatus.BLANK);
+      if (mover == BLACK) {
+        this.blackCount -= flipped + 1;
+        this.whiteCount += flipped;
+      } else {
+        this.whiteCount -= flipped + 1;
+        this.blackCount += flipped;
+      }
+    }
+    this.passesInARow = this.undoStack.passes();
+    this.playerTurn = mover;
+    this.hash ^= this.zobrist.blackToMove();
+    this.undoStack.pop();
+  }
+
+  /**
+   * Sets the status of the cell with the given index, keeping the position hash up to date.
+   *
+   * @param index  the index of the cell.
+   * @param status the new status of the cell.
+   */
+  private void setStatus(int index, CellModel.CellStatus status) {
+    this.hash ^= this.zobrist.disc(index, this.cells[index].getCellStatus())
+            ^ this.zobrist.disc(index, status);
+    this.cells[index].write(status);
+  }
+
+  /**
+   * Changes the status of a cell from outside the model, through a cell of the board getBoard
+   * returns, keeping the disc counts and position hash up to date. A change made this way is not
+   * a move, so it cannot be taken back with unmakeMove.
+   *
+   * @param index  the index of the cell.
+   * @param status the new status of the cell.
+   */
+  private void changeCell(int index, CellModel.CellStatus status) {
+    CellModel.CellStatus old = this.cells[index].getCellStatus();
+    if (old == status) {
+      return;
+    }
+    if (old == BLACK) {
+      this.blackCount--;
+    } else if (old == WHITE) {
+      this.whiteCount--;
+    }
+    if (status == BLACK) {
+      this.blackCount++;
+    } else if (status == WHITE) {
+      this.whiteCount++;
+    }
+    this.setStatus(index, status);
+    this.undoStack.clear();
+  }
+
   /**
-   * Flips all the cells between the clicked on cell and the player-owned cell if it is valid.
+   * Flips all the cells between the clicked on cell and the nearest player-owned cell in one
+   * direction if they are all the other player's. The line is walked outwards from the clicked
+   * cell and the walk stops at the first cell that is blank or the player's own.
    *
-   * @param clickCell    the hexagonal cell the user clicked on for their intended turn.
-   * @param cellsOnPlane the cells on the same plane as the clicked cell. i.e. on the q plane,
-   *                     r plane, and s plane.
-   * @param move         when true, move the discs, when false, just return if flip row is valid
+   * @param clickIndex the index of the hexagonal cell the user clicked on for their turn.
+   * @param dir        the direction to walk in, from 0 to BoardTopology.DIRECTIONS - 1.
+   * @param move       when true, move the discs, when false, just return if flip row is valid
    * @return whether the move is valid, which will result in the cells being flipped or not based
    *         on the result.
    */
-  private boolean flipRow(Cell clickCell, List<Cell> cellsOnPlane, boolean move) {
-    this.isGameOn();
-    boolean containsValidMove = false;
-    int firstCell;
-    int lastCell;
-    for (Cell c : cellsOnPlane) {
-      // if the cells are the same color
-      if (c.getCellStatus() == this.playerTurn) {
-        // if it is not the given cell or one right next to it
-        if (Math.abs(cellsOnPlane.indexOf(clickCell) - cellsOnPlane.indexOf(c)) > 1) {
-          // if the clicked cell comes first, it is the first cell. Vice versa
-          if (cellsOnPlane.indexOf(clickCell) < cellsOnPlane.indexOf(c)) {
-            firstCell = cellsOnPlane.indexOf(clickCell) + 1;
-            lastCell = cellsOnPlane.indexOf(c) - 1;
-          } else {
-            firstCell = cellsOnPlane.indexOf(c) + 1;
-            lastCell = cellsOnPlane.indexOf(clickCell) - 1;
-          }
-          // determine if a run is valid. run is valid if every cell between the clicked cell
-          // and the cell in question are the opposite color as the current player.
-          boolean validRun = true;
-          for (int curIdx = firstCell; curIdx <= lastCell; curIdx++) {
-            if (cellsOnPlane.get(curIdx).getCellStatus() == playerTurn
-                    || cellsOnPlane.get(curIdx).getCellStatus() == CellModel.CellStatus.BLANK) {
-              validRun = false;
-            }
-          }
-          // if a run is valid, flip every cell between the clicked cell and cell in question
-          // to the color of the current player.
-          if (validRun) {
-            containsValidMove = true;
-            for (int curIdx = firstCell; curIdx <= lastCell; curIdx++) {
-              if (move) {
-                if (playerTurn == BLACK) {
-                  cellsOnPlane.get(curIdx).flipToBlack();
-                } else {
-                  cellsOnPlane.get(curIdx).flipToWhite();
-                }
-              }
-              this.numTilesFlipped++;
-            }
-
-          }
-        }
+  private boolean flipRay(int clickIndex, int dir, boolean move) {
+    int rayLength = this.topology.rayLength(clickIndex, dir);
+    int run = 0;
+    while (run < rayLength && this.isOpponent(this.topology.rayCell(clickIndex, dir, run))) {
+      run++;
+    }
+    if (run == 0 || run == rayLength
+            || this.cells[this.topology.rayCell(clickIndex, dir, run)].getCellStatus()
+            != this.playerTurn) {
+      return false;
+    }
+    for (int step = 0; step < run; step++) {
+      if (move) {
+        this.setStatus(this.topology.rayCell(clickIndex, dir, step), this.playerTurn);
       }
+      this.numTilesFlipped++;
     }
-    return containsValidMove;
+    return true;
+  }
+
+  /**
+   * Determines if the cell with the given index holds a disc of the player whose turn it is not.
+   *
+   * @param index the index of the cell.
+   * @return true if the cell belongs to the other player.
+   */
+  private boolean isOpponent(int index) {
+    CellModel.CellStatus status = this.cells[index].getCellStatus();
+    return status != CellModel.CellStatus.BLANK && status != this.playerTurn;
+  }
+
+  /**
+   * Returns the index of the cell of this board with the same coordinates as the given cell.
+   *
+   * @param cell a cell with the coordinates to look up.
+   * @return the index of the cell on this board.
+   * @throws IllegalArgumentException if the coordinates are not on this board
+   */
+  private int indexOf(Cell cell) {
+    Coordinate coordinate = cell.getCoordinate();
+    int index = this.topology.indexOf(coordinate.q, coordinate.r);
+    if (index < 0) {
+      throw new IllegalArgumentException("No cell corresponding to coordinates");
+    }
+    return index;
   }
 
   /**
    * Calculates the score of the game for the given player, which equates to how many hexagons
-   * on the board are the player's color.
+   * on the board are the player's color. The counts are kept up to date as discs are placed and
+   * flipped, so no board scan is needed.
    *
    * @param playerColor the color of the player's hexagonal cells.
    * @return the score associated with the correct player.
@@ -279,15 +439,13 @@ public class BasicReversi implements ReversiModel, ReadOnlyReversi {
     if (playerColor == CellModel.CellStatus.BLANK) {
       throw new IllegalArgumentException("Cannot return blank score");
     }
-    int score = 0;
-    for (List<Cell> row : this.board) {
-      for (Cell cell : row) {
-        if (cell.getCellStatus().equals(playerColor)) {
-          score++;
-        }
-      }
-    }
-    return score;
+    return playerColor == BLACK ? this.blackCount : this.whiteCount;
+  }
+
+  @Override
+  public int getBlankCount() {
+    this.isGameOn();
+    return this.cells.length - this.blackCount - this.whiteCount;
   }
 
   /**
@@ -302,15 +460,7 @@ public class BasicReversi implements ReversiModel, ReadOnlyReversi {
       this.reasonOver = "2 Passes in a Row!";
       return true;
     }
-    boolean filled = true;
-    for (List<Cell> row : this.board) {
-      for (Cell cell : row) {
-        if (cell.getCellStatus() == CellModel.CellStatus.BLANK) {
-          filled = false;
-        }
-      }
-    }
-    if (filled) {
+    if (this.getBlankCount() == 0) {
       this.reasonOver = "All Cells Filled!";
       return true;
     }
@@ -360,19 +510,29 @@ public class BasicReversi implements ReversiModel, ReadOnlyReversi {
 
   @Override
   public Cell getClickedCell(Coordinate coordinate) {
-    Cell clickedCell = null;
-    for (List<Cell> row : this.board) {
-      for (Cell cell : row) {
-        if (cell.getCoordinate().equals(coordinate)) {
-          clickedCell = cell;
-        }
-      }
-    }
-    if (clickedCell != null) {
-      return clickedCell;
-    } else {
+    return this.cellAt(coordinate.q, coordinate.r);
+  }
+
+  @Override
+  public Cell getClickedCell(int packedCoordinate) {
+    return this.cellAt(Coordinate.packedQ(packedCoordinate), Coordinate.packedR(packedCoordinate));
+  }
+
+  /**
+   * Returns the cell with the given axial coordinates, looked up through the dense index of the
+   * board's topology.
+   *
+   * @param q the q coordinate of the cell.
+   * @param r the r coordinate of the cell.
+   * @return the cell with those coordinates.
+   * @throws IllegalArgumentException if the coordinates are not on the board
+   */
+  private Cell cellAt(int q, int r) {
+    int index = this.topology.indexOf(q, r);
+    if (index < 0) {
       throw new IllegalArgumentException("No cell corresponding to coordinates");
     }
+    return this.cells[index];
   }
 
   /**
@@ -397,18 +557,112 @@ public class BasicReversi implements ReversiModel, ReadOnlyReversi {
    * @return true if the current player can make a move
    */
   public boolean anyValidMoves() {
-    for (List<Cell> row : this.board) {
-      for (Cell cell : row) {
-        if (this.playADisc(cell, BLACK, false)
-                || this.playADisc(cell, WHITE, false)) {
-          return true;
+    for (int index = 0; index < this.cells.length; index++) {
+      if (this.cells[index].getCellStatus() == CellModel.CellStatus.BLANK
+              && this.isValidMove(index)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void findLegalMoves(CellModel.CellStatus player, MoveList moves) {
+    this.isGameOn();
+    if (player == CellModel.CellStatus.BLANK) {
+      throw new IllegalArgumentException("Player cannot be blank :(");
+    }
+    moves.clear();
+    for (int index = 0; index < this.cells.length; index++) {
+      if (this.cells[index].getCellStatus() == CellModel.CellStatus.BLANK) {
+        int flipped = this.countFlips(index, player);
+        if (flipped > 0) {
+          moves.add(Coordinate.pack(this.topology.q(index), this.topology.r(index)), flipped);
         }
       }
     }
+  }
+
+  @Override
+  public int countFlips(Coordinate move, CellModel.CellStatus player) {
+    this.isGameOn();
+    if (player == CellModel.CellStatus.BLANK) {
+      throw new IllegalArgumentException("Player cannot be blank :(");
+    }
+    int index = this.topology.indexOf(move.q, move.r);
+    if (index < 0) {
+      throw new IllegalArgumentException("No cell corresponding to coordinates");
+    }
+    if (this.cells[index].getCellStatus() != CellModel.CellStatus.BLANK) {
+      return 0;
+    }
+    return this.countFlips(index, player);
+  }
+
+  /**
+   * Counts how many discs the given player would flip by playing on the blank cell with the given
+   * index, without changing the board.
+   *
+   * @param index  the index of a blank cell.
+   * @param player the color of the player playing the disc.
+   * @return the number of discs that would be flipped, which is 0 if the move is not valid.
+   */
+  private int countFlips(int index, CellModel.CellStatus player) {
+    int flipped = 0;
+    for (int dir = 0; dir < BoardTopology.DIRECTIONS; dir++) {
+      int rayLength = this.topology.rayLength(index, dir);
+      int run = 0;
+      while (run < rayLength) {
+        CellModel.CellStatus status =
+                this.cells[this.topology.rayCell(index, dir, run)].getCellStatus();
+        if (status == CellModel.CellStatus.BLANK || status == player) {
+          break;
+        }
+        run++;
+      }
+      if (run > 0 && run < rayLength
+              && this.cells[this.topology.rayCell(index, dir, run)].getCellStatus() == player) {
+        flipped += run;
+      }
+    }
+    return flipped;
+  }
+
+  /**
+   * Determines if the current player could play a disc on the blank cell with the given index,
+   * stopping at the first direction that would flip anything.
+   *
+   * @param index the index of a blank cell.
+   * @return true if a disc played there would flip at least one disc
+   */
+  private boolean isValidMove(int index) {
+    for (int dir = 0; dir < BoardTopology.DIRECTIONS; dir++) {
+      int rayLength = this.topology.rayLength(index, dir);
+      int run = 0;
+      while (run < rayLength && this.isOpponent(this.topology.rayCell(index, dir, run))) {
+        run++;
+      }
+      if (run > 0 && run < rayLength
+              && this.cells[this.topology.rayCell(index, dir, run)].getCellStatus()
+              == this.playerTurn) {
+        return true;
+      }
+    }
     return false;
   }
 
 
+  @Override
+  public long getPositionHash() {
+    this.isGameOn();
+    return this.hash;
+  }
+
+  @Override
+  public CellClassification getCellClassification() {
+    return CellClassification.of(this.sideSize);
+  }
+
   @Override
   public int getLastTurnTilesFlipped() {
     return this.numTilesFlipped;
@@ -446,4 +700,55 @@ public class BasicReversi implements ReversiModel, ReadOnlyReversi {
     }
   }
 
-}
\ No newline at end of file
+  /**
+   * A hexagonal cell of a BasicReversi board. Flipping the cell goes through the model, so the
+   * model's disc counts and position hash follow changes made through the board getBoard
+   * returns; the model's own moves write the status directly.
+   */
+  private final class BoardCell extends CellModel {
+
+    private final int index;
+
+    /**
+     * Constructs a blank cell of the board.
+     *
+     * @param q     the q coordinate of the cell.
+     * @param r     the r coordinate of the cell.
+     * @param index the index of the cell in the board's topology.
+     */
+    private BoardCell(int q, int r, int index) {
+      super(q, r, CellModel.CellStatus.BLANK);
+      this.index = index;
+    }
+
+    @Override
+    public void flipToBlack() {
+      changeCell(this.index, BLACK);
+    }
+
+    @Override
+    public void flipToWhite() {
+      changeCell(this.index, WHITE);
+    }
+
+    @Override
+    public void flipToBlank() {
+      changeCell(this.index, CellModel.CellStatus.BLANK);
+    }
+
+    /**
+     * Sets the status of the cell without telling the model.
+     *
+     * @param status the new status of the cell.
+     */
+    private void write(CellModel.CellStatus status) {
+      if (status == BLACK) {
+        super.flipToBlack();
+      } else if (status == WHITE) {
+        super.flipToWhite();
+      } else {
+        super.flipToBlank();
+      }
+    }
+  }
+}
@@ -0,0 +1,847 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import controller.ReversiController;
+import controller.ReversiControllerImplementation;
+
+import static model.CellModel.CellStatus.BLACK;
+import static model.CellModel.CellStatus.BLANK;
+import static model.CellModel.CellStatus.WHITE;
+
+/**
+ * A model of a game of Reversi with a hexagonal board that stores the discs as packed bit sets
+ * rather than as a grid of cell objects. It follows exactly the same rules as BasicReversi and can
+ * be used anywhere a ReversiModel is expected.
+ *
+ * <p>Every cell is given a fixed bit index computed from its axial coordinates: the board is laid
+ * out as a parallelogram of (2 * sideSize - 1) rows of (2 * sideSize) bits, where the extra bit
+ * in each row is a guard column that is never a valid cell. Moving one cell along any of the three
+ * hexagonal axes is then a constant shift of the bit index, so legal moves and flips can be found
+ * by shifting and masking whole boards at once.
+ */
+public class BitboardReversi implements ReversiModel, ReadOnlyReversi {
+
+  private final int sideSize;
+  private final int length;
+  private final int stride;
+  private final int[] shifts;
+  private final long[] valid;
+  private final long[] black;
+  private final long[] white;
+  private final long[] scratch;
+  private final long[] run;
+  private final long[] flips;
+  private final long[] moves;
+  private final BoardTopology topology;
+  private final List<List<Cell>> board;
+  private final Cell[] cells;
+  private final UndoStack undoStack;
+  private final ZobristKeys zobrist;
+  private final int[] cellOfBit;
+  private long hash;
+  private boolean gameOn;
+  private CellModel.CellStatus playerTurn;
+  private int passesInARow;
+  private int numTilesFlipped;
+  private int blackCount;
+  private int whiteCount;
+  private ReversiController blackController;
+  private ReversiController whiteController;
+  private String reasonOver;
+
+  /**
+   * Constructs the model for a game of Reversi backed by bit sets and initializes the game into a
+   * state where it is ready to start.
+   *
+   * @param sideSize the input size for how long a singular side of the entire hexagon board is,
+   *                 such that the side is __ hexagons long.
+   */
+  public BitboardReversi(int sideSize) {
+    if (sideSize < 2) {
+      throw new IllegalArgumentException("Size of board inadequate");
+    }
+    this.gameOn = false;
+    this.sideSize = sideSize;
+    this.length = (this.sideSize * 2) - 1;
+    this.stride = this.length + 1;
+    // one step along +q, -q, +r, -r, +q-r and -q+r respectively
+    this.shifts = new int[]{1, -1, this.stride, -this.stride, 1 - this.stride, this.stride - 1};
+    int words = ((this.length * this.stride) + 63) >>> 6;
+    this.valid = new long[words];
+    this.black = new long[words];
+    this.white = new long[words];
+    this.scratch = new long[words];
+    this.run = new long[words];
+    this.flips = new long[words];
+    this.moves = new long[words];
+    this.topology = BoardTopology.of(sideSize);
+    this.cells = new Cell[this.topology.getCellCount()];
+    this.cellOfBit = new int[words << 6];
+    this.zobrist = ZobristKeys.of(sideSize);
+    this.board = this.makeBoard();
+    this.undoStack = new UndoStack(this.cells.length);
+    this.playerTurn = WHITE;
+  }
+
+  /**
+   * Makes a started copy of a game in progress, with the same discs and the same player to
+   * move, for a strategy to search on another thread while the game goes on. The copy has no
+   * controllers and no moves to take back, and it does not know how many turns were passed in a
+   * row before it was made.
+   *
+   * @param game the game to copy, which must have started.
+   * @return a copy of the current position of the game.
+   * @throws IllegalStateException if the game has not started
+   */
+  public static BitboardReversi copyOf(ReadOnlyReversi game) {
+    BitboardReversi copy = new BitboardReversi(game.getSideSize());
+    int index = 0;
+    for (List<Cell> row : game.getBoard()) {
+      for (Cell cell : row) {
+        int bit = copy.bitOf(copy.topology.q(index), copy.topology.r(index));
+        if (cell.getCellStatus() == BLACK) {
+          set(copy.black, bit);
+          copy.blackCount++;
+        } else if (cell.getCellStatus() == WHITE) {
+          set(copy.white, bit);
+          copy.whiteCount++;
+        }
+        index++;
+      }
+    }
+    copy.gameOn = true;
+    copy.playerTurn = game.whoseTurn();
+    copy.hash = copy.zobrist.hash(copy.board, copy.playerTurn);
+    return copy;
+  }
+
+  /**
+   * Makes the hexagonal board of cells, all backed by this model's bit sets, in the same row
+   * order as BasicReversi, and marks each cell as valid.
+   *
+   * @return the blank hexagonal board needed for a game of Reversi.
+   */
+  private List<List<Cell>> makeBoard() {
+    List<List<Cell>> gameBoard = new ArrayList<List<Cell>>();
+    for (int index = 0; index < this.cells.length; index++) {
+      int q = this.topology.q(index);
+      int r = this.topology.r(index);
+      if (this.topology.column(index) == 0) {
+        gameBoard.add(new ArrayList<Cell>());
+      }
+      int bit = this.bitOf(q, r);
+      set(this.valid, bit);
+      this.cellOfBit[bit] = index;
+      this.cells[index] = new BitCell(new Coordinate(q, r), bit);
+      gameBoard.get(this.topology.row(index)).add(this.cells[index]);
+    }
+    return gameBoard;
+  }
+
+  /**
+   * Returns the bit index of the cell with the given axial coordinates.
+   *
+   * @param q the q coordinate of the cell.
+   * @param r the r coordinate of the cell.
+   * @return the index of the bit representing the cell.
+   */
+  private int bitOf(int q, int r) {
+    return ((r + this.sideSize - 1) * this.stride) + (q + this.sideSize - 1);
+  }
+
+  @Override
+  public void startGame() {
+    if (this.gameOn) {
+      throw new IllegalStateException("Game already underway!! :)");
+    }
+    this.gameOn = true;
+    set(this.black, this.bitOf(0, -1));
+    set(this.black, this.bitOf(1, 0));
+    set(this.black, this.bitOf(-1, 1));
+    set(this.white, this.bitOf(1, -1));
+    set(this.white, this.bitOf(0, 1));
+    set(this.white, this.bitOf(-1, 0));
+    // count rather than assume, since cells may have been flipped through getBoard already
+    this.blackCount = count(this.black);
+    this.whiteCount = count(this.white);
+    this.hash = this.zobrist.hash(this.board, this.playerTurn);
+    this.passesInARow = 0;
+  }
+
+  @Override
+  public void passTurn(CellModel.CellStatus playerCalling) {
+    this.isPlayersTurn(playerCalling);
+    this.isGameOn();
+    this.undoStack.clear();
+    this.passesInARow++;
+    this.switchPlayer();
+  }
+
+  /**
+   * Switches the turn from the current player to the other player.
+   */
+  protected void switchPlayer() {
+    this.isGameOn();
+    this.hash ^= this.zobrist.blackToMove();
+    if (this.playerTurn.equals(BLACK)) {
+      this.playerTurn = WHITE;
+      notifyTurn(this.whiteController, this.blackController);
+    } else if (this.playerTurn.equals(WHITE)) {
+      this.playerTurn = BLACK;
+      notifyTurn(this.blackController, this.whiteController);
+    } else {
+      throw new IllegalStateException("Not a valid player to switch from...");
+    }
+  }
+
+  /**
+   * Tells the controllers that the turn has passed from one player to the other. A game played
+   * without controllers, such as a headless match between strategies, has no one to tell.
+   *
+   * @param next     the controller of the player whose turn begins, or null if there is none.
+   * @param previous the controller of the player whose turn ends, or null if there is none.
+   */
+  private static void notifyTurn(ReversiController next, ReversiController previous) {
+    if (next != null) {
+      next.notifyTurnBegin();
+    }
+    if (previous != null) {
+      previous.notifyTurnEnd();
+    }
+  }
+
+  @Override
+  public List<List<Cell>> getBoard() {
+    return new ArrayList<List<Cell>>(this.board);
+  }
+
+  @Override
+  public boolean playADisc(Cell clickCell, CellModel.CellStatus playerCalling, boolean move) {
+    this.numTilesFlipped = 0;
+
+    if (move) {
+      this.isPlayersTurn(playerCalling);
+    }
+    this.isGameOn();
+    Coordinate coordinate = clickCell.getCoordinate();
+    if (this.topology.indexOf(coordinate.q, coordinate.r) < 0) {
+      throw new IllegalArgumentException("No cell corresponding to coordinates");
+    }
+    int bit = this.bitOf(coordinate.q, coordinate.r);
+    if (test(this.black, bit) || test(this.white, bit)) {
+      if (move) {
+        throw new IllegalStateException("Cell already full");
+      } else {
+        return false;
+      }
+    }
+
+    long[] own = this.playerTurn == BLACK ? this.black : this.white;
+    long[] opp = this.playerTurn == BLACK ? this.white : this.black;
+    this.numTilesFlipped = this.findFlips(bit, own, opp);
+
+    if (this.numTilesFlipped == 0) {
+      if (move) {
+        throw new IllegalStateException("Invalid move!!! :(((((((((");
+      } else {
+        return false;
+      }
+    }
+
+    if (move) {
+      this.applyFlips(bit, own, opp, false);
+      if (own == this.black) {
+        this.blackCount += this.numTilesFlipped + 1;
+        this.whiteCount -= this.numTilesFlipped;
+      } else {
+        this.whiteCount += this.numTilesFlipped + 1;
+        this.blackCount -= this.numTilesFlipped;
+      }
+      this.undoStack.clear();
+      this.switchPlayer();
+      this.passesInARow = 0;
+    }
+    return true;
+  }
+
+  @Override
+  public void makeMove(Coordinate move) {
+    this.isGameOn();
+    if (this.topology.indexOf(move.q, move.r) < 0) {
+      throw new IllegalArgumentException("No cell corresponding to coordinates");
+    }
+    int bit = this.bitOf(move.q, move.r);
+    if (test(this.black, bit) || test(this.white, bit)) {
+      throw new IllegalStateException("Cell already full");
+    }
+    long[] own = this.playerTurn == BLACK ? this.black : this.white;
+    long[] opp = this.playerTurn == BLACK ? this.white : this.black;
+    int flipped = this.findFlips(bit, own, opp);
+    if (flipped == 0) {
+      throw new IllegalStateException("Invalid move!!! :(((((((((");
+    }
+    this.undoStack.push(bit, this.passesInARow, this.playerTurn);
+    this.applyFlips(bit, own, opp, true);
+    if (this.playerTurn == BLACK) {
+      this.blackCount += flipped + 1;
+      this.whiteCount -= flipped;
+      this.playerTurn = WHITE;
+    } else {
+      this.whiteCount += flipped + 1;
+      this.blackCount -= flipped;
+      this.playerTurn = BLACK;
+    }
+    this.hash ^= this.zobrist.blackToMove();
+    this.passesInARow = 0;
+  }
+
+  @Override
+  public void makePass() {
+    this.isGameOn();
+    this.undoStack.push(-1, this.passesInARow, this.playerTurn);
+    this.passesInARow++;
+    this.playerTurn = this.playerTurn == BLACK ? WHITE : BLACK;
+    this.hash ^= this.zobrist.blackToMove();
+  }
+
+  @Override
+  public void unmakeMove() {
+    int bit = this.undoStack.cell();
+    CellModel.CellStatus mover = this.undoStack.turn();
+    if (bit >= 0) {
+      long[] own = mover == BLACK ? this.black : this.white;
+      long[] opp = mover == BLACK ? this.white : this.black;
+      int flipped = this.undoStack.flipCount();
+      for (int flip = 0; flip < flipped; flip++) {
+        int flippedBit = this.undoStack.flip(flip);
+        clear(own, flippedBit);
+        set(opp, flippedBit);
+        this.hash ^= this.zobrist.flip(this.cellOfBit[flippedBit]);
+      }
+      clear(own, bit);
+      this.hash ^= this.zobrist.disc(this.cellOfBit[bit], mover);
+      if (mover == BLACK) {
+        this.blackCount -= flipped + 1;
+        this.whiteCount += flipped;
+      } else {
+        this.whiteCount -= flipped + 1;
+        this.blackCount += flipped;
+      }
+    }
+    this.passesInARow = this.undoStack.passes();
+    this.playerTurn = mover;
+    this.hash ^= this.zobrist.blackToMove();
+    this.undoStack.pop();
+  }
+
+  /**
+   * Places the current player's disc on the given bit and flips the discs left in the flips
+   * scratch board by findFlips, keeping the position hash up to date.
+   *
+   * @param bit    the bit the disc is placed on.
+   * @param own    the discs of the player placing the disc.
+   * @param opp    the discs of the other player.
+   * @param record whether to record each flipped bit on the undo stack.
+   */
+  private void applyFlips(int bit, long[] own, long[] opp, boolean record) {
+    for (int word = 0; word < this.flips.length; word++) {
+      long remaining = this.flips[word];
+      while (remaining != 0) {
+        int flippedBit = (word << 6) + Long.numberOfTrailingZeros(remaining);
+        remaining &= remaining - 1;
+        this.hash ^= this.zobrist.flip(this.cellOfBit[flippedBit]);
+        if (record) {
+          this.undoStack.addFlip(flippedBit);
+        }
+      }
+      own[word] |= this.flips[word];
+      opp[word] &= ~this.flips[word];
+    }
+    set(own, bit);
+    this.hash ^= this.zobrist.disc(this.cellOfBit[bit], this.playerTurn);
+  }
+
+  /**
+   * Finds every disc that a disc placed on the given bit would flip, by flooding outwards along
+   * each of the six directions through the opponent's discs and keeping only the runs that end on
+   * one of the player's own discs. The discs found are left in the flips scratch board.
+   *
+   * @param bit the bit the disc would be placed on.
+   * @param own the discs of the player placing the disc.
+   * @param opp the discs of the other player.
+   * @return the number of discs that would be flipped.
+   */
+  private int findFlips(int bit, long[] own, long[] opp) {
+    Arrays.fill(this.flips, 0L);
+    for (int shift : this.shifts) {
+      Arrays.fill(this.scratch, 0L);
+      set(this.scratch, bit);
+      Arrays.fill(this.run, 0L);
+      boolean extended = true;
+      while (extended) {
+        shift(this.scratch, shift);
+        extended = false;
+        for (int i = 0; i < this.scratch.length; i++) {
+          this.scratch[i] &= this.valid[i];
+          if ((this.scratch[i] & opp[i]) != 0) {
+            extended = true;
+          }
+        }
+        if (extended) {
+          for (int i = 0; i < this.scratch.length; i++) {
+            this.scratch[i] &= opp[i];
+            this.run[i] |= this.scratch[i];
+          }
+        }
+      }
+      // the run only counts if the step after the last opponent disc lands on an own disc
+      boolean bracketed = false;
+      for (int i = 0; i < this.scratch.length; i++) {
+        if ((this.scratch[i] & own[i]) != 0) {
+          bracketed = true;
+        }
+      }
+      if (bracketed) {
+        for (int i = 0; i < this.run.length; i++) {
+          this.flips[i] |= this.run[i];
+        }
+      }
+    }
+    return count(this.flips);
+  }
+
+  /**
+   * Determines if the current player has any valid moves to be made.
+   *
+   * @return true if the current player can make a move
+   */
+  @Override
+  public boolean anyValidMoves() {
+    if (this.playerTurn == BLACK) {
+      this.findMoves(this.black, this.white);
+    } else {
+      this.findMoves(this.white, this.black);
+    }
+    for (long word : this.moves) {
+      if (word != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void findLegalMoves(CellModel.CellStatus player, MoveList moves) {
+    this.isGameOn();
+    if (player == BLANK) {
+      throw new IllegalArgumentException("Player cannot be blank :(");
+    }
+    long[] own = player == BLACK ? this.black : this.white;
+    long[] opp = player == BLACK ? this.white : this.black;
+    this.findMoves(own, opp);
+    moves.clear();
+    // bits increase along each row and then down the rows, which is the order of the board
+    for (int word = 0; word < this.moves.length; word++) {
+      long remaining = this.moves[word];
+      while (remaining != 0) {
+        int bit = (word << 6) + Long.numberOfTrailingZeros(remaining);
+        remaining &= remaining - 1;
+        int q = (bit % this.stride) - (this.sideSize - 1);
+        int r = (bit / this.stride) - (this.sideSize - 1);
+        moves.add(Coordinate.pack(q, r), this.countFlips(bit, own, opp));
+      }
+    }
+  }
+
+  @Override
+  public int countFlips(Coordinate move, CellModel.CellStatus player) {
+    this.isGameOn();
+    if (player == BLANK) {
+      throw new IllegalArgumentException("Player cannot be blank :(");
+    }
+    if (this.topology.indexOf(move.q, move.r) < 0) {
+      throw new IllegalArgumentException("No cell corresponding to coordinates");
+    }
+    int bit = this.bitOf(move.q, move.r);
+    if (test(this.black, bit) || test(this.white, bit)) {
+      return 0;
+    }
+    return player == BLACK ? this.countFlips(bit, this.black, this.white)
+            : this.countFlips(bit, this.white, this.black);
+  }
+
+  /**
+   * Counts the discs a disc placed on the given bit would flip by stepping the bit index along
+   * each direction, using no scratch boards so that it is safe to call from several threads.
+   * Guard and off-board bits are never set in either player's discs, so a step off the board
+   * always ends the run.
+   *
+   * @param bit the bit the disc would be placed on.
+   * @param own the discs of the player placing the disc.
+   * @param opp the discs of the other player.
+   * @return the number of discs that would be flipped.
+   */
+  private int countFlips(int bit, long[] own, long[] opp) {
+    int limit = own.length << 6;
+    int flipped = 0;
+    for (int shift : this.shifts) {
+      int run = 0;
+      int next = bit + shift;
+      while (next >= 0 && next < limit && test(opp, next)) {
+        run++;
+        next += shift;
+      }
+      if (run > 0 && next >= 0 && next < limit && test(own, next)) {
+        flipped += run;
+      }
+    }
+    return flipped;
+  }
+
+  /**
+   * Finds all of a player's legal moves at once by repeatedly shifting the player's discs through
+   * runs of the opponent's discs in each direction and keeping the blank cells where those runs
+   * end. The moves found are left in the moves scratch board.
+   *
+   * @param own the discs of the player to find moves for.
+   * @param opp the discs of the other player.
+   */
+  private void findMoves(long[] own, long[] opp) {
+    Arrays.fill(this.moves, 0L);
+    for (int shift : this.shifts) {
+      System.arraycopy(own, 0, this.run, 0, own.length);
+      shift(this.run, shift);
+      for (int i = 0; i < this.run.length; i++) {
+        this.run[i] &= opp[i];
+      }
+      for (int step = 0; step < this.length - 2; step++) {
+        System.arraycopy(this.run, 0, this.scratch, 0, this.run.length);
+        shift(this.scratch, shift);
+        for (int i = 0; i < this.run.length; i++) {
+          this.run[i] |= this.scratch[i] & opp[i];
+        }
+      }
+      shift(this.run, shift);
+      for (int i = 0; i < this.run.length; i++) {
+        this.moves[i] |= this.run[i] & this.valid[i] & ~own[i] & ~opp[i];
+      }
+    }
+  }
+
+  @Override
+  public int getScore(CellModel.CellStatus playerColor) {
+    this.isGameOn();
+    if (playerColor == BLANK) {
+      throw new IllegalArgumentException("Cannot return blank score");
+    }
+    return playerColor == BLACK ? this.blackCount : this.whiteCount;
+  }
+
+  @Override
+  public int getBlankCount() {
+    this.isGameOn();
+    return this.cells.length - this.blackCount - this.whiteCount;
+  }
+
+  @Override
+  public boolean isGameOver() {
+    this.isGameOn();
+    if (this.passesInARow >= 2) {
+      this.reasonOver = "2 Passes in a Row!";
+      return true;
+    }
+    if (this.getBlankCount() == 0) {
+      this.reasonOver = "All Cells Filled!";
+      return true;
+    }
+    if (!this.anyValidMoves()) {
+      this.reasonOver = "No More Valid Moves!";
+    }
+    return false;
+  }
+
+  /**
+   * Determines if the game has been started already. If it has not been, it throws an
+   * IllegalStateException to warn the user the game has not begun yet.
+   */
+  private void isGameOn() {
+    if (!gameOn) {
+      throw new IllegalStateException("Game has not started!!!!!!!");
+    }
+  }
+
+  @Override
+  public CellModel.CellStatus whoWon() {
+    if (this.isGameOver()) {
+      int whitePoints = this.getScore(WHITE);
+      int blackPoints = this.getScore(BLACK);
+      if (whitePoints < blackPoints) {
+        return BLACK;
+      }
+      if (blackPoints < whitePoints) {
+        return WHITE;
+      } else {
+        return BLANK;
+      }
+    } else {
+      throw new IllegalStateException("Game is not over yet!!!");
+    }
+  }
+
+  @Override
+  public CellModel.CellStatus whoseTurn() {
+    this.isGameOn();
+    return this.playerTurn;
+  }
+
+  @Override
+  public Cell getClickedCell(Coordinate coordinate) {
+    return this.cellAt(coordinate.q, coordinate.r);
+  }
+
+  @Override
+  public Cell getClickedCell(int packedCoordinate) {
+    return this.cellAt(Coordinate.packedQ(packedCoordinate), Coordinate.packedR(packedCoordinate));
+  }
+
+  /**
+   * Returns the cell with the given axial coordinates.
+   *
+   * @param q the q coordinate of the cell.
+   * @param r the r coordinate of the cell.
+   * @return the cell with those coordinates.
+   * @throws IllegalArgumentException if the coordinates are not on the board
+   */
+  private Cell cellAt(int q, int r) {
+    int index = this.topology.indexOf(q, r);
+    if (index < 0) {
+      throw new IllegalArgumentException("No cell corresponding to coordinates");
+    }
+    return this.cells[index];
+  }
+
+  /**
+   * Determines if the player attempting a move is the current player. If not,
+   * throws an exception.
+   *
+   * @param playerCalling the player calling a method
+   * @throws IllegalStateException    if the player calling is not the current player
+   * @throws IllegalArgumentException if the player called is blank
+   */
+  private void isPlayersTurn(CellModel.CellStatus playerCalling) {
+    if (playerCalling == BLANK) {
+      throw new IllegalArgumentException("Player cannot be blank :(");
+    } else if (this.playerTurn != playerCalling) {
+      throw new IllegalStateException("Not this player's turn!!");
+    }
+  }
+
+  @Override
+  public long getPositionHash() {
+    this.isGameOn();
+    return this.hash;
+  }
+
+  @Override
+  public CellClassification getCellClassification() {
+    return CellClassification.of(this.sideSize);
+  }
+
+  @Override
+  public int getLastTurnTilesFlipped() {
+    return this.numTilesFlipped;
+  }
+
+  @Override
+  public int getSideSize() {
+    return this.sideSize;
+  }
+
+  @Override
+  public String getReasonEnded() {
+    return this.reasonOver;
+  }
+
+  @Override
+  public List<Coordinate> getCorners() {
+    int sideIndex = this.sideSize - 1;
+    return Arrays.asList(new Coordinate(0, -sideIndex),
+            new Coordinate(sideIndex, -sideIndex),
+            new Coordinate(-sideIndex, 0),
+            new Coordinate(sideIndex, 0),
+            new Coordinate(-sideIndex, sideIndex),
+            new Coordinate(0, sideIndex));
+  }
+
+  @Override
+  public void listenForTurn(
+          ReversiControllerImplementation controller, CellModel.CellStatus discColor) {
+    if (discColor == BLACK) {
+      this.blackController = controller;
+    }
+    if (discColor == WHITE) {
+      this.whiteController = controller;
+    }
+  }
+
+  /**
+   * Shifts a whole bit set in place by the given number of bits, towards higher bit indices when
+   * the amount is positive and towards lower bit indices when it is negative. Bits shifted past
+   * either end of the set are dropped.
+   *
+   * @param bits   the bit set to shift.
+   * @param amount how many bits to shift by.
+   */
+  private static void shift(long[] bits, int amount) {
+    if (amount >= 0) {
+      int words = amount >>> 6;
+      int offset = amount & 63;
+      for (int i = bits.length - 1; i >= 0; i--) {
+        int from = i - words;
+        long word = 0L;
+        if (from >= 0) {
+          word = bits[from] << offset;
+          if (offset != 0 && from > 0) {
+            word |= bits[from - 1] >>> (64 - offset);
+          }
+        }
+        bits[i] = word;
+      }
+    } else {
+      int words = (-amount) >>> 6;
+      int offset = (-amount) & 63;
+      for (int i = 0; i < bits.length; i++) {
+        int from = i + words;
+        long word = 0L;
+        if (from < bits.length) {
+          word = bits[from] >>> offset;
+          if (offset != 0 && from < bits.length - 1) {
+            word |= bits[from + 1] << (64 - offset);
+          }
+        }
+        bits[i] = word;
+      }
+    }
+  }
+
+  /**
+   * Changes the status of a cell from outside the model, through a cell of the board getBoard
+   * returns, keeping the disc counts and position hash up to date. A change made this way is not
+   * a move, so it cannot be taken back with unmakeMove.
+   *
+   * @param bit    the bit index of the cell.
+   * @param status the new status of the cell.
+   */
+  private void changeCell(int bit, CellModel.CellStatus status) {
+    CellModel.CellStatus old = test(this.black, bit) ? BLACK
+            : test(this.white, bit) ? WHITE : BLANK;
+    if (old == status) {
+      return;
+    }
+    int cell = this.cellOfBit[bit];
+    this.hash ^= this.zobrist.disc(cell, old) ^ this.zobrist.disc(cell, status);
+    if (old == BLACK) {
+      clear(this.black, bit);
+      this.blackCount--;
+    } else if (old == WHITE) {
+      clear(this.white, bit);
+      this.whiteCount--;
+    }
+    if (status == BLACK) {
+      set(this.black, bit);
+      this.blackCount++;
+    } else if (status == WHITE) {
+      set(this.white, bit);
+      this.whiteCount++;
+    }
+    this.undoStack.clear();
+  }
+
+  private static void set(long[] bits, int bit) {
+    bits[bit >>> 6] |= 1L << bit;
+  }
+
+  private static void clear(long[] bits, int bit) {
+    bits[bit >>> 6] &= ~(1L << bit);
+  }
+
+  private static boolean test(long[] bits, int bit) {
+    return (bits[bit >>> 6] & (1L << bit)) != 0;
+  }
+
+  private static int count(long[] bits) {
+    int total = 0;
+    for (long word : bits) {
+      total += Long.bitCount(word);
+    }
+    return total;
+  }
+
+  /**
+   * A hexagonal cell of a BitboardReversi board. The cell holds no status of its own; it reads
+   * the bits of the model it belongs to, and flipping it goes through the model, so the disc
+   * counts and position hash follow the change.
+   */
+  private final class BitCell implements Cell {
+
+    private final Coordinate coordinate;
+    private final int bit;
+    private List<List<Cell>> samePlaneCells;
+
+    /**
+     * Constructs a cell backed by the given bit of the model's bit sets.
+     *
+     * @param coordinate the coordinates of the cell.
+     * @param bit        the bit index of the cell.
+     */
+    private BitCell(Coordinate coordinate, int bit) {
+      this.coordinate = coordinate;
+      this.bit = bit;
+      this.samePlaneCells = Collections.emptyList();
+    }
+
+    @Override
+    public void flipToBlack() {
+      changeCell(this.bit, BLACK);
+    }
+
+    @Override
+    public void flipToWhite() {
+      changeCell(this.bit, WHITE);
+    }
+
+    @Override
+    public void flipToBlank() {
+      changeCell(this.bit, BLANK);
+    }
+
+    @Override
+    public CellModel.CellStatus getCellStatus() {
+      if (test(black, this.bit)) {
+        return BLACK;
+      } else if (test(white, this.bit)) {
+        return WHITE;
+      }
+      return BLANK;
+    }
+
+    @Override
+    public void addSamePlaneCells(List<List<Cell>> board) {
+      this.samePlaneCells = CellModel.samePlaneCells(board, this.coordinate);
+    }
+
+    @Override
+    public List<List<Cell>> getSamePlaneCells() {
+      return this.samePlaneCells;
+    }
+
+    @Override
+    public Coordinate getCoordinate() {
+      return this.coordinate;
+    }
+  }
+}
@@ -0,0 +1,315 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The fixed shape of a hexagonal Reversi board of a given side size. Every cell of the board is
+ * given an index in the same row order as the board returned by getBoard, and for every cell and
+ * each of the six hexagonal directions the topology stores the ordered indices of the cells met
+ * when walking outwards from that cell until the edge of the board. It also stores each cell's
+ * immediate neighbours and the cells sharing each of its q, r and s planes.
+ *
+ * <p>A topology holds no discs and never changes once built, so a single instance is shared by
+ * every model of the same side size.
+ */
+public final class BoardTopology {
+
+  /**
+   * The number of directions a line can be walked in from a hexagonal cell.
+   */
+  public static final int DIRECTIONS = 6;
+
+  /**
+   * The number of planes (q, r and s) every hexagonal cell lies on.
+   */
+  public static final int PLANES = 3;
+
+  // one step along +q, -q, +r, -r, +q-r and -q+r respectively
+  private static final int[] DIRECTION_Q = {1, -1, 0, 0, 1, -1};
+  private static final int[] DIRECTION_R = {0, 0, 1, -1, -1, 1};
+
+  private static final Map<Integer, BoardTopology> TOPOLOGIES =
+          new ConcurrentHashMap<Integer, BoardTopology>();
+
+  private final int sideSize;
+  private final int length;
+  private final int cellCount;
+  private final int[] cellQ;
+  private final int[] cellR;
+  private final int[] indexByAxial;
+  private final int[] rayStart;
+  private final int[] rayCells;
+  private final int[] neighbours;
+  private final int[][] planes;
+
+  /**
+   * Builds the topology of a board with the given side size.
+   *
+   * @param sideSize how many hexagons long a single side of the board is.
+   */
+  private BoardTopology(int sideSize) {
+    this.sideSize = sideSize;
+    this.length = (sideSize * 2) - 1;
+    this.cellCount = (3 * sideSize * (sideSize - 1)) + 1;
+    this.cellQ = new int[this.cellCount];
+    this.cellR = new int[this.cellCount];
+    this.indexByAxial = new int[this.length * this.length];
+    Arrays.fill(this.indexByAxial, -1);
+
+    int maxIndex = sideSize - 1;
+    int index = 0;
+    for (int r = -maxIndex; r <= maxIndex; r++) {
+      int lastQ = Math.min(maxIndex, maxIndex - r);
+      for (int q = Math.max(-maxIndex, -maxIndex - r); q <= lastQ; q++) {
+        this.cellQ[index] = q;
+        this.cellR[index] = r;
+        this.indexByAxial[this.axial(q, r)] = index;
+        index++;
+      }
+    }
+
+    this.rayStart = new int[(this.cellCount * DIRECTIONS) + 1];
+    int total = 0;
+    for (int cell = 0; cell < this.cellCount; cell++) {
+      for (int dir = 0; dir < DIRECTIONS; dir++) {
+        this.rayStart[(cell * DIRECTIONS) + dir] = total;
+        total += this.walk(cell, dir, null, 0);
+      }
+    }
+    this.rayStart[this.cellCount * DIRECTIONS] = total;
+    this.rayCells = new int[total];
+    for (int cell = 0; cell < this.cellCount; cell++) {
+      for (int dir = 0; dir < DIRECTIONS; dir++) {
+        this.walk(cell, dir, this.rayCells, this.rayStart[(cell * DIRECTIONS) + dir]);
+      }
+    }
+
+    this.neighbours = new int[this.cellCount * DIRECTIONS];
+    for (int cell = 0; cell < this.cellCount; cell++) {
+      for (int dir = 0; dir < DIRECTIONS; dir++) {
+        this.neighbours[(cell * DIRECTIONS) + dir] =
+                this.rayLength(cell, dir) > 0 ? this.rayCell(cell, dir, 0) : -1;
+      }
+    }
+
+    // planes are listed in board order, which walks every q, r and s line from one end to the
+    // other, matching the order CellModel has always listed the cells on its planes in
+    this.planes = new int[PLANES * this.length][];
+    int[] filled = new int[PLANES * this.length];
+    for (int cell = 0; cell < this.cellCount; cell++) {
+      for (int plane = 0; plane < PLANES; plane++) {
+        int slot = this.planeSlot(plane, cell);
+        if (this.planes[slot] == null) {
+          int value = this.planeValue(plane, cell);
+          this.planes[slot] = new int[this.length - Math.abs(value)];
+        }
+        this.planes[slot][filled[slot]] = cell;
+        filled[slot]++;
+      }
+    }
+  }
+
+  /**
+   * Returns the topology of a board with the given side size, building it the first time it is
+   * asked for.
+   *
+   * @param sideSize how many hexagons long a single side of the board is.
+   * @return the shared topology for boards of that size.
+   * @throws IllegalArgumentException if the side size is less than 2
+   */
+  public static BoardTopology of(int sideSize) {
+    if (sideSize < 2) {
+      throw new IllegalArgumentException("Size of board inadequate");
+    }
+    return TOPOLOGIES.computeIfAbsent(sideSize, BoardTopology::new);
+  }
+
+  /**
+   * Walks outwards from a cell in one direction until the edge of the board, recording the
+   * indices of the cells passed if a destination is given.
+   *
+   * @param cell   the index of the cell to start from.
+   * @param dir    the direction to walk in.
+   * @param dest   where to record the cells passed, or null to only count them.
+   * @param offset where in the destination to start recording.
+   * @return how many cells were passed.
+   */
+  private int walk(int cell, int dir, int[] dest, int offset) {
+    int steps = 0;
+    int q = this.cellQ[cell] + DIRECTION_Q[dir];
+    int r = this.cellR[cell] + DIRECTION_R[dir];
+    int next = this.indexOf(q, r);
+    while (next >= 0) {
+      if (dest != null) {
+        dest[offset + steps] = next;
+      }
+      steps++;
+      q += DIRECTION_Q[dir];
+      r += DIRECTION_R[dir];
+      next = this.indexOf(q, r);
+    }
+    return steps;
+  }
+
+  /**
+   * Returns the q, r or s coordinate of a cell.
+   */
+  private int planeValue(int plane, int cell) {
+    if (plane == 0) {
+      return this.cellQ[cell];
+    } else if (plane == 1) {
+      return this.cellR[cell];
+    }
+    return -this.cellQ[cell] - this.cellR[cell];
+  }
+
+  /**
+   * Returns where the cells of the given plane through a cell are kept in the planes array.
+   */
+  private int planeSlot(int plane, int cell) {
+    return (plane * this.length) + this.planeValue(plane, cell) + this.sideSize - 1;
+  }
+
+  /**
+   * Returns the position of a pair of axial coordinates in the dense axial lookup array, without
+   * checking that they lie on the board.
+   */
+  private int axial(int q, int r) {
+    return ((r + this.sideSize - 1) * this.length) + (q + this.sideSize - 1);
+  }
+
+  /**
+   * Returns the index of the cell with the given axial coordinates.
+   *
+   * @param q the q coordinate of the cell.
+   * @param r the r coordinate of the cell.
+   * @return the index of the cell, or -1 if the coordinates are not on the board.
+   */
+  public int indexOf(int q, int r) {
+    int maxIndex = this.sideSize - 1;
+    if (q < -maxIndex || q > maxIndex || r < -maxIndex || r > maxIndex) {
+      return -1;
+    }
+    return this.indexByAxial[this.axial(q, r)];
+  }
+
+  /**
+   * Returns the q coordinate of the cell with the given index.
+   *
+   * @param cell the index of the cell.
+   * @return the q coordinate of the cell.
+   */
+  public int q(int cell) {
+    return this.cellQ[cell];
+  }
+
+  /**
+   * Returns the r coordinate of the cell with the given index.
+   *
+   * @param cell the index of the cell.
+   * @return the r coordinate of the cell.
+   */
+  public int r(int cell) {
+    return this.cellR[cell];
+  }
+
+  /**
+   * Returns how many cells lie beyond the given cell in the given direction.
+   *
+   * @param cell the index of the cell the line starts from.
+   * @param dir  the direction of the line, from 0 to DIRECTIONS - 1.
+   * @return the number of cells between the given cell and the edge of the board.
+   */
+  public int rayLength(int cell, int dir) {
+    int slot = (cell * DIRECTIONS) + dir;
+    return this.rayStart[slot + 1] - this.rayStart[slot];
+  }
+
+  /**
+   * Returns the index of a cell on the line leading outwards from the given cell.
+   *
+   * @param cell the index of the cell the line starts from.
+   * @param dir  the direction of the line, from 0 to DIRECTIONS - 1.
+   * @param step how far along the line to look, where 0 is the neighbouring cell.
+   * @return the index of the cell at that step.
+   */
+  public int rayCell(int cell, int dir, int step) {
+    return this.rayCells[this.rayStart[(cell * DIRECTIONS) + dir] + step];
+  }
+
+  /**
+   * Returns the index of the cell next to the given cell in the given direction.
+   *
+   * @param cell the index of the cell.
+   * @param dir  the direction of the neighbour, from 0 to DIRECTIONS - 1.
+   * @return the index of the neighbouring cell, or -1 if the cell is on that edge of the board.
+   */
+  public int neighbour(int cell, int dir) {
+    return this.neighbours[(cell * DIRECTIONS) + dir];
+  }
+
+  /**
+   * Returns how many cells lie on one of the planes through the given cell.
+   *
+   * @param plane 0 for the q plane, 1 for the r plane and 2 for the s plane.
+   * @param cell  the index of a cell on the plane.
+   * @return the number of cells on the plane, including the given cell.
+   */
+  public int planeLength(int plane, int cell) {
+    return this.planes[this.planeSlot(plane, cell)].length;
+  }
+
+  /**
+   * Returns the index of a cell on one of the planes through the given cell, where the cells of
+   * a plane are ordered the same way they appear on the board.
+   *
+   * @param plane    0 for the q plane, 1 for the r plane and 2 for the s plane.
+   * @param cell     the index of a cell on the plane.
+   * @param position the position along the plane, from 0 to planeLength - 1.
+   * @return the index of the cell at that position.
+   */
+  public int planeCell(int plane, int cell, int position) {
+    return this.planes[this.planeSlot(plane, cell)][position];
+  }
+
+  /**
+   * Returns the position of the row that the cell with the given index is in on the board.
+   *
+   * @param cell the index of the cell.
+   * @return the row of the board the cell is in.
+   */
+  public int row(int cell) {
+    return this.cellR[cell] + this.sideSize - 1;
+  }
+
+  /**
+   * Returns the position of the cell with the given index within its row of the board.
+   *
+   * @param cell the index of the cell.
+   * @return the position of the cell in its row.
+   */
+  public int column(int cell) {
+    int maxIndex = this.sideSize - 1;
+    return this.cellQ[cell] - Math.max(-maxIndex, -maxIndex - this.cellR[cell]);
+  }
+
+  /**
+   * Returns how many hexagons long a single side of the board is.
+   *
+   * @return the side size of the board.
+   */
+  public int getSideSize() {
+    return this.sideSize;
+  }
+
+  /**
+   * Returns how many cells are on the board.
+   *
+   * @return the number of cells on the board.
+   */
+  public int getCellCount() {
+    return this.cellCount;
+  }
+}
@@ -17,6 +17,11 @@ public interface Cell {
    */
   void flipToWhite();
 
+  /**
+   * Removes the disc from this cell, leaving it blank.
+   */
+  void flipToBlank();
+
   /**
    * Get the current status of a cell.
    *
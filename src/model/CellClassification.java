@@ -0,0 +1,160 @@
+package model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The fixed kinds of cell on a hexagonal Reversi board of a given side size, for strategies and
+ * evaluators to look up in O(1) instead of working them out from the corners every move. A cell
+ * can be a corner, next to a corner, on the edge of the board or inside it, and lies on one of
+ * the rings of cells around the center, numbered by how many steps it is from the edge.
+ *
+ * <p>Each kind is kept as a bit mask over the board's topology indices, one bit per cell, and the
+ * rings as one byte per cell. A classification never changes once built, so a single instance is
+ * shared by every model of the same side size.
+ */
+public final class CellClassification {
+
+  /**
+   * The six cells at the points of the board.
+   */
+  public static final int CORNER = 0;
+
+  /**
+   * The cells next to a corner, which give the corner away to the opponent.
+   */
+  public static final int CORNER_ADJACENT = 1;
+
+  /**
+   * The cells on the outer ring of the board, corners included.
+   */
+  public static final int EDGE = 2;
+
+  /**
+   * The cells not on the outer ring of the board.
+   */
+  public static final int INTERIOR = 3;
+
+  private static final int KINDS = 4;
+
+  private static final Map<Integer, CellClassification> CLASSIFICATIONS =
+          new ConcurrentHashMap<Integer, CellClassification>();
+
+  private final BoardTopology topology;
+  private final long[][] masks;
+  private final byte[] rings;
+
+  /**
+   * Classifies the cells of a board with the given side size.
+   *
+   * @param sideSize how many hexagons long a single side of the board is.
+   */
+  private CellClassification(int sideSize) {
+    this.topology = BoardTopology.of(sideSize);
+    int cellCount = this.topology.getCellCount();
+    this.masks = new long[KINDS][(cellCount + 63) >>> 6];
+    this.rings = new byte[cellCount];
+    int maxIndex = sideSize - 1;
+    for (int cell = 0; cell < cellCount; cell++) {
+      int q = this.topology.q(cell);
+      int r = this.topology.r(cell);
+      int distance = Math.max(Math.abs(q), Math.max(Math.abs(r), Math.abs(-q - r)));
+      this.rings[cell] = (byte) (maxIndex - distance);
+      this.add(distance == maxIndex ? EDGE : INTERIOR, cell);
+      int neighbours = 0;
+      for (int dir = 0; dir < BoardTopology.DIRECTIONS; dir++) {
+        if (this.topology.neighbour(cell, dir) >= 0) {
+          neighbours++;
+        }
+      }
+      // only the corners of a hexagon have three neighbours
+      if (neighbours == 3) {
+        this.add(CORNER, cell);
+      }
+    }
+    for (int cell = 0; cell < cellCount; cell++) {
+      if (this.is(CORNER, cell)) {
+        for (int dir = 0; dir < BoardTopology.DIRECTIONS; dir++) {
+          int next = this.topology.neighbour(cell, dir);
+          if (next >= 0) {
+            this.add(CORNER_ADJACENT, next);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the classification of a board with the given side size, building it the first time
+   * it is asked for.
+   *
+   * @param sideSize how many hexagons long a single side of the board is.
+   * @return the shared classification for boards of that size.
+   * @throws IllegalArgumentException if the side size is less than 2
+   */
+  public static CellClassification of(int sideSize) {
+    BoardTopology.of(sideSize);
+    return CLASSIFICATIONS.computeIfAbsent(sideSize, CellClassification::new);
+  }
+
+  /**
+   * Adds a cell to the mask of a kind, while the classification is being built.
+   */
+  private void add(int kind, int cell) {
+    this.masks[kind][cell >>> 6] |= 1L << cell;
+  }
+
+  /**
+   * Determines if a cell is of the given kind.
+   *
+   * @param kind CORNER, CORNER_ADJACENT, EDGE or INTERIOR.
+   * @param cell the index of the cell in the board's topology.
+   * @return true if the cell is of that kind.
+   */
+  public boolean is(int kind, int cell) {
+    return (this.masks[kind][cell >>> 6] & (1L << cell)) != 0;
+  }
+
+  /**
+   * Determines if the cell with the given packed coordinate is of the given kind.
+   *
+   * @param kind   CORNER, CORNER_ADJACENT, EDGE or INTERIOR.
+   * @param packed a coordinate packed by Coordinate.pack.
+   * @return true if the coordinate is on the board and its cell is of that kind.
+   */
+  public boolean isPacked(int kind, int packed) {
+    int cell = this.topology.indexOf(Coordinate.packedQ(packed), Coordinate.packedR(packed));
+    return cell >= 0 && this.is(kind, cell);
+  }
+
+  /**
+   * Returns how many steps a cell is from the edge of the board, so 0 for the outer ring and
+   * sideSize - 1 for the center.
+   *
+   * @param cell the index of the cell in the board's topology.
+   * @return the ring the cell lies on.
+   */
+  public int ring(int cell) {
+    return this.rings[cell];
+  }
+
+  /**
+   * Returns a copy of the bit mask of a kind, where bit (cell % 64) of word (cell / 64) is set
+   * for every cell of that kind.
+   *
+   * @param kind CORNER, CORNER_ADJACENT, EDGE or INTERIOR.
+   * @return the mask of the kind.
+   */
+  public long[] getMask(int kind) {
+    return this.masks[kind].clone();
+  }
+
+  /**
+   * Returns the topology whose cell indices the classification uses.
+   *
+   * @return the board's topology.
+   */
+  public BoardTopology getTopology() {
+    return this.topology;
+  }
+}
@@ -0,0 +1,19 @@
+package model;
+
+/**
+ * Listens to the cells of a HexPosition change, so that anything computed from the discs, such as
+ * the pattern indices of an evaluator, can be kept up to date move by move instead of being
+ * worked out again from the whole board.
+ */
+public interface CellListener {
+
+  /**
+   * Called whenever the disc on a cell changes, whether by a move, a flip, taking a move back or
+   * copying another position.
+   *
+   * @param cell the index of the cell.
+   * @param from the color that was on the cell: BLANK, WHITE or BLACK.
+   * @param to   the color now on the cell.
+   */
+  void cellChanged(int cell, int from, int to);
+}
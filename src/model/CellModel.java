@@ -1,7 +1,7 @@
 package model;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -23,7 +23,7 @@ public class CellModel implements Cell {
   public CellModel(int q, int r, CellStatus cellStatus) {
     this.coordinate = new Coordinate(q, r);
     this.cellStatus = cellStatus;
-    this.samePlaneCells = new ArrayList<List<Cell>>();
+    this.samePlaneCells = Collections.emptyList();
   }
 
   @Override
@@ -40,30 +40,44 @@ public class CellModel implements Cell {
     }
   }
 
+  @Override
+  public void flipToBlank() {
+    this.cellStatus = CellStatus.BLANK;
+  }
+
   @Override
   public CellStatus getCellStatus() {
     return this.cellStatus;
   }
 
+  /**
+   * Adds all the hexagonal cells on the same planes as this cell. The planes are looked up in the
+   * topology shared by every board of the same size, so no board scan is needed.
+   *
+   * @param board the game board used for the game of Reversi.
+   */
   @Override
   public void addSamePlaneCells(List<List<Cell>> board) {
-    List<Cell> sameQ = new ArrayList<Cell>();
-    List<Cell> sameR = new ArrayList<Cell>();
-    List<Cell> sameS = new ArrayList<Cell>();
-    for (List<Cell> row : board) {
-      for (Cell cell : row) {
-        if (this.coordinate.q == cell.getCoordinate().q) {
-          sameQ.add(cell);
-        }
-        if (this.coordinate.r == cell.getCoordinate().r) {
-          sameR.add(cell);
-        }
-        if (this.coordinate.s == cell.getCoordinate().s) {
-          sameS.add(cell);
-        }
-      }
+    this.samePlaneCells = samePlaneCells(board, this.coordinate);
+  }
+
+  /**
+   * Returns the cells on the q, r and s planes through the given coordinate, as views over the
+   * board backed by the shared topology for the board's size.
+   *
+   * @param board      the game board used for the game of Reversi.
+   * @param coordinate the coordinate the planes pass through.
+   * @return the cells on the same q, r and s planes, in that order.
+   */
+  static List<List<Cell>> samePlaneCells(List<List<Cell>> board, Coordinate coordinate) {
+    BoardTopology topology = BoardTopology.of((board.size() + 1) / 2);
+    int index = topology.indexOf(coordinate.q, coordinate.r);
+    if (index < 0) {
+      throw new IllegalArgumentException("Cell is not on the given board");
     }
-    this.samePlaneCells = new ArrayList<List<Cell>>(Arrays.asList(sameQ, sameR, sameS));
+    return Arrays.<List<Cell>>asList(new PlaneCells(board, topology, 0, index),
+            new PlaneCells(board, topology, 1, index),
+            new PlaneCells(board, topology, 2, index));
   }
 
   @Override
@@ -4,6 +4,7 @@ package model;
 /**
  * Represents a coordinate in a hexagonal grid using axial coordinates (q, r).
  * The s coordinate is derived from q and r and follows the constraint s = -q - r.
+ * Two coordinates are equal when their q and r coordinates are equal.
  */
 public class Coordinate {
   public final int q;
@@ -23,5 +24,67 @@ public class Coordinate {
     this.s = (-q) - r;
   }
 
+  /**
+   * Packs a pair of axial coordinates into a single int, so that callers on hot paths can pass
+   * coordinates around without allocating a Coordinate. The q coordinate is kept in the upper
+   * 16 bits and the r coordinate in the lower 16 bits.
+   *
+   * @param q the q coordinate
+   * @param r the r coordinate
+   * @return the packed coordinate
+   */
+  public static int pack(int q, int r) {
+    return (q << 16) | (r & 0xFFFF);
+  }
+
+  /**
+   * Returns the q coordinate of a packed coordinate.
+   *
+   * @param packed a coordinate packed by pack
+   * @return the q coordinate
+   */
+  public static int packedQ(int packed) {
+    return packed >> 16;
+  }
+
+  /**
+   * Returns the r coordinate of a packed coordinate.
+   *
+   * @param packed a coordinate packed by pack
+   * @return the r coordinate
+   */
+  public static int packedR(int packed) {
+    return (short) packed;
+  }
 
-}
\ No newline at end of file
+  /**
+   * Packs this coordinate into a single int.
+   *
+   * @return this coordinate packed by pack
+   */
+  public int pack() {
+    return pack(this.q, this.r);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof Coordinate)) {
+      return false;
+    }
+    Coordinate that = (Coordinate) other;
+    return this.q == that.q && this.r == that.r;
+  }
+
+  @Override
+  public int hashCode() {
+    return this.pack();
+  }
+
+  @Override
+  public String toString() {
+    return "(" + this.q + ", " + this.r + ", " + this.s + ")";
+  }
+}
@@ -0,0 +1,527 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compact copy of a Reversi position for strategies to search through. The discs are kept in a
+ * byte per cell, indexed the same way as the board's topology, and moves are played and taken
+ * back in place without notifying anyone, so a search can walk millions of positions without
+ * touching the live model or allocating.
+ *
+ * <p>Colors are stored as the ordinals of CellModel.CellStatus: BLANK, WHITE and BLACK. The
+ * position's hash is kept with the same keys the models use, so it matches getPositionHash for
+ * the same position.
+ */
+public final class HexPosition {
+
+  /**
+   * The value of a blank cell.
+   */
+  public static final int BLANK = 0;
+
+  /**
+   * The value of a cell holding a white disc, and of white's turn.
+   */
+  public static final int WHITE = 1;
+
+  /**
+   * The value of a cell holding a black disc, and of black's turn.
+   */
+  public static final int BLACK = 2;
+
+  private static final CellModel.CellStatus[] STATUSES = CellModel.CellStatus.values();
+
+  private final BoardTopology topology;
+  private final ZobristKeys zobrist;
+  private final byte[] cells;
+  private int turn;
+  private int passes;
+  private int whiteCount;
+  private int blackCount;
+  private long hash;
+
+  // the moves played so far: where each move's flips start, the cell played (-1 for a pass) and
+  // the passes in a row before it, then the flipped cells of every move one after the other
+  private int[] frames;
+  private int frameCount;
+  private int[] flipped;
+  private int flippedCount;
+  private CellListener listener;
+
+  /**
+   * Constructs an empty position on a board with the given side size, with white to move.
+   *
+   * @param sideSize how many hexagons long a single side of the board is.
+   * @throws IllegalArgumentException if the side size is less than 2
+   */
+  public HexPosition(int sideSize) {
+    this.topology = BoardTopology.of(sideSize);
+    this.zobrist = ZobristKeys.of(sideSize);
+    int cellCount = this.topology.getCellCount();
+    this.cells = new byte[cellCount];
+    this.turn = WHITE;
+    this.frames = new int[((cellCount * 2) + 2) * 3];
+    this.flipped = new int[cellCount * 4];
+  }
+
+  /**
+   * Constructs a copy of another position, without its history of moves.
+   *
+   * @param other the position to copy.
+   */
+  public HexPosition(HexPosition other) {
+    this(other.topology.getSideSize());
+    this.copyFrom(other);
+  }
+
+  /**
+   * Copies the discs of a game into a new position.
+   *
+   * @param model  the game to copy.
+   * @param toMove the player to move in the copy.
+   * @return a position with the game's discs and the given player to move.
+   * @throws IllegalArgumentException if the player to move is blank
+   */
+  public static HexPosition of(ReadOnlyReversi model, CellModel.CellStatus toMove) {
+    if (toMove == CellModel.CellStatus.BLANK) {
+      throw new IllegalArgumentException("Player cannot be blank :(");
+    }
+    HexPosition position = new HexPosition(model.getSideSize());
+    int cell = 0;
+    for (List<Cell> row : model.getBoard()) {
+      for (Cell current : row) {
+        position.set(cell, current.getCellStatus().ordinal());
+        cell++;
+      }
+    }
+    if (toMove == CellModel.CellStatus.BLACK) {
+      position.turn = BLACK;
+      position.hash ^= position.zobrist.blackToMove();
+    }
+    return position;
+  }
+
+  /**
+   * Makes this position the same as another of the same side size, forgetting its own history of
+   * moves.
+   *
+   * @param other the position to copy.
+   * @throws IllegalArgumentException if the positions have different side sizes
+   */
+  public void copyFrom(HexPosition other) {
+    if (other.topology != this.topology) {
+      throw new IllegalArgumentException("Positions are different sizes");
+    }
+    if (this.listener != null) {
+      for (int cell = 0; cell < this.cells.length; cell++) {
+        if (this.cells[cell] != other.cells[cell]) {
+          this.listener.cellChanged(cell, this.cells[cell], other.cells[cell]);
+        }
+      }
+    }
+    System.arraycopy(other.cells, 0, this.cells, 0, this.cells.length);
+    this.turn = other.turn;
+    this.passes = other.passes;
+    this.whiteCount = other.whiteCount;
+    this.blackCount = other.blackCount;
+    this.hash = other.hash;
+    this.frameCount = 0;
+    this.flippedCount = 0;
+  }
+
+  /**
+   * Puts a disc of the given color on a cell, or removes it, keeping the counts and hash right.
+   *
+   * @param cell  the index of the cell.
+   * @param color BLANK, WHITE or BLACK.
+   */
+  public void set(int cell, int color) {
+    int old = this.cells[cell];
+    this.hash ^= this.zobrist.disc(cell, STATUSES[old]) ^ this.zobrist.disc(cell, STATUSES[color]);
+    this.count(old, -1);
+    this.count(color, 1);
+    this.cells[cell] = (byte) color;
+    if (this.listener != null && old != color) {
+      this.listener.cellChanged(cell, old, color);
+    }
+  }
+
+  /**
+   * Adds to the number of discs of a color.
+   */
+  private void count(int color, int amount) {
+    if (color == WHITE) {
+      this.whiteCount += amount;
+    } else if (color == BLACK) {
+      this.blackCount += amount;
+    }
+  }
+
+  /**
+   * Returns the color of the disc on a cell.
+   *
+   * @param cell the index of the cell.
+   * @return BLANK, WHITE or BLACK.
+   */
+  public int get(int cell) {
+    return this.cells[cell];
+  }
+
+  /**
+   * Returns the color of the given player's opponent.
+   *
+   * @param color WHITE or BLACK.
+   * @return BLACK or WHITE.
+   */
+  public static int opponent(int color) {
+    return WHITE + BLACK - color;
+  }
+
+  /**
+   * Counts how many discs the given color would flip by playing on a cell.
+   *
+   * @param cell  the index of the cell.
+   * @param color WHITE or BLACK.
+   * @return the number of discs flipped, which is 0 if the move is not legal.
+   */
+  public int countFlips(int cell, int color) {
+    if (this.cells[cell] != BLANK) {
+      return 0;
+    }
+    int opponent = opponent(color);
+    int flips = 0;
+    for (int dir = 0; dir < BoardTopology.DIRECTIONS; dir++) {
+      int rayLength = this.topology.rayLength(cell, dir);
+      int run = 0;
+      while (run < rayLength && this.cells[this.topology.rayCell(cell, dir, run)] == opponent) {
+        run++;
+      }
+      if (run > 0 && run < rayLength
+              && this.cells[this.topology.rayCell(cell, dir, run)] == color) {
+        flips += run;
+      }
+    }
+    return flips;
+  }
+
+  /**
+   * Determines if the given color could play on a cell, stopping at the first direction that
+   * would flip anything.
+   *
+   * @param cell  the index of the cell.
+   * @param color WHITE or BLACK.
+   * @return true if the move is legal.
+   */
+  public boolean isLegal(int cell, int color) {
+    if (this.cells[cell] != BLANK) {
+      return false;
+    }
+    int opponent = opponent(color);
+    for (int dir = 0; dir < BoardTopology.DIRECTIONS; dir++) {
+      int rayLength = this.topology.rayLength(cell, dir);
+      int run = 0;
+      while (run < rayLength && this.cells[this.topology.rayCell(cell, dir, run)] == opponent) {
+        run++;
+      }
+      if (run > 0 && run < rayLength
+              && this.cells[this.topology.rayCell(cell, dir, run)] == color) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Finds every cell the given color could play on, in board order.
+   *
+   * @param color WHITE or BLACK.
+   * @param moves where to write the indices of the cells, with room for every cell of the board.
+   * @return how many moves were written.
+   */
+  public int legalMoves(int color, int[] moves) {
+    int count = 0;
+    for (int cell = 0; cell < this.cells.length; cell++) {
+      if (this.isLegal(cell, color)) {
+        moves[count] = cell;
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Counts the cells the given color could play on.
+   *
+   * @param color WHITE or BLACK.
+   * @return the number of legal moves.
+   */
+  public int countMoves(int color) {
+    int count = 0;
+    for (int cell = 0; cell < this.cells.length; cell++) {
+      if (this.isLegal(cell, color)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Determines if the given color has any legal move.
+   *
+   * @param color WHITE or BLACK.
+   * @return true if there is at least one legal move.
+   */
+  public boolean hasMoves(int color) {
+    for (int cell = 0; cell < this.cells.length; cell++) {
+      if (this.isLegal(cell, color)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Plays a disc for the player to move, flipping the discs it captures and handing the turn to
+   * the other player. The move can be taken back with undo.
+   *
+   * @param cell the index of a cell the player to move can legally play on.
+   * @return how many discs were flipped, which is 0 if the move was not legal and nothing was
+   *         played.
+   */
+  public int play(int cell) {
+    if (this.cells[cell] != BLANK) {
+      return 0;
+    }
+    int color = this.turn;
+    int opponent = opponent(color);
+    int first = this.flippedCount;
+    for (int dir = 0; dir < BoardTopology.DIRECTIONS; dir++) {
+      int rayLength = this.topology.rayLength(cell, dir);
+      int run = 0;
+      while (run < rayLength && this.cells[this.topology.rayCell(cell, dir, run)] == opponent) {
+        run++;
+      }
+      if (run > 0 && run < rayLength
+              && this.cells[this.topology.rayCell(cell, dir, run)] == color) {
+        if (this.flippedCount + run > this.flipped.length) {
+          this.flipped = Arrays.copyOf(this.flipped, (this.flippedCount + run) * 2);
+        }
+        for (int step = 0; step < run; step++) {
+          int flip = this.topology.rayCell(cell, dir, step);
+          this.cells[flip] = (byte) color;
+          this.hash ^= this.zobrist.flip(flip);
+          this.flipped[this.flippedCount] = flip;
+          this.flippedCount++;
+          if (this.listener != null) {
+            this.listener.cellChanged(flip, opponent, color);
+          }
+        }
+      }
+    }
+    int flips = this.flippedCount - first;
+    if (flips == 0) {
+      return 0;
+    }
+    this.pushFrame(first, cell);
+    this.cells[cell] = (byte) color;
+    this.hash ^= this.zobrist.disc(cell, STATUSES[color]);
+    if (this.listener != null) {
+      this.listener.cellChanged(cell, BLANK, color);
+    }
+    if (color == WHITE) {
+      this.whiteCount += flips + 1;
+      this.blackCount -= flips;
+    } else {
+      this.blackCount += flips + 1;
+      this.whiteCount -= flips;
+    }
+    this.passes = 0;
+    this.switchTurn();
+    return flips;
+  }
+
+  /**
+   * Passes the turn of the player to move. The pass can be taken back with undo.
+   */
+  public void pass() {
+    this.pushFrame(this.flippedCount, -1);
+    this.passes++;
+    this.switchTurn();
+  }
+
+  /**
+   * Takes back the last move or pass.
+   *
+   * @throws IllegalStateException if there is nothing to take back
+   */
+  public void undo() {
+    if (this.frameCount == 0) {
+      throw new IllegalStateException("No move to undo");
+    }
+    this.frameCount--;
+    int frame = this.frameCount * 3;
+    int first = this.frames[frame];
+    int cell = this.frames[frame + 1];
+    this.passes = this.frames[frame + 2];
+    this.switchTurn();
+    if (cell < 0) {
+      return;
+    }
+    int color = this.turn;
+    int flips = this.flippedCount - first;
+    for (int flip = first; flip < this.flippedCount; flip++) {
+      this.cells[this.flipped[flip]] = (byte) opponent(color);
+      this.hash ^= this.zobrist.flip(this.flipped[flip]);
+      if (this.listener != null) {
+        this.listener.cellChanged(this.flipped[flip], color, opponent(color));
+      }
+    }
+    this.flippedCount = first;
+    this.cells[cell] = BLANK;
+    this.hash ^= this.zobrist.disc(cell, STATUSES[color]);
+    if (this.listener != null) {
+      this.listener.cellChanged(cell, color, BLANK);
+    }
+    if (color == WHITE) {
+      this.whiteCount -= flips + 1;
+      this.blackCount += flips;
+    } else {
+      this.blackCount -= flips + 1;
+      this.whiteCount += flips;
+    }
+  }
+
+  /**
+   * Records a move or pass so that it can be taken back.
+   */
+  private void pushFrame(int first, int cell) {
+    if ((this.frameCount + 1) * 3 > this.frames.length) {
+      this.frames = Arrays.copyOf(this.frames, this.frames.length * 2);
+    }
+    int frame = this.frameCount * 3;
+    this.frames[frame] = first;
+    this.frames[frame + 1] = cell;
+    this.frames[frame + 2] = this.passes;
+    this.frameCount++;
+  }
+
+  /**
+   * Hands the turn to the other player.
+   */
+  private void switchTurn() {
+    this.turn = opponent(this.turn);
+    this.hash ^= this.zobrist.blackToMove();
+  }
+
+  /**
+   * Sets the listener told about every change to the discs from now on. Copies of the position
+   * do not share it.
+   *
+   * @param listener the listener, or null to stop listening.
+   */
+  public void setListener(CellListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Returns the listener told about changes to the discs.
+   *
+   * @return the listener, or null if there is none.
+   */
+  public CellListener getListener() {
+    return this.listener;
+  }
+
+  /**
+   * Forgets the history of moves, so that the current position becomes the one undo stops at.
+   */
+  public void clearHistory() {
+    this.frameCount = 0;
+    this.flippedCount = 0;
+  }
+
+  /**
+   * Returns how many moves and passes can currently be taken back.
+   *
+   * @return the number of moves played since the position was copied.
+   */
+  public int getPly() {
+    return this.frameCount;
+  }
+
+  /**
+   * Returns whose turn it is.
+   *
+   * @return WHITE or BLACK.
+   */
+  public int getTurn() {
+    return this.turn;
+  }
+
+  /**
+   * Returns how many passes in a row have just been made.
+   *
+   * @return the number of passes in a row.
+   */
+  public int getPasses() {
+    return this.passes;
+  }
+
+  /**
+   * Returns how many discs of a color are on the board.
+   *
+   * @param color WHITE or BLACK.
+   * @return the number of discs of that color.
+   */
+  public int getCount(int color) {
+    return color == WHITE ? this.whiteCount : this.blackCount;
+  }
+
+  /**
+   * Returns how many cells of the board have no disc on them.
+   *
+   * @return the number of blank cells.
+   */
+  public int getBlankCount() {
+    return this.cells.length - this.whiteCount - this.blackCount;
+  }
+
+  /**
+   * Returns the hash of the position, matching getPositionHash of a model in the same position.
+   *
+   * @return the hash of the position.
+   */
+  public long getHash() {
+    return this.hash;
+  }
+
+  /**
+   * Returns the topology of the board the position is on.
+   *
+   * @return the board's topology.
+   */
+  public BoardTopology getTopology() {
+    return this.topology;
+  }
+
+  /**
+   * Returns the coordinate of a cell.
+   *
+   * @param cell the index of the cell.
+   * @return the coordinate of the cell.
+   */
+  public Coordinate coordinate(int cell) {
+    return new Coordinate(this.topology.q(cell), this.topology.r(cell));
+  }
+
+  /**
+   * Returns the color of a player as stored in a position.
+   *
+   * @param player WHITE or BLACK.
+   * @return the matching color value.
+   */
+  public static int colorOf(CellModel.CellStatus player) {
+    return player.ordinal();
+  }
+}
@@ -0,0 +1,241 @@
+package model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The twelve symmetries of a hexagonal Reversi board of a given side size: the six rotations by
+ * multiples of 60 degrees, each with and without a reflection. A position and its eleven images
+ * under these symmetries play exactly the same, so caches, books and game databases can store
+ * them once under a single canonical form.
+ *
+ * <p>The canonical form of a position is its image with the lowest Zobrist hash, so it is found
+ * by hashing each image, which needs no new board. For every symmetry, the cell each cell is
+ * sent to is worked out once per side size and kept in a table, so mapping positions and moves
+ * to and from their canonical form does not allocate.
+ */
+public final class HexSymmetry {
+
+  /**
+   * The number of symmetries of a hexagonal board.
+   */
+  public static final int COUNT = 12;
+
+  private static final Map<Integer, HexSymmetry> SYMMETRIES =
+          new ConcurrentHashMap<Integer, HexSymmetry>();
+
+  private final BoardTopology topology;
+  private final ZobristKeys zobrist;
+  // the cell each cell is sent to by each symmetry, one row of the board after another
+  private final int[] images;
+  private final int[] inverses;
+
+  /**
+   * Works out the symmetries of a board with the given side size.
+   *
+   * @param sideSize how many hexagons long a single side of the board is.
+   */
+  private HexSymmetry(int sideSize) {
+    this.topology = BoardTopology.of(sideSize);
+    this.zobrist = ZobristKeys.of(sideSize);
+    int cellCount = this.topology.getCellCount();
+    this.images = new int[COUNT * cellCount];
+    for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+      for (int cell = 0; cell < cellCount; cell++) {
+        int packed = transform(symmetry, this.topology.q(cell), this.topology.r(cell));
+        this.images[(symmetry * cellCount) + cell] =
+                this.topology.indexOf(Coordinate.packedQ(packed), Coordinate.packedR(packed));
+      }
+    }
+    this.inverses = new int[COUNT];
+    for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+      for (int candidate = 0; candidate < COUNT; candidate++) {
+        boolean undoes = true;
+        for (int cell = 0; cell < cellCount && undoes; cell++) {
+          undoes = this.image(candidate, this.image(symmetry, cell)) == cell;
+        }
+        if (undoes) {
+          this.inverses[symmetry] = candidate;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the symmetries of a board with the given side size, working them out the first time
+   * they are asked for.
+   *
+   * @param sideSize how many hexagons long a single side of the board is.
+   * @return the shared symmetries for boards of that size.
+   * @throws IllegalArgumentException if the side size is less than 2
+   */
+  public static HexSymmetry of(int sideSize) {
+    BoardTopology.of(sideSize);
+    return SYMMETRIES.computeIfAbsent(sideSize, HexSymmetry::new);
+  }
+
+  /**
+   * Applies a symmetry to a pair of axial coordinates. Symmetries 0 to 5 rotate by that many
+   * sixths of a turn, taking (q, r, s) to (-r, -s, -q) each time, and symmetries 6 to 11 first
+   * reflect by swapping q and r, then rotate by 0 to 5 sixths of a turn.
+   *
+   * @param symmetry which symmetry to apply, from 0 to COUNT - 1.
+   * @param q        the q coordinate.
+   * @param r        the r coordinate.
+   * @return the transformed coordinates, packed by Coordinate.pack.
+   */
+  private static int transform(int symmetry, int q, int r) {
+    int x = q;
+    int y = r;
+    if (symmetry >= 6) {
+      x = r;
+      y = q;
+    }
+    for (int turn = 0; turn < symmetry % 6; turn++) {
+      int s = -x - y;
+      x = -y;
+      y = -s;
+    }
+    return Coordinate.pack(x, y);
+  }
+
+  /**
+   * Returns the cell a symmetry sends a cell to.
+   *
+   * @param symmetry which symmetry to apply, from 0 to COUNT - 1.
+   * @param cell     the index of the cell.
+   * @return the index of its image.
+   */
+  public int image(int symmetry, int cell) {
+    return this.images[(symmetry * this.topology.getCellCount()) + cell];
+  }
+
+  /**
+   * Returns the symmetry that undoes the given one.
+   *
+   * @param symmetry a symmetry, from 0 to COUNT - 1.
+   * @return the inverse symmetry.
+   */
+  public int inverse(int symmetry) {
+    return this.inverses[symmetry];
+  }
+
+  /**
+   * Applies a symmetry to a coordinate.
+   *
+   * @param symmetry   which symmetry to apply, from 0 to COUNT - 1.
+   * @param coordinate a coordinate on the board.
+   * @return the coordinate of its image.
+   */
+  public Coordinate transform(int symmetry, Coordinate coordinate) {
+    int packed = transform(symmetry, coordinate.q, coordinate.r);
+    return new Coordinate(Coordinate.packedQ(packed), Coordinate.packedR(packed));
+  }
+
+  /**
+   * Returns the hash of the image of a position under a symmetry, without building the image.
+   *
+   * @param symmetry which symmetry to apply, from 0 to COUNT - 1.
+   * @param position the position.
+   * @return the hash the image would have.
+   */
+  public long hash(int symmetry, HexPosition position) {
+    long hash = position.getTurn() == HexPosition.BLACK ? this.zobrist.blackToMove() : 0L;
+    int cellCount = this.topology.getCellCount();
+    int offset = symmetry * cellCount;
+    for (int cell = 0; cell < cellCount; cell++) {
+      int color = position.get(cell);
+      if (color == HexPosition.WHITE) {
+        hash ^= this.zobrist.disc(this.images[offset + cell], CellModel.CellStatus.WHITE);
+      } else if (color == HexPosition.BLACK) {
+        hash ^= this.zobrist.disc(this.images[offset + cell], CellModel.CellStatus.BLACK);
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * Finds the symmetry that sends a position to its canonical form, the image with the lowest
+   * hash.
+   *
+   * @param position the position.
+   * @return the symmetry giving the canonical form.
+   */
+  public int canonicalSymmetry(HexPosition position) {
+    int best = 0;
+    long lowest = position.getHash();
+    for (int symmetry = 1; symmetry < COUNT; symmetry++) {
+      long hash = this.hash(symmetry, position);
+      if (hash < lowest) {
+        lowest = hash;
+        best = symmetry;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Returns the hash of the canonical form of a position, which is the same for a position and
+   * all of its symmetric images.
+   *
+   * @param position the position.
+   * @return the canonical hash.
+   */
+  public long canonicalHash(HexPosition position) {
+    long lowest = position.getHash();
+    for (int symmetry = 1; symmetry < COUNT; symmetry++) {
+      lowest = Math.min(lowest, this.hash(symmetry, position));
+    }
+    return lowest;
+  }
+
+  /**
+   * Puts the image of a position under a symmetry into another position of the same size.
+   *
+   * @param symmetry which symmetry to apply, from 0 to COUNT - 1.
+   * @param position the position to transform.
+   * @param image    where to put the image, which loses its history of moves.
+   * @throws IllegalArgumentException if the positions are the same or not the size of these
+   *                                  symmetries
+   */
+  public void transform(int symmetry, HexPosition position, HexPosition image) {
+    if (position.getTopology() != this.topology || image.getTopology() != this.topology) {
+      throw new IllegalArgumentException("Positions are different sizes");
+    }
+    if (position == image) {
+      throw new IllegalArgumentException("Image must be a different position");
+    }
+    image.copyFrom(position);
+    int cellCount = this.topology.getCellCount();
+    for (int cell = 0; cell < cellCount; cell++) {
+      image.set(this.image(symmetry, cell), position.get(cell));
+    }
+  }
+
+  /**
+   * Returns the hash of the canonical form of a game's position, for callers holding the board
+   * of a model rather than a HexPosition.
+   *
+   * @param board the cells of the board, in the order returned by getBoard.
+   * @param turn  the player whose turn it is.
+   * @return the canonical hash.
+   */
+  public long canonicalHash(List<List<Cell>> board, CellModel.CellStatus turn) {
+    long lowest = Long.MAX_VALUE;
+    int cellCount = this.topology.getCellCount();
+    for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+      long hash = turn == CellModel.CellStatus.BLACK ? this.zobrist.blackToMove() : 0L;
+      int cell = 0;
+      for (List<Cell> row : board) {
+        for (Cell current : row) {
+          hash ^= this.zobrist.disc(this.images[(symmetry * cellCount) + cell],
+                  current.getCellStatus());
+          cell++;
+        }
+      }
+      lowest = Math.min(lowest, hash);
+    }
+    return lowest;
+  }
+}
@@ -36,6 +36,35 @@ public class MockReversi extends BasicReversi {
     return false;
   }
 
+  /**
+   * Adds to the transcript every cell of the board, in board order, as each one would be checked
+   * for a legal move.
+   *
+   * @param player the color of the player to find moves for - irrelevant in this context
+   * @param moves  the list to write the moves into, which is left empty
+   */
+  @Override
+  public void findLegalMoves(CellModel.CellStatus player, MoveList moves) {
+    moves.clear();
+    for (List<Cell> row : this.getBoard()) {
+      for (Cell cell : row) {
+        this.transcript.add(cell.getCoordinate());
+      }
+    }
+  }
+
+  /**
+   * Adds to the transcript the coordinate being probed.
+   *
+   * @param move   the coordinate of the cell to probe.
+   * @param player the color of the player - irrelevant in this context
+   * @return 0 - not relevant
+   */
+  @Override
+  public int countFlips(Coordinate move, CellModel.CellStatus player) {
+    this.transcript.add(move);
+    return 0;
+  }
 
   /**
    * Get the transcript of cell coordinates.
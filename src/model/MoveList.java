@@ -0,0 +1,112 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of legal moves for one player, as found by ReadOnlyReversi.findLegalMoves.
+ * Each move is stored as the coordinate of the cell to play on, packed by Coordinate.pack, along
+ * with how many discs playing there would flip. Moves are kept in the same order the cells appear
+ * on the board.
+ *
+ * <p>The list only grows, so filling the same list turn after turn does not allocate once it has
+ * reached the largest number of moves seen.
+ */
+public final class MoveList {
+
+  private int[] coordinates;
+  private int[] flips;
+  private int size;
+
+  /**
+   * Constructs an empty list of moves.
+   */
+  public MoveList() {
+    this.coordinates = new int[16];
+    this.flips = new int[16];
+    this.size = 0;
+  }
+
+  /**
+   * Removes every move from the list.
+   */
+  public void clear() {
+    this.size = 0;
+  }
+
+  /**
+   * Adds a move to the end of the list.
+   *
+   * @param packedCoordinate the coordinate of the move, packed by Coordinate.pack.
+   * @param flipCount        how many discs the move would flip.
+   */
+  public void add(int packedCoordinate, int flipCount) {
+    if (this.size == this.coordinates.length) {
+      this.coordinates = Arrays.copyOf(this.coordinates, this.size * 2);
+      this.flips = Arrays.copyOf(this.flips, this.size * 2);
+    }
+    this.coordinates[this.size] = packedCoordinate;
+    this.flips[this.size] = flipCount;
+    this.size++;
+  }
+
+  /**
+   * Returns how many moves are in the list.
+   *
+   * @return the number of moves.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Determines if the list has no moves in it.
+   *
+   * @return true if there are no moves.
+   */
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * Returns the coordinate of a move, packed by Coordinate.pack.
+   *
+   * @param move the position of the move in the list.
+   * @return the packed coordinate of the move.
+   */
+  public int packedCoordinate(int move) {
+    this.checkMove(move);
+    return this.coordinates[move];
+  }
+
+  /**
+   * Returns the coordinate of a move.
+   *
+   * @param move the position of the move in the list.
+   * @return the coordinate of the move.
+   */
+  public Coordinate coordinate(int move) {
+    this.checkMove(move);
+    return new Coordinate(Coordinate.packedQ(this.coordinates[move]),
+            Coordinate.packedR(this.coordinates[move]));
+  }
+
+  /**
+   * Returns how many discs a move would flip.
+   *
+   * @param move the position of the move in the list.
+   * @return the number of discs the move would flip.
+   */
+  public int flips(int move) {
+    this.checkMove(move);
+    return this.flips[move];
+  }
+
+  /**
+   * Makes sure the given position refers to a move in the list.
+   */
+  private void checkMove(int move) {
+    if (move < 0 || move >= this.size) {
+      throw new IndexOutOfBoundsException("No move at position " + move);
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the paths of moves of a given length from a position, as a check on the move
+ * generator and a measure of its speed. Two move generators that agree on these counts to a good
+ * depth agree on the legal moves of every position on the way, so a faster generator can be
+ * checked against the counts of a slower one before it replaces it.
+ *
+ * <p>The counts follow the rules BasicReversi plays by. A player with no legal move passes,
+ * which uses up a ply of the depth, and the game ends when the board is full or the players have
+ * passed twice in a row. A game that ends before the depth is reached is counted once, as the
+ * end of its path, so every count is the number of distinct ways the game can go on for the
+ * given number of plies or until it ends.
+ */
+public final class Perft {
+
+  private Perft() {
+  }
+
+  /**
+   * Returns the position a game of Reversi starts from on a board of the given size.
+   *
+   * @param sideSize how many hexagons long each side of the board is.
+   * @return the starting position, with white to move.
+   * @throws IllegalArgumentException if the side size is less than 2
+   */
+  public static HexPosition startPosition(int sideSize) {
+    ReversiModel model = new BasicReversi(sideSize);
+    model.startGame();
+    return HexPosition.of(model, model.whoseTurn());
+  }
+
+  /**
+   * Counts the paths of moves from a position on the calling thread. The position is not
+   * changed.
+   *
+   * @param position the position to count from.
+   * @param depth    how many plies long the paths are, passes included.
+   * @return the number of paths.
+   * @throws IllegalArgumentException if the depth is negative
+   */
+  public static long count(HexPosition position, int depth) {
+    if (depth < 0) {
+      throw new IllegalArgumentException("Depth cannot be negative");
+    }
+    return new Counter(new HexPosition(position), depth).count(depth);
+  }
+
+  /**
+   * Counts the paths of moves from a position in parallel, splitting the moves from the position
+   * between the threads of a pool. The position is not changed.
+   *
+   * @param position the position to count from.
+   * @param depth    how many plies long the paths are, passes included.
+   * @param pool     the pool whose threads count the paths after each first move.
+   * @return the number of paths.
+   * @throws IllegalArgumentException if the depth is negative or the pool is null
+   */
+  public static long count(HexPosition position, int depth, ForkJoinPool pool) {
+    if (depth < 0) {
+      throw new IllegalArgumentException("Depth cannot be negative");
+    }
+    if (pool == null) {
+      throw new IllegalArgumentException("Pool cannot be null");
+    }
+    HexPosition root = new HexPosition(position);
+    int[] moves = new int[root.getTopology().getCellCount()];
+    int count = isOver(root) || depth < 2 ? 0 : root.legalMoves(root.getTurn(), moves);
+    if (count == 0) {
+      // nothing worth splitting: the game is over, the player must pass or the depth is tiny
+      return new Counter(root, depth).count(depth);
+    }
+    List<RecursiveTask<Long>> tasks = new ArrayList<RecursiveTask<Long>>();
+    for (int move = 0; move < count; move++) {
+      int cell = moves[move];
+      tasks.add(new RecursiveTask<Long>() {
+        @Override
+        protected Long compute() {
+          HexPosition child = new HexPosition(root);
+          child.play(cell);
+          return new Counter(child, depth - 1).count(depth - 1);
+        }
+      });
+    }
+    return pool.invoke(new RecursiveTask<Long>() {
+      @Override
+      protected Long compute() {
+        long nodes = 0;
+        for (RecursiveTask<Long> task : invokeAll(tasks)) {
+          nodes += task.join();
+        }
+        return nodes;
+      }
+    });
+  }
+
+  /**
+   * Returns whether the game in a position is over, by the rules of BasicReversi.isGameOver.
+   */
+  private static boolean isOver(HexPosition position) {
+    return position.getPasses() >= 2 || position.getBlankCount() == 0;
+  }
+
+  /**
+   * Counts paths depth first on one position, making and taking back moves, with a move buffer
+   * for every ply so that counting does not allocate.
+   */
+  private static final class Counter {
+
+    private final HexPosition position;
+    private final int[][] moves;
+
+    Counter(HexPosition position, int depth) {
+      this.position = position;
+      this.moves = new int[Math.max(depth, 1)][position.getTopology().getCellCount()];
+    }
+
+    /**
+     * Counts the paths of the given number of plies from the current position.
+     */
+    long count(int depth) {
+      HexPosition position = this.position;
+      if (depth == 0 || isOver(position)) {
+        return 1;
+      }
+      int[] buffer = this.moves[depth - 1];
+      int count = position.legalMoves(position.getTurn(), buffer);
+      if (count == 0) {
+        position.pass();
+        long nodes = this.count(depth - 1);
+        position.undo();
+        return nodes;
+      }
+      if (depth == 1) {
+        // every move ends a path, so the moves need only be counted, not played
+        return count;
+      }
+      long nodes = 0;
+      for (int move = 0; move < count; move++) {
+        position.play(buffer[move]);
+        nodes += this.count(depth - 1);
+        position.undo();
+      }
+      return nodes;
+    }
+  }
+
+  /**
+   * Prints the counts from the start position to every depth up to the given one, with how
+   * long each took and how many paths were counted per second.
+   *
+   * @param args the side size, the greatest depth and, optionally, the number of threads, which
+   *             is one per processor if not given.
+   */
+  public static void main(String[] args) {
+    if (args.length != 2 && args.length != 3) {
+      throw new IllegalArgumentException("Usage: sideSize depth [threads]");
+    }
+    int sideSize = Integer.parseInt(args[0]);
+    int maxDepth = Integer.parseInt(args[1]);
+    int threads = args.length == 3 ? Integer.parseInt(args[2])
+            : Runtime.getRuntime().availableProcessors();
+    HexPosition start = startPosition(sideSize);
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      System.out.println("depth\tnodes\ttime (ms)\tnodes/sec");
+      for (int depth = 1; depth <= maxDepth; depth++) {
+        long begin = System.nanoTime();
+        long nodes = count(start, depth, pool);
+        long elapsed = Math.max(1, System.nanoTime() - begin);
+        System.out.println(depth + "\t" + nodes + "\t" + (elapsed / 1_000_000) + "\t"
+                + (long) (nodes * 1e9 / elapsed));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * A read-only list of the hexagonal cells that lie on one plane of a board. The list holds no
+ * cells of its own; it looks them up on the board through the shared BoardTopology, so building
+ * one takes constant time no matter how large the board is.
+ */
+final class PlaneCells extends AbstractList<Cell> {
+
+  private final List<List<Cell>> board;
+  private final BoardTopology topology;
+  private final int plane;
+  private final int cell;
+
+  /**
+   * Constructs the list of cells on one plane through a cell.
+   *
+   * @param board    the game board the cells are on.
+   * @param topology the topology of the board.
+   * @param plane    0 for the q plane, 1 for the r plane and 2 for the s plane.
+   * @param cell     the index of a cell on the plane.
+   */
+  PlaneCells(List<List<Cell>> board, BoardTopology topology, int plane, int cell) {
+    this.board = board;
+    this.topology = topology;
+    this.plane = plane;
+    this.cell = cell;
+  }
+
+  @Override
+  public Cell get(int position) {
+    if (position < 0 || position >= this.size()) {
+      throw new IndexOutOfBoundsException("No cell at position " + position);
+    }
+    int index = this.topology.planeCell(this.plane, this.cell, position);
+    return this.board.get(this.topology.row(index)).get(this.topology.column(index));
+  }
+
+  @Override
+  public int size() {
+    return this.topology.planeLength(this.plane, this.cell);
+  }
+}
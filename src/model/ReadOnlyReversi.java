@@ -24,6 +24,13 @@ public interface ReadOnlyReversi {
    */
   int getScore(CellModel.CellStatus playerColor);
 
+  /**
+   * Returns how many hexagonal cells on the board have no disc on them.
+   *
+   * @return the number of blank cells on the board.
+   */
+  int getBlankCount();
+
   /**
    * Determines if the game of Reversi is over or not. A game is over if there have been two passes
    * committed in a row, or if the board has no more blank hexagonal cells.
@@ -51,6 +58,15 @@ public interface ReadOnlyReversi {
    */
   Cell getClickedCell(Coordinate coordinate);
 
+  /**
+   * Returns the cell at a coordinate packed by Coordinate.pack, without allocating a Coordinate.
+   *
+   * @param packedCoordinate the packed coordinate of the cell.
+   * @return the cell at that coordinate.
+   * @throws IllegalArgumentException if the coordinate is not on the board
+   */
+  Cell getClickedCell(int packedCoordinate);
+
   /**
    * Checks if there are any valid moves left for the current player to make on the board.
    *
@@ -58,6 +74,49 @@ public interface ReadOnlyReversi {
    */
   boolean anyValidMoves();
 
+  /**
+   * Finds every cell the given player could legally play a disc on, in the order the cells appear
+   * on the board, along with how many discs each of those moves would flip. The moves replace
+   * whatever the given list held, so one list can be reused turn after turn.
+   *
+   * @param player the color of the player to find moves for.
+   * @param moves  the list to write the moves into.
+   * @throws IllegalArgumentException if the player is blank
+   */
+  void findLegalMoves(CellModel.CellStatus player, MoveList moves);
+
+  /**
+   * Counts how many discs the given player would flip by playing a disc on the cell with the
+   * given coordinate, whether or not it is currently that player's turn. Unlike probing with
+   * playADisc, this changes nothing about the model, not even the count returned by
+   * getLastTurnTilesFlipped, so several threads may probe the same model at once.
+   *
+   * @param move   the coordinate of the cell to probe.
+   * @param player the color of the player who would play the disc.
+   * @return the number of discs that would be flipped, or 0 if the move is not valid.
+   * @throws IllegalArgumentException if the player is blank or the coordinate is not on the board
+   */
+  int countFlips(Coordinate move, CellModel.CellStatus player);
+
+  /**
+   * Returns a 64-bit Zobrist hash of the current position, covering every disc on the board and
+   * whose turn it is. Equal positions on boards of the same size always have equal hashes, and
+   * the hash is kept up to date as discs are placed and flipped, so reading it is O(1).
+   *
+   * @return the hash of the current position.
+   */
+  long getPositionHash();
+
+  /**
+   * Returns the classification of the cells of the board into corners, cells next to corners,
+   * edge and interior cells and rings, shared by every game of the same side size. Unlike the
+   * other observations it does not depend on the position, so it can be read before the game
+   * starts.
+   *
+   * @return the cell classification for the board.
+   */
+  CellClassification getCellClassification();
+
   /**
    * Returns the size for how long a singular side of the entire hexagon board is.
    *
@@ -28,6 +28,35 @@ public interface ReversiModel extends ReadOnlyReversi {
    */
   boolean playADisc(Cell clickCell, CellModel.CellStatus playerCalling, boolean move);
 
+  /**
+   * Plays a disc for the player whose turn it is on the cell with the given coordinate and hands
+   * the turn to the other player, recording the move so that unmakeMove can take it back. This
+   * is meant for searching ahead: unlike playADisc, no controller is notified of the turn.
+   *
+   * @param move the coordinate of the cell to play on.
+   * @throws IllegalStateException    if the game has not started or the move is not valid
+   * @throws IllegalArgumentException if the coordinate is not on the board
+   */
+  void makeMove(Coordinate move);
+
+  /**
+   * Passes the turn of the player whose turn it is, recording the pass so that unmakeMove can
+   * take it back. No controller is notified of the turn.
+   *
+   * @throws IllegalStateException if the game has not started
+   */
+  void makePass();
+
+  /**
+   * Takes back the last move or pass made through makeMove or makePass, restoring the flipped
+   * discs, the turn and the count of passes in a row. Taking a move back costs time in
+   * proportion to the number of discs it flipped and does not allocate. Moves made through
+   * playADisc or passTurn cannot be taken back, and making one forgets all earlier moves.
+   *
+   * @throws IllegalStateException if there is no move to take back
+   */
+  void unmakeMove();
+
   /**
    * Returns how many tiles were flipped in the last turn.
    *
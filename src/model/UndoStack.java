@@ -0,0 +1,153 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * A stack of the moves made through ReversiModel.makeMove and makePass, holding just enough to
+ * take each one back: the cell the disc was placed on, the cells it flipped, whose turn it was
+ * and how many passes in a row had been made before it.
+ *
+ * <p>The stack is sized for a whole game up front and stores everything in int arrays, so
+ * pushing and popping moves does not allocate. It only grows if a game flips more discs than
+ * expected.
+ */
+final class UndoStack {
+
+  private static final int FRAME_SIZE = 4;
+  private static final int CELL = 0;
+  private static final int FIRST_FLIP = 1;
+  private static final int PASSES = 2;
+  private static final int TURN = 3;
+  private static final CellModel.CellStatus[] STATUSES = CellModel.CellStatus.values();
+
+  private int[] frames;
+  private int frameCount;
+  private int[] flipped;
+  private int flippedCount;
+
+  /**
+   * Constructs an empty stack with room for a game on a board with the given number of cells.
+   *
+   * @param cellCount how many cells are on the board.
+   */
+  UndoStack(int cellCount) {
+    // every move fills a cell and a pass can follow each move, plus the two passes ending a game
+    this.frames = new int[((cellCount * 2) + 2) * FRAME_SIZE];
+    this.flipped = new int[cellCount * 4];
+    this.frameCount = 0;
+    this.flippedCount = 0;
+  }
+
+  /**
+   * Starts recording a move, before any of its flips are added.
+   *
+   * @param cell   the index of the cell the disc is placed on, or -1 for a pass.
+   * @param passes how many passes in a row had been made before the move.
+   * @param turn   the player whose turn it was before the move.
+   */
+  void push(int cell, int passes, CellModel.CellStatus turn) {
+    if ((this.frameCount + 1) * FRAME_SIZE > this.frames.length) {
+      this.frames = Arrays.copyOf(this.frames, this.frames.length * 2);
+    }
+    int frame = this.frameCount * FRAME_SIZE;
+    this.frames[frame + CELL] = cell;
+    this.frames[frame + FIRST_FLIP] = this.flippedCount;
+    this.frames[frame + PASSES] = passes;
+    this.frames[frame + TURN] = turn.ordinal();
+    this.frameCount++;
+  }
+
+  /**
+   * Records a cell flipped by the move most recently pushed.
+   *
+   * @param cell the index of the flipped cell.
+   */
+  void addFlip(int cell) {
+    if (this.flippedCount == this.flipped.length) {
+      this.flipped = Arrays.copyOf(this.flipped, this.flipped.length * 2);
+    }
+    this.flipped[this.flippedCount] = cell;
+    this.flippedCount++;
+  }
+
+  /**
+   * Determines if there are no moves to take back.
+   *
+   * @return true if the stack is empty.
+   */
+  boolean isEmpty() {
+    return this.frameCount == 0;
+  }
+
+  /**
+   * Returns the cell the disc of the last move was placed on.
+   *
+   * @return the index of the cell, or -1 if the last move was a pass.
+   */
+  int cell() {
+    return this.frames[this.top() + CELL];
+  }
+
+  /**
+   * Returns how many passes in a row had been made before the last move.
+   *
+   * @return the number of passes in a row.
+   */
+  int passes() {
+    return this.frames[this.top() + PASSES];
+  }
+
+  /**
+   * Returns the player whose turn it was before the last move.
+   *
+   * @return the color of the player who made the last move.
+   */
+  CellModel.CellStatus turn() {
+    return STATUSES[this.frames[this.top() + TURN]];
+  }
+
+  /**
+   * Returns how many cells the last move flipped.
+   *
+   * @return the number of flipped cells.
+   */
+  int flipCount() {
+    return this.flippedCount - this.frames[this.top() + FIRST_FLIP];
+  }
+
+  /**
+   * Returns one of the cells the last move flipped.
+   *
+   * @param flip which of the flipped cells to return, from 0 to flipCount - 1.
+   * @return the index of the flipped cell.
+   */
+  int flip(int flip) {
+    return this.flipped[this.frames[this.top() + FIRST_FLIP] + flip];
+  }
+
+  /**
+   * Removes the last move from the stack.
+   */
+  void pop() {
+    this.flippedCount = this.frames[this.top() + FIRST_FLIP];
+    this.frameCount--;
+  }
+
+  /**
+   * Removes every move from the stack.
+   */
+  void clear() {
+    this.frameCount = 0;
+    this.flippedCount = 0;
+  }
+
+  /**
+   * Returns where the last move's frame starts, making sure there is one.
+   */
+  private int top() {
+    if (this.frameCount == 0) {
+      throw new IllegalStateException("No move to undo");
+    }
+    return (this.frameCount - 1) * FRAME_SIZE;
+  }
+}
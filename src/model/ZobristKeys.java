@@ -0,0 +1,125 @@
+package model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The random keys used to hash positions of a hexagonal Reversi board of a given side size. A
+ * position's hash is the exclusive or of one key for every disc on the board, chosen by the
+ * disc's cell and color, and one more key when it is black's turn. Placing, flipping or removing
+ * a disc, or handing over the turn, changes the hash by a single exclusive or, so models can keep
+ * it up to date as the game is played.
+ *
+ * <p>The keys are generated from a fixed seed, so the same position always has the same hash,
+ * even in a different run of the program.
+ */
+public final class ZobristKeys {
+
+  private static final Map<Integer, ZobristKeys> KEYS =
+          new ConcurrentHashMap<Integer, ZobristKeys>();
+
+  private final BoardTopology topology;
+  private final long[] blackKeys;
+  private final long[] whiteKeys;
+  private final long blackToMove;
+
+  /**
+   * Generates the keys for a board with the given side size.
+   *
+   * @param sideSize how many hexagons long a single side of the board is.
+   */
+  private ZobristKeys(int sideSize) {
+    this.topology = BoardTopology.of(sideSize);
+    int cellCount = this.topology.getCellCount();
+    this.blackKeys = new long[cellCount];
+    this.whiteKeys = new long[cellCount];
+    long state = 0x5DEECE66DL ^ ((long) sideSize << 32);
+    for (int cell = 0; cell < cellCount; cell++) {
+      state += 0x9E3779B97F4A7C15L;
+      this.blackKeys[cell] = mix(state);
+      state += 0x9E3779B97F4A7C15L;
+      this.whiteKeys[cell] = mix(state);
+    }
+    state += 0x9E3779B97F4A7C15L;
+    this.blackToMove = mix(state);
+  }
+
+  /**
+   * Returns the keys for a board with the given side size, generating them the first time they
+   * are asked for.
+   *
+   * @param sideSize how many hexagons long a single side of the board is.
+   * @return the shared keys for boards of that size.
+   */
+  public static ZobristKeys of(int sideSize) {
+    BoardTopology.of(sideSize);
+    return KEYS.computeIfAbsent(sideSize, ZobristKeys::new);
+  }
+
+  /**
+   * Scrambles the bits of a counter into a well distributed random value (the SplitMix64
+   * finalizer).
+   */
+  private static long mix(long value) {
+    long z = value;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Returns the key for a disc of the given color on the cell with the given index.
+   *
+   * @param cell  the index of the cell in the board's topology.
+   * @param color the color of the disc.
+   * @return the key of the disc, or 0 for a blank cell.
+   */
+  public long disc(int cell, CellModel.CellStatus color) {
+    if (color == CellModel.CellStatus.BLACK) {
+      return this.blackKeys[cell];
+    } else if (color == CellModel.CellStatus.WHITE) {
+      return this.whiteKeys[cell];
+    }
+    return 0L;
+  }
+
+  /**
+   * Returns the change in hash from flipping the disc on the cell with the given index from one
+   * color to the other.
+   *
+   * @param cell the index of the cell in the board's topology.
+   * @return the key to exclusive or into the hash.
+   */
+  public long flip(int cell) {
+    return this.blackKeys[cell] ^ this.whiteKeys[cell];
+  }
+
+  /**
+   * Returns the key included in the hash whenever it is black's turn.
+   *
+   * @return the side to move key.
+   */
+  public long blackToMove() {
+    return this.blackToMove;
+  }
+
+  /**
+   * Computes the hash of the given position from scratch by looking at every cell.
+   *
+   * @param board the cells of the board, in the order returned by getBoard.
+   * @param turn  the player whose turn it is.
+   * @return the hash of the position.
+   */
+  public long hash(List<List<Cell>> board, CellModel.CellStatus turn) {
+    long hash = turn == CellModel.CellStatus.BLACK ? this.blackToMove : 0L;
+    int cell = 0;
+    for (List<Cell> row : board) {
+      for (Cell current : row) {
+        hash ^= this.disc(cell, current.getCellStatus());
+        cell++;
+      }
+    }
+    return hash;
+  }
+}
@@ -6,6 +6,7 @@ import controller.ReversiController;
 import model.CellModel;
 import model.Coordinate;
 import model.ReversiModel;
+import strategy.MoveWatchdog;
 import strategy.ReversiStrategy;
 
 /**
@@ -14,6 +15,8 @@ import strategy.ReversiStrategy;
 public class AIPlayer implements Player {
   private final CellModel.CellStatus discColor;
   private final ReversiStrategy strategy;
+  private final MoveWatchdog watchdog;
+  private final Ponderer ponderer;
 
   /**
    * Constructs an AI player capable of partaking in the game of Reversi.
@@ -24,11 +27,80 @@ public class AIPlayer implements Player {
   public AIPlayer(CellModel.CellStatus discColor, ReversiStrategy strategy) {
     this.discColor = discColor;
     this.strategy = strategy;
+    this.watchdog = null;
+    this.ponderer = null;
+  }
+
+  /**
+   * Constructs an AI player whose every move must be chosen within the time budget of a
+   * watchdog, which reports the moves that overrun it.
+   *
+   * @param discColor the disc color associated with the player.
+   * @param strategy  the strategy to be utilized the player when making decisions of where to play.
+   * @param watchdog  the watchdog timing the player's moves.
+   * @throws IllegalArgumentException if the watchdog is null
+   */
+  public AIPlayer(CellModel.CellStatus discColor, ReversiStrategy strategy,
+                  MoveWatchdog watchdog) {
+    this(discColor, strategy, watchdog, false);
+    if (watchdog == null) {
+      throw new IllegalArgumentException("Watchdog cannot be null");
+    }
+  }
+
+  /**
+   * Constructs an AI player that may think about its next move while the opponent chooses
+   * theirs. After each move it predicts the opponent's reply and searches its answer to it on a
+   * background thread, and when the opponent plays the predicted reply it takes the pondered
+   * answer instead of searching again.
+   *
+   * @param discColor the disc color associated with the player.
+   * @param strategy  the strategy to be utilized the player when making decisions of where to play.
+   * @param watchdog  the watchdog timing the player's moves, or null to give them no time limit.
+   * @param ponder    whether to think on the opponent's turn.
+   */
+  public AIPlayer(CellModel.CellStatus discColor, ReversiStrategy strategy,
+                  MoveWatchdog watchdog, boolean ponder) {
+    this.discColor = discColor;
+    this.strategy = strategy;
+    this.watchdog = watchdog;
+    this.ponderer = ponder ? new Ponderer(discColor, strategy) : null;
   }
 
   @Override
   public Optional<Coordinate> play(ReversiModel model) {
-    return this.strategy.chooseCoordinate(model, this.discColor);
+    ReversiStrategy chooser = this.strategy;
+    if (this.ponderer != null) {
+      chooser = this.ponderer.resume(model);
+    }
+    Optional<Coordinate> move;
+    if (this.watchdog != null) {
+      move = this.watchdog.choose(chooser, model, this.discColor);
+    } else {
+      move = chooser.chooseCoordinate(model, this.discColor);
+    }
+    if (this.ponderer != null) {
+      this.ponderer.start(model, move);
+    }
+    return move;
+  }
+
+  /**
+   * Returns how many times the opponent played the reply this player predicted while pondering.
+   *
+   * @return the number of ponder hits, or 0 if the player does not ponder.
+   */
+  public int getPonderHits() {
+    return this.ponderer == null ? 0 : this.ponderer.getHits();
+  }
+
+  /**
+   * Returns how many times the opponent played a reply this player did not predict.
+   *
+   * @return the number of ponder misses, or 0 if the player does not ponder.
+   */
+  public int getPonderMisses() {
+    return this.ponderer == null ? 0 : this.ponderer.getMisses();
   }
 
   @Override
@@ -36,8 +36,7 @@ public class HumanPlayer implements Player {
       throw new IllegalArgumentException("No Cell Selected!");
     }
 
-    if (model.playADisc(
-            panel.getButtonSelected().getCorrespondingCell(), this.discColor, false)) {
+    if (model.countFlips(this.panel.getButtonSelected().getCoordinate(), this.discColor) > 0) {
       return Optional.of(this.panel.getButtonSelected().getCoordinate());
     }
 
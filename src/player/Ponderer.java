@@ -0,0 +1,219 @@
+package player;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import model.BitboardReversi;
+import model.CellModel;
+import model.Coordinate;
+import model.ReversiModel;
+import strategy.Deadline;
+import strategy.ReversiStrategy;
+import strategy.SearchThreads;
+
+/**
+ * Thinks about an AI player's next move while the opponent is choosing theirs. As soon as the
+ * player has chosen a move, the ponderer copies the game, plays the move on the copy and plays
+ * the opponent's reply the player's own search expected, which a searching strategy predicts from
+ * what its last search left behind without searching again. It then searches the player's answer
+ * to that position on a background thread.
+ *
+ * <p>When the opponent's real move arrives, the ponderer compares the game with the position it
+ * predicted. On a hit, the search already under way is the search the player needs, so the
+ * player waits for it to finish, or takes its best move so far when its deadline passes. On a
+ * miss, the pondering is cancelled and the player searches as usual. The strategy's
+ * transposition table is kept as it is, so the search still finds the positions it has in common
+ * with the ponder.
+ *
+ * <p>The strategy is only ever used by one thread at a time: the player waits for a cancelled
+ * ponder to stop before using the strategy itself, even if it is interrupted while it waits.
+ */
+final class Ponderer {
+
+  private final CellModel.CellStatus discColor;
+  private final ReversiStrategy strategy;
+  private Deadline deadline;
+  private Future<Optional<Coordinate>> answer;
+  // the hash of the position after the predicted reply, which the answer is searched for
+  private long predictedHash;
+  private int hits;
+  private int misses;
+
+  /**
+   * Constructs a ponderer for the player with the given disc color.
+   *
+   * @param discColor the disc color of the player who ponders.
+   * @param strategy  the strategy the player chooses its moves with.
+   */
+  Ponderer(CellModel.CellStatus discColor, ReversiStrategy strategy) {
+    this.discColor = discColor;
+    this.strategy = strategy;
+  }
+
+  /**
+   * Starts pondering the position the player's move leads to, stopping any earlier pondering
+   * first. The game is copied and the reply predicted on the calling thread, so the game may
+   * change as soon as this returns. Nothing is pondered if the strategy has no prediction.
+   *
+   * @param model the game, before the player's move is made.
+   * @param move  the move the player chose, or empty if the player passes.
+   */
+  void start(ReversiModel model, Optional<Coordinate> move) {
+    this.stop();
+    BitboardReversi copy = BitboardReversi.copyOf(model);
+    if (move.isPresent()) {
+      copy.makeMove(move.get());
+    } else {
+      copy.makePass();
+    }
+    if (copy.getBlankCount() == 0) {
+      return;
+    }
+    CellModel.CellStatus opponent = copy.whoseTurn();
+    if (copy.anyValidMoves()) {
+      Optional<Coordinate> reply = this.strategy.predictCoordinate(copy, opponent);
+      if (!reply.isPresent() || copy.countFlips(reply.get(), opponent) == 0) {
+        return;
+      }
+      copy.makeMove(reply.get());
+    } else {
+      copy.makePass();
+    }
+    this.predictedHash = copy.getPositionHash();
+    Deadline stopped = Deadline.none();
+    this.deadline = stopped;
+    this.answer = SearchThreads.submit(() ->
+            this.strategy.chooseCoordinate(copy, this.discColor, stopped));
+  }
+
+  /**
+   * Returns the strategy to choose the player's move in the game with. On a hit that is a
+   * strategy taking the pondered move; otherwise pondering is stopped and the player's own
+   * strategy is returned.
+   *
+   * @param model the game, now that it is the player's turn.
+   * @return the strategy to choose the move with.
+   */
+  ReversiStrategy resume(ReversiModel model) {
+    if (this.answer == null) {
+      return this.strategy;
+    }
+    if (this.predictedHash != model.getPositionHash()) {
+      this.misses++;
+      this.stop();
+      return this.strategy;
+    }
+    this.hits++;
+    Future<Optional<Coordinate>> pondered = this.answer;
+    Deadline stopped = this.deadline;
+    this.answer = null;
+    this.deadline = null;
+    return new ReversiStrategy() {
+      @Override
+      public Optional<Coordinate> chooseCoordinate(ReversiModel game,
+                                                   CellModel.CellStatus player) {
+        return this.chooseCoordinate(game, player, Deadline.none());
+      }
+
+      @Override
+      public Optional<Coordinate> chooseCoordinate(ReversiModel game,
+                                                   CellModel.CellStatus player,
+                                                   Deadline deadline) {
+        Optional<Coordinate> move = await(pondered, stopped, deadline);
+        // the predicted position matched by hash, so only trust a move that is legal here
+        if (move.isPresent() && game.countFlips(move.get(), player) > 0) {
+          return move;
+        }
+        return Ponderer.this.strategy.chooseCoordinate(game, player, deadline);
+      }
+    };
+  }
+
+  /**
+   * Cancels any pondering and waits for it to stop, so the strategy is free to use.
+   */
+  void stop() {
+    if (this.answer != null) {
+      this.deadline.cancel();
+      awaitStopped(this.answer);
+      this.answer = null;
+      this.deadline = null;
+    }
+  }
+
+  /**
+   * Waits for a ponder to finish, cancelling it if the deadline passes first. If the waiting
+   * thread is interrupted, the ponder is cancelled and waited for all the same.
+   *
+   * @param pondered the running ponder.
+   * @param stopped  the deadline the ponder searches under.
+   * @param deadline when to stop waiting and take the ponder's best move so far.
+   * @return the pondered move, or empty if pondering failed or found none.
+   */
+  private static Optional<Coordinate> await(Future<Optional<Coordinate>> pondered,
+                                            Deadline stopped, Deadline deadline) {
+    try {
+      while (true) {
+        try {
+          long wait = Math.min(deadline.remainingNanos(), TimeUnit.MILLISECONDS.toNanos(10));
+          return pondered.get(Math.max(1, wait), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+          if (deadline.isExpired()) {
+            stopped.cancel();
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      stopped.cancel();
+      awaitStopped(pondered);
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      // a failed ponder is only a missed prediction; the player still searches as usual
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Waits for a cancelled ponder to stop. An interrupt does not cut the wait short, since the
+   * ponder may still be using the strategy; it is passed on once the ponder has stopped.
+   *
+   * @param pondered the cancelled ponder.
+   */
+  private static void awaitStopped(Future<Optional<Coordinate>> pondered) {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        pondered.get();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      } catch (ExecutionException e) {
+        break;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Returns how many times the opponent played the predicted reply.
+   *
+   * @return the number of ponder hits.
+   */
+  int getHits() {
+    return this.hits;
+  }
+
+  /**
+   * Returns how many times the opponent played something other than the predicted reply.
+   *
+   * @return the number of ponder misses.
+   */
+  int getMisses() {
+    return this.misses;
+  }
+}
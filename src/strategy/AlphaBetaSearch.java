@@ -0,0 +1,509 @@
+package strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import model.CellModel;
+import model.Coordinate;
+import model.HexPosition;
+import model.ReversiModel;
+
+/**
+ * A Reversi strategy that looks ahead by searching the tree of moves with negamax alpha-beta.
+ * The search deepens one ply at a time up to a maximum depth, and each iteration tries the best
+ * move of the iteration before it first, along with the best move remembered in a transposition
+ * table for every position it meets again, so that most of the tree is cut off. Positions at the
+ * end of the search are scored by an Evaluator, and finished games by their disc differential.
+ *
+ * <p>The search runs on a HexPosition copied from the model, so the live game is never changed.
+ * It stops early once it has searched a given number of positions, or when its Deadline passes,
+ * playing the best move of the deepest iteration it finished, or a move that beat it in the
+ * iteration that was cut short. The number of positions searched and the rate they were searched
+ * at are kept after every move for the caller to read.
+ *
+ * <p>The search can run on several threads at once (Lazy SMP). Every thread searches the whole
+ * tree on its own copy of the position, but they share the transposition table, so each thread
+ * mostly skips the parts of the tree the others have already searched. Helper threads start at
+ * different depths and try the root moves in a different order to spread out. The node budget is
+ * split evenly between the threads, and the search ends as soon as the first thread finishes.
+ */
+public class AlphaBetaSearch implements ReversiStrategy {
+
+  /**
+   * The score of a won game before the disc differential is added; any evaluation must stay
+   * well below it.
+   */
+  static final int WIN = 1 << 20;
+
+  private static final int INFINITY = 1 << 24;
+  private static final int DEFAULT_TABLE_SIZE = 1 << 18;
+  // how many positions a worker searches between looks at the clock
+  private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+  private final int maxDepth;
+  private final long maxNodes;
+  private final int threads;
+  private final Evaluator evaluator;
+  private final TranspositionTable table;
+
+  private Worker[] workers;
+  private volatile boolean stopped;
+  private Deadline deadline;
+  private long nodes;
+  private long elapsedNanos;
+  private int depthReached;
+
+  /**
+   * Constructs a search that looks the given number of plies ahead, however many positions that
+   * takes.
+   *
+   * @param maxDepth how many plies to look ahead, from 1 to 255.
+   * @throws IllegalArgumentException if the depth is out of range
+   */
+  public AlphaBetaSearch(int maxDepth) {
+    this(maxDepth, Long.MAX_VALUE);
+  }
+
+  /**
+   * Constructs a search that looks the given number of plies ahead, or as far as it gets within
+   * the given number of positions.
+   *
+   * @param maxDepth how many plies to look ahead, from 1 to 255.
+   * @param maxNodes how many positions to search at most for each move.
+   * @throws IllegalArgumentException if the depth is out of range or the node budget is not
+   *                                  positive
+   */
+  public AlphaBetaSearch(int maxDepth, long maxNodes) {
+    this(maxDepth, maxNodes, 1);
+  }
+
+  /**
+   * Constructs a search that looks the given number of plies ahead on the given number of
+   * threads, or as far as it gets within the given number of positions.
+   *
+   * @param maxDepth how many plies to look ahead, from 1 to 255.
+   * @param maxNodes how many positions to search at most for each move, across all threads.
+   * @param threads  how many threads to search with.
+   * @throws IllegalArgumentException if the depth is out of range or the node budget or thread
+   *                                  count is not positive
+   */
+  public AlphaBetaSearch(int maxDepth, long maxNodes, int threads) {
+    this(maxDepth, maxNodes, threads, new PositionalEvaluator(),
+            new TranspositionTable(DEFAULT_TABLE_SIZE));
+  }
+
+  /**
+   * Constructs a single threaded search with its own evaluator and transposition table.
+   *
+   * @param maxDepth  how many plies to look ahead, from 1 to 255.
+   * @param maxNodes  how many positions to search at most for each move.
+   * @param evaluator how to score the positions at the end of the search.
+   * @param table     where to remember the results of searched positions, which may be shared
+   *                  with other searches.
+   * @throws IllegalArgumentException if the depth is out of range, the node budget is not
+   *                                  positive or the evaluator or table is null
+   */
+  public AlphaBetaSearch(int maxDepth, long maxNodes, Evaluator evaluator,
+                         TranspositionTable table) {
+    this(maxDepth, maxNodes, 1, evaluator, table);
+  }
+
+  /**
+   * Constructs a search with its own thread count, evaluator and transposition table.
+   *
+   * @param maxDepth  how many plies to look ahead, from 1 to 255.
+   * @param maxNodes  how many positions to search at most for each move, across all threads.
+   * @param threads   how many threads to search with.
+   * @param evaluator how to score the positions at the end of the search, which is shared by
+   *                  every thread.
+   * @param table     where to remember the results of searched positions, which may be shared
+   *                  with other searches.
+   * @throws IllegalArgumentException if the depth is out of range, the node budget or thread
+   *                                  count is not positive or the evaluator or table is null
+   */
+  public AlphaBetaSearch(int maxDepth, long maxNodes, int threads, Evaluator evaluator,
+                         TranspositionTable table) {
+    if (maxDepth < 1 || maxDepth > 255) {
+      throw new IllegalArgumentException("Search depth must be between 1 and 255");
+    }
+    if (maxNodes < 1) {
+      throw new IllegalArgumentException("Node budget must be positive");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("Thread count must be positive");
+    }
+    if (evaluator == null || table == null) {
+      throw new IllegalArgumentException("Evaluator and table cannot be null");
+    }
+    this.maxDepth = maxDepth;
+    this.maxNodes = maxNodes;
+    this.threads = threads;
+    this.evaluator = evaluator;
+    this.table = table;
+  }
+
+  /**
+   * Chooses the move the deepest finished search found best for the player.
+   *
+   * @param model  The ReversiModel representing the current state of the game.
+   * @param player The player making the move.
+   * @return An Optional containing the chosen coordinate if a move is made,
+   *         or empty if no valid move is found.
+   */
+  @Override
+  public Optional<Coordinate> chooseCoordinate(ReversiModel model, CellModel.CellStatus player) {
+    return this.chooseCoordinate(model, player, Deadline.none());
+  }
+
+  /**
+   * Chooses the move the deepest search finished before the deadline found best for the
+   * player. If the deadline passes before even the first iteration finishes, the move is the
+   * best of the root moves searched so far, or the first legal move.
+   *
+   * @param model    The ReversiModel representing the current state of the game.
+   * @param player   The player making the move.
+   * @param deadline when the search must stop and play the best move found so far.
+   * @return An Optional containing the chosen coordinate if a move is made,
+   *         or empty if no valid move is found.
+   */
+  @Override
+  public Optional<Coordinate> chooseCoordinate(ReversiModel model, CellModel.CellStatus player,
+                                               Deadline deadline) {
+    long start = System.nanoTime();
+    HexPosition root = HexPosition.of(model, player);
+    int cellCount = root.getTopology().getCellCount();
+    if (this.workers == null || this.workers[0].rootMoves.length != cellCount) {
+      this.workers = new Worker[this.threads];
+      for (int id = 0; id < this.threads; id++) {
+        this.workers[id] = new Worker(id, root);
+      }
+    }
+    this.deadline = deadline;
+    this.stopped = deadline.isExpired();
+    long budget = Math.max(1, this.maxNodes / this.threads);
+    for (Worker worker : this.workers) {
+      worker.reset(root, budget);
+    }
+
+    int best;
+    if (this.workers[0].count <= 1) {
+      best = this.workers[0].count == 0 ? -1 : this.workers[0].rootMoves[0];
+    } else {
+      List<Future<?>> running = new ArrayList<Future<?>>();
+      for (int id = 1; id < this.threads; id++) {
+        running.add(SearchThreads.submit(this.workers[id]));
+      }
+      this.workers[0].run();
+      this.stopped = true;
+      for (Future<?> helper : running) {
+        try {
+          helper.get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+          throw new IllegalStateException("Search thread failed", e.getCause());
+        }
+      }
+      Worker deepest = this.workers[0];
+      for (Worker worker : this.workers) {
+        if (worker.depthReached > deepest.depthReached) {
+          deepest = worker;
+        }
+      }
+      best = deepest.rootMoves[0];
+    }
+
+    this.nodes = 0;
+    this.depthReached = 0;
+    for (Worker worker : this.workers) {
+      this.nodes += worker.nodes;
+      this.depthReached = Math.max(this.depthReached, worker.depthReached);
+    }
+    this.elapsedNanos = System.nanoTime() - start;
+    if (best < 0) {
+      return Optional.empty();
+    }
+    return Optional.of(root.coordinate(best));
+  }
+
+  /**
+   * Predicts the move from the best move the transposition table remembers for the position.
+   * After a search, the table holds the best reply the search found to each of the moves it
+   * looked at, so this is the reply the search expected, found without searching again.
+   *
+   * @param model  The ReversiModel representing the current state of the game.
+   * @param player The player whose move is predicted.
+   * @return An Optional containing the remembered best move, or empty if the table has none
+   *         for the position.
+   */
+  @Override
+  public Optional<Coordinate> predictCoordinate(ReversiModel model,
+                                                CellModel.CellStatus player) {
+    HexPosition position = HexPosition.of(model, player);
+    long entry = this.table.probe(position.getHash());
+    if (entry == TranspositionTable.MISS) {
+      return Optional.empty();
+    }
+    int move = TranspositionTable.move(entry);
+    // a different position with the same slot and check bits could hold any move, so check it
+    if (move < 0 || move >= position.getTopology().getCellCount()
+            || !position.isLegal(move, position.getTurn())) {
+      return Optional.empty();
+    }
+    return Optional.of(position.coordinate(move));
+  }
+
+  /**
+   * Scores a finished game for the player to move: a win or loss outweighs any evaluation, and
+   * bigger wins score higher.
+   *
+   * @param position a position neither player can move in.
+   * @return the score of the game for the player to move.
+   */
+  static int finalScore(HexPosition position) {
+    int player = position.getTurn();
+    int difference = position.getCount(player) - position.getCount(HexPosition.opponent(player));
+    if (difference > 0) {
+      return WIN + difference;
+    } else if (difference < 0) {
+      return -WIN + difference;
+    }
+    return 0;
+  }
+
+  /**
+   * Returns how many positions the last search visited, across all threads.
+   *
+   * @return the number of nodes searched for the last move.
+   */
+  public long getNodes() {
+    return this.nodes;
+  }
+
+  /**
+   * Returns how fast the last search visited positions, across all threads.
+   *
+   * @return the number of nodes searched per second for the last move.
+   */
+  public long getNodesPerSecond() {
+    if (this.elapsedNanos <= 0) {
+      return 0;
+    }
+    return (long) (this.nodes * (1_000_000_000.0 / this.elapsedNanos));
+  }
+
+  /**
+   * Returns the deepest iteration any thread of the last search finished.
+   *
+   * @return the depth reached for the last move, or 0 if no iteration finished.
+   */
+  public int getDepthReached() {
+    return this.depthReached;
+  }
+
+  /**
+   * Returns how many threads the search runs on.
+   *
+   * @return the number of search threads.
+   */
+  public int getThreads() {
+    return this.threads;
+  }
+
+  /**
+   * Returns the transposition table the search remembers positions in.
+   *
+   * @return the search's table.
+   */
+  public TranspositionTable getTable() {
+    return this.table;
+  }
+
+  /**
+   * One thread's share of the search, with its own copy of the position, move buffers and node
+   * count.
+   */
+  private final class Worker implements Runnable {
+
+    private final int id;
+    private final HexPosition position;
+    private final int[] rootMoves;
+    private final int[][] moveBuffers;
+    private int count;
+    private long budget;
+    private long nodes;
+    private int depthReached;
+
+    /**
+     * Constructs a worker for positions the size of the given one.
+     *
+     * @param id   0 for the worker on the calling thread, and a different number for each helper.
+     * @param root a position of the size to search.
+     */
+    Worker(int id, HexPosition root) {
+      this.id = id;
+      this.position = new HexPosition(root);
+      AlphaBetaSearch.this.evaluator.attach(this.position);
+      int cellCount = root.getTopology().getCellCount();
+      this.rootMoves = new int[cellCount];
+      // two passes in a row end the game, so a line is never more than twice the depth long
+      this.moveBuffers = new int[(AlphaBetaSearch.this.maxDepth * 2) + 2][cellCount];
+    }
+
+    /**
+     * Gets ready to search a new position, finding its moves and rotating them so that each
+     * helper starts with a different one.
+     *
+     * @param root   the position to search.
+     * @param budget how many positions this worker may search.
+     */
+    void reset(HexPosition root, long budget) {
+      this.position.copyFrom(root);
+      this.budget = budget;
+      this.nodes = 0;
+      this.depthReached = 0;
+      int[] moves = this.moveBuffers[0];
+      this.count = this.position.legalMoves(this.position.getTurn(), moves);
+      for (int index = 0; index < this.count; index++) {
+        this.rootMoves[index] = moves[(index + this.id) % this.count];
+      }
+    }
+
+    /**
+     * Deepens the search of the root moves one ply at a time until the maximum depth, the end
+     * of the game, the node budget, the deadline or another thread finishing stops it. The best
+     * move is left at the front of the root moves.
+     */
+    @Override
+    public void run() {
+      HexPosition position = this.position;
+      long hash = position.getHash();
+      int lastDepth = Math.min(AlphaBetaSearch.this.maxDepth, position.getBlankCount());
+      for (int depth = 1 + (this.id & 1); depth <= lastDepth; depth++) {
+        int alpha = -INFINITY;
+        int bestIndex = -1;
+        for (int index = 0; index < this.count; index++) {
+          position.play(this.rootMoves[index]);
+          int score = -this.negamax(depth - 1, -INFINITY, -alpha, 1);
+          position.undo();
+          if (AlphaBetaSearch.this.stopped || this.nodes >= this.budget) {
+            break;
+          }
+          if (score > alpha) {
+            alpha = score;
+            bestIndex = index;
+          }
+        }
+        if (bestIndex >= 0) {
+          // a move that beat the previous best is kept even when the iteration was cut short
+          int bestMove = this.rootMoves[bestIndex];
+          System.arraycopy(this.rootMoves, 0, this.rootMoves, 1, bestIndex);
+          this.rootMoves[0] = bestMove;
+        }
+        if (AlphaBetaSearch.this.stopped || this.nodes >= this.budget) {
+          break;
+        }
+        this.depthReached = depth;
+        AlphaBetaSearch.this.table.store(hash, depth, TranspositionTable.EXACT, alpha,
+                this.rootMoves[0]);
+        if (Math.abs(alpha) >= WIN) {
+          break;
+        }
+      }
+    }
+
+    /**
+     * Scores the current position for the player to move by searching the given number of plies
+     * ahead.
+     *
+     * @param depth how many more plies to search.
+     * @param alpha the score the player to move is already sure of.
+     * @param beta  the score the opponent is already sure of holding the player to.
+     * @param ply   how far the position is from the root, used to pick a move buffer.
+     * @return the score of the position, or 0 if the search was stopped.
+     */
+    private int negamax(int depth, int alpha, int beta, int ply) {
+      this.nodes++;
+      if (this.nodes % DEADLINE_CHECK_INTERVAL == 0 && AlphaBetaSearch.this.deadline.isExpired()) {
+        // every worker sees the flag, so one look at the clock stops the whole search
+        AlphaBetaSearch.this.stopped = true;
+      }
+      if (this.nodes >= this.budget || AlphaBetaSearch.this.stopped) {
+        return 0;
+      }
+      HexPosition position = this.position;
+      if (position.getBlankCount() == 0) {
+        return finalScore(position);
+      }
+
+      TranspositionTable table = AlphaBetaSearch.this.table;
+      long hash = position.getHash();
+      int ttMove = -1;
+      long entry = table.probe(hash);
+      if (entry != TranspositionTable.MISS) {
+        ttMove = TranspositionTable.move(entry);
+        if (TranspositionTable.depth(entry) >= depth) {
+          int score = TranspositionTable.score(entry);
+          int bound = TranspositionTable.bound(entry);
+          if (bound == TranspositionTable.EXACT
+                  || (bound == TranspositionTable.LOWER && score >= beta)
+                  || (bound == TranspositionTable.UPPER && score <= alpha)) {
+            return score;
+          }
+        }
+      }
+      if (depth == 0) {
+        return AlphaBetaSearch.this.evaluator.evaluate(position);
+      }
+
+      int player = position.getTurn();
+      int[] moves = this.moveBuffers[ply];
+      int count = position.legalMoves(player, moves);
+      if (count == 0) {
+        if (!position.hasMoves(HexPosition.opponent(player))) {
+          return finalScore(position);
+        }
+        position.pass();
+        int score = -this.negamax(depth, -beta, -alpha, ply + 1);
+        position.undo();
+        return score;
+      }
+      for (int index = 1; index < count; index++) {
+        if (moves[index] == ttMove) {
+          moves[index] = moves[0];
+          moves[0] = ttMove;
+          break;
+        }
+      }
+
+      int alphaBefore = alpha;
+      int best = -INFINITY;
+      int bestMove = moves[0];
+      for (int index = 0; index < count; index++) {
+        position.play(moves[index]);
+        int score = -this.negamax(depth - 1, -beta, -alpha, ply + 1);
+        position.undo();
+        if (this.nodes >= this.budget || AlphaBetaSearch.this.stopped) {
+          return 0;
+        }
+        if (score > best) {
+          best = score;
+          bestMove = moves[index];
+          if (score > alpha) {
+            alpha = score;
+            if (alpha >= beta) {
+              break;
+            }
+          }
+        }
+      }
+      int bound = best <= alphaBefore ? TranspositionTable.UPPER
+              : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+      table.store(hash, depth, bound, best, bestMove);
+      return best;
+    }
+  }
+}
@@ -1,11 +1,11 @@
 package strategy;
 
-import java.util.List;
 import java.util.Optional;
 
-import model.Cell;
+import model.CellClassification;
 import model.CellModel;
 import model.Coordinate;
+import model.MoveList;
 import model.ReversiModel;
 
 /**
@@ -38,18 +38,30 @@ public class AvoidCornerAdjacent implements ReversiStrategy {
    */
   @Override
   public Optional<Coordinate> chooseCoordinate(ReversiModel model, CellModel.CellStatus player) {
-    for (List<Cell> row : model.getBoard()) {
-      for (Cell cell : row) {
-
-        if (!(isAdjacentToCorner(cell.getCoordinate(), model))) {
-          if (model.playADisc(cell, player, false)) {
+    return this.chooseCoordinate(model, player, Deadline.none());
+  }
 
-            return Optional.of(cell.getCoordinate());
-          }
-        }
+  /**
+   * Chooses a coordinate the same way, passing the deadline on to the backup plan.
+   *
+   * @param model    The ReversiModel representing the current state of the game.
+   * @param player   The player making the move.
+   * @param deadline when the backup plan must stop looking for a better move.
+   * @return An Optional containing the chosen coordinate if a move is made,
+   *         or empty if no valid move is found.
+   */
+  @Override
+  public Optional<Coordinate> chooseCoordinate(ReversiModel model, CellModel.CellStatus player,
+                                               Deadline deadline) {
+    MoveList moves = new MoveList();
+    model.findLegalMoves(player, moves);
+    for (int move = 0; move < moves.size(); move++) {
+      Coordinate coordinate = moves.coordinate(move);
+      if (!(isAdjacentToCorner(coordinate, model))) {
+        return Optional.of(coordinate);
       }
     }
-    return backupPlan.chooseCoordinate(model, player);
+    return backupPlan.chooseCoordinate(model, player, deadline);
   }
 
   /**
@@ -60,31 +72,7 @@ public class AvoidCornerAdjacent implements ReversiStrategy {
    * @return true if the coordinate is adjacent to any corner, false otherwise
    */
   private boolean isAdjacentToCorner(Coordinate move, ReversiModel model) {
-    for (Coordinate corner : model.getCorners()) {
-      if (isNeighbor(move, corner)) {
-        return true;
-      }
-    }
-    return false;
+    return model.getCellClassification().isPacked(CellClassification.CORNER_ADJACENT,
+            move.pack());
   }
-
-  /**
-   * Checks if two coordinates are neighbors in the hexagonal grid.
-   *
-   * @param a the first coordinate
-   * @param b the second coordinate
-   * @return true if the coordinates are neighbors, false otherwise
-   */
-  private boolean isNeighbor(Coordinate a, Coordinate b) {
-
-    int diffQ = Math.abs(a.q - b.q);
-    int diffR = Math.abs(a.r - b.r);
-    int diffS = Math.abs(a.s - b.s);
-
-    return (diffQ + diffR + diffS == 2);
-  }
-
-
 }
-
-
@@ -1,11 +1,10 @@
 package strategy;
 
-import java.util.List;
 import java.util.Optional;
 
-import model.Cell;
 import model.CellModel;
 import model.Coordinate;
+import model.MoveList;
 import model.ReversiModel;
 
 /**
@@ -26,21 +25,19 @@ public class CaptureMost implements ReversiStrategy {
    */
   @Override
   public Optional<Coordinate> chooseCoordinate(ReversiModel model, CellModel.CellStatus player) {
-    Cell bestCell = null;
+    MoveList moves = new MoveList();
+    model.findLegalMoves(player, moves);
+    int bestMove = -1;
     int mostFlipped = 0;
-    for (List<Cell> row : model.getBoard()) {
-      for (Cell cell : row) {
-        if (model.playADisc(cell, player, false)) {
-          if (mostFlipped < model.getLastTurnTilesFlipped()) {
-            bestCell = cell;
-            mostFlipped = model.getLastTurnTilesFlipped();
-          }
-        }
+    for (int move = 0; move < moves.size(); move++) {
+      if (mostFlipped < moves.flips(move)) {
+        bestMove = move;
+        mostFlipped = moves.flips(move);
       }
     }
-    if (bestCell != null) {
-      return Optional.of(bestCell.getCoordinate());
+    if (bestMove >= 0) {
+      return Optional.of(moves.coordinate(bestMove));
     }
     return Optional.empty();
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package strategy;
+
+/**
+ * The time a strategy has to choose its move. A searching strategy checks its deadline now and
+ * then while it searches, and once the deadline has passed it stops and plays the best move it
+ * has found so far. A deadline can also be cancelled from another thread, which stops the search
+ * the same way however much time is left.
+ *
+ * <p>Deadlines are measured with System.nanoTime, so they are not thrown off by changes to the
+ * wall clock.
+ */
+public final class Deadline {
+
+  private final long expiry;
+  private final boolean bounded;
+  private volatile boolean cancelled;
+
+  /**
+   * Constructs a deadline.
+   *
+   * @param expiry  the System.nanoTime at which the deadline passes.
+   * @param bounded false if the deadline never passes unless it is cancelled.
+   */
+  private Deadline(long expiry, boolean bounded) {
+    this.expiry = expiry;
+    this.bounded = bounded;
+  }
+
+  /**
+   * Returns a deadline that passes the given number of milliseconds from now.
+   *
+   * @param millis how long until the deadline passes.
+   * @return the new deadline.
+   * @throws IllegalArgumentException if the time is negative
+   */
+  public static Deadline in(long millis) {
+    if (millis < 0) {
+      throw new IllegalArgumentException("Time budget cannot be negative");
+    }
+    return new Deadline(System.nanoTime() + (millis * 1_000_000L), true);
+  }
+
+  /**
+   * Returns a deadline that only passes if it is cancelled, for strategies given no time limit.
+   *
+   * @return the new deadline.
+   */
+  public static Deadline none() {
+    return new Deadline(0, false);
+  }
+
+  /**
+   * Determines if the deadline has passed or been cancelled, which is when a search should stop.
+   *
+   * @return true if the strategy is out of time.
+   */
+  public boolean isExpired() {
+    return this.cancelled || (this.bounded && System.nanoTime() - this.expiry >= 0);
+  }
+
+  /**
+   * Cancels the deadline, so that it has passed from now on. Safe to call from any thread.
+   */
+  public void cancel() {
+    this.cancelled = true;
+  }
+
+  /**
+   * Determines if the deadline was cancelled rather than running out.
+   *
+   * @return true if cancel has been called.
+   */
+  public boolean isCancelled() {
+    return this.cancelled;
+  }
+
+  /**
+   * Determines if the deadline passes at a set time.
+   *
+   * @return false if only cancelling it makes it pass.
+   */
+  public boolean isBounded() {
+    return this.bounded;
+  }
+
+  /**
+   * Returns how long is left until the deadline passes.
+   *
+   * @return the nanoseconds left, 0 if the deadline has passed, or Long.MAX_VALUE if it is not
+   *         bounded and has not been cancelled.
+   */
+  public long remainingNanos() {
+    if (this.cancelled) {
+      return 0;
+    }
+    if (!this.bounded) {
+      return Long.MAX_VALUE;
+    }
+    return Math.max(0, this.expiry - System.nanoTime());
+  }
+}
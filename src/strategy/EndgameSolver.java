@@ -0,0 +1,378 @@
+package strategy;
+
+import java.util.Optional;
+
+import model.BoardTopology;
+import model.CellModel;
+import model.Coordinate;
+import model.HexPosition;
+import model.ReversiModel;
+
+/**
+ * A Reversi strategy that plays the end of the game perfectly. Once only a few blank cells are
+ * left, it searches every line of play to the end of the game and chooses the move that finishes
+ * with the best disc differential. Until then, and whenever the search runs out of time, it
+ * falls back to a backup plan. Given a Deadline, the solver takes at most half of the time left,
+ * so that the backup plan still has time to search if the solve does not finish.
+ *
+ * <p>Moves that leave the opponent the fewest replies are searched first (fastest-first), which
+ * finds the cut offs quickly. Near the very end, moves into regions of the board with an odd
+ * number of blank cells are searched first instead, since the player who plays last in a region
+ * usually keeps it.
+ */
+public class EndgameSolver implements ReversiStrategy {
+
+  private static final int DEFAULT_MAX_BLANKS = 12;
+  private static final long DEFAULT_TIME_CAP_MILLIS = 1000;
+
+  // below this many blank cells, ordering by parity alone is cheaper than counting replies
+  private static final int PARITY_ONLY_BLANKS = 6;
+  private static final int INFINITY = Integer.MAX_VALUE;
+
+  private final ReversiStrategy backupPlan;
+  private final int maxBlanks;
+  private final long timeCapNanos;
+
+  private HexPosition position;
+  private int[] blanks;
+  private int blankCount;
+  private int[][] moveBuffers;
+  private int[][] keyBuffers;
+  private int[] regionOf;
+  private int[] regionSize;
+  private int[] stack;
+  private int[] marks;
+  private int generation;
+  private long nodes;
+  private long deadline;
+  private Deadline moveDeadline;
+  private boolean timedOut;
+  private boolean solved;
+  private int score;
+
+  /**
+   * Constructs an EndgameSolver that solves the last 12 blank cells, for at most a second per
+   * move, and otherwise uses the given backup plan.
+   *
+   * @param backupPlan The backup strategy to use before the end of the game, or when the
+   *                   search takes too long.
+   */
+  public EndgameSolver(ReversiStrategy backupPlan) {
+    this(backupPlan, DEFAULT_MAX_BLANKS, DEFAULT_TIME_CAP_MILLIS);
+  }
+
+  /**
+   * Constructs an EndgameSolver with its own threshold and time cap.
+   *
+   * @param backupPlan    The backup strategy to use before the end of the game, or when the
+   *                      search takes too long.
+   * @param maxBlanks     the most blank cells left for the solver to take over.
+   * @param timeCapMillis how long the solver may search for a single move before giving up.
+   * @throws IllegalArgumentException if the backup plan is null or the threshold or time cap is
+   *                                  not positive
+   */
+  public EndgameSolver(ReversiStrategy backupPlan, int maxBlanks, long timeCapMillis) {
+    if (backupPlan == null) {
+      throw new IllegalArgumentException("Backup plan cannot be null");
+    }
+    if (maxBlanks < 1 || timeCapMillis < 1) {
+      throw new IllegalArgumentException("Blank threshold and time cap must be positive");
+    }
+    this.backupPlan = backupPlan;
+    this.maxBlanks = maxBlanks;
+    this.timeCapNanos = timeCapMillis * 1_000_000L;
+  }
+
+  /**
+   * Chooses the move with the best final disc differential when few enough blank cells are
+   * left, and otherwise the move of the backup plan.
+   *
+   * @param model  The ReversiModel representing the current state of the game.
+   * @param player The player making the move.
+   * @return An Optional containing the chosen coordinate if a move is made,
+   *         or empty if no valid move is found.
+   */
+  @Override
+  public Optional<Coordinate> chooseCoordinate(ReversiModel model, CellModel.CellStatus player) {
+    return this.chooseCoordinate(model, player, Deadline.none());
+  }
+
+  /**
+   * Chooses the move with the best final disc differential when few enough blank cells are
+   * left and the solve finishes in time, and otherwise the move the backup plan finds before
+   * the deadline.
+   *
+   * @param model    The ReversiModel representing the current state of the game.
+   * @param player   The player making the move.
+   * @param deadline when the move must be chosen by.
+   * @return An Optional containing the chosen coordinate if a move is made,
+   *         or empty if no valid move is found.
+   */
+  @Override
+  public Optional<Coordinate> chooseCoordinate(ReversiModel model, CellModel.CellStatus player,
+                                               Deadline deadline) {
+    this.solved = false;
+    this.nodes = 0;
+    if (model.getBlankCount() > this.maxBlanks || deadline.isExpired()) {
+      return this.backupPlan.chooseCoordinate(model, player, deadline);
+    }
+    this.deadline = System.nanoTime() + Math.min(this.timeCapNanos, deadline.remainingNanos() / 2);
+    this.moveDeadline = deadline;
+    this.timedOut = false;
+    this.prepare(HexPosition.of(model, player));
+
+    int[] moves = this.moveBuffers[0];
+    int count = this.generate(this.position.getTurn(), moves);
+    if (count == 0) {
+      return this.backupPlan.chooseCoordinate(model, player, deadline);
+    }
+    this.order(moves, count, 0);
+    int alpha = -INFINITY;
+    int best = moves[0];
+    for (int index = 0; index < count; index++) {
+      this.position.play(moves[index]);
+      int result = -this.solve(-INFINITY, -alpha, 1);
+      this.position.undo();
+      if (this.timedOut) {
+        return this.backupPlan.chooseCoordinate(model, player, deadline);
+      }
+      if (result > alpha) {
+        alpha = result;
+        best = moves[index];
+      }
+    }
+    this.solved = true;
+    this.score = alpha;
+    return Optional.of(this.position.coordinate(best));
+  }
+
+  /**
+   * Predicts the move the backup plan would choose, since the solver keeps nothing of its
+   * searches to predict from.
+   *
+   * @param model  The ReversiModel representing the current state of the game.
+   * @param player The player whose move is predicted.
+   * @return An Optional containing the backup plan's prediction, or empty if it has none.
+   */
+  @Override
+  public Optional<Coordinate> predictCoordinate(ReversiModel model,
+                                                CellModel.CellStatus player) {
+    return this.backupPlan.predictCoordinate(model, player);
+  }
+
+  /**
+   * Copies the position to solve and makes room for searching it.
+   */
+  private void prepare(HexPosition root) {
+    int cellCount = root.getTopology().getCellCount();
+    if (this.position == null || this.marks.length != cellCount) {
+      this.position = new HexPosition(root);
+      this.blanks = new int[cellCount];
+      this.regionOf = new int[cellCount];
+      this.regionSize = new int[cellCount];
+      this.stack = new int[cellCount];
+      this.marks = new int[cellCount];
+      this.moveBuffers = null;
+    } else {
+      this.position.copyFrom(root);
+    }
+    this.blankCount = 0;
+    for (int cell = 0; cell < cellCount; cell++) {
+      if (root.get(cell) == HexPosition.BLANK) {
+        this.blanks[this.blankCount] = cell;
+        this.blankCount++;
+      }
+    }
+    // two passes in a row end the game, so a line is never more than twice the blanks long
+    int plies = (this.blankCount * 2) + 2;
+    if (this.moveBuffers == null || this.moveBuffers.length < plies
+            || this.moveBuffers[0].length < this.blankCount) {
+      this.moveBuffers = new int[plies][this.blankCount];
+      this.keyBuffers = new int[plies][this.blankCount];
+    }
+  }
+
+  /**
+   * Finds the exact final disc differential of the current position for the player to move.
+   *
+   * @param alpha the score the player to move is already sure of.
+   * @param beta  the score the opponent is already sure of holding the player to.
+   * @param ply   how far the position is from the root, used to pick a move buffer.
+   * @return the disc differential, or 0 if the search ran out of time.
+   */
+  private int solve(int alpha, int beta, int ply) {
+    this.nodes++;
+    if ((this.nodes & 1023) == 0
+            && (System.nanoTime() > this.deadline || this.moveDeadline.isCancelled())) {
+      this.timedOut = true;
+    }
+    if (this.timedOut) {
+      return 0;
+    }
+    HexPosition position = this.position;
+    int player = position.getTurn();
+    int[] moves = this.moveBuffers[ply];
+    int count = this.generate(player, moves);
+    if (count == 0) {
+      int opponent = HexPosition.opponent(player);
+      if (position.getBlankCount() == 0 || this.generate(opponent, moves) == 0) {
+        return position.getCount(player) - position.getCount(opponent);
+      }
+      position.pass();
+      int result = -this.solve(-beta, -alpha, ply + 1);
+      position.undo();
+      return result;
+    }
+    this.order(moves, count, ply);
+    int best = -INFINITY;
+    for (int index = 0; index < count; index++) {
+      position.play(moves[index]);
+      int result = -this.solve(-beta, -alpha, ply + 1);
+      position.undo();
+      if (this.timedOut) {
+        return 0;
+      }
+      if (result > best) {
+        best = result;
+        if (result > alpha) {
+          alpha = result;
+          if (alpha >= beta) {
+            break;
+          }
+        }
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Finds the moves of a player among the cells that were blank when the search started.
+   *
+   * @param color WHITE or BLACK.
+   * @param moves where to write the moves.
+   * @return how many moves were written.
+   */
+  private int generate(int color, int[] moves) {
+    int count = 0;
+    for (int index = 0; index < this.blankCount; index++) {
+      int cell = this.blanks[index];
+      if (this.position.isLegal(cell, color)) {
+        moves[count] = cell;
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Sorts moves so that the most promising are searched first: moves into regions with an odd
+   * number of blank cells, and while there are plenty of blank cells, moves that leave the
+   * opponent the fewest replies ahead of those.
+   *
+   * @param moves the moves to sort.
+   * @param count how many moves there are.
+   * @param ply   how far the position is from the root, used to pick a key buffer.
+   */
+  private void order(int[] moves, int count, int ply) {
+    if (count < 2) {
+      return;
+    }
+    HexPosition position = this.position;
+    this.findRegions();
+    boolean countReplies = position.getBlankCount() > PARITY_ONLY_BLANKS;
+    int[] keys = this.keyBuffers[ply];
+    int opponent = HexPosition.opponent(position.getTurn());
+    for (int index = 0; index < count; index++) {
+      int cell = moves[index];
+      int key = (this.regionSize[this.regionOf[cell]] & 1) == 1 ? 0 : 1;
+      if (countReplies) {
+        position.play(cell);
+        int replies = 0;
+        for (int blank = 0; blank < this.blankCount; blank++) {
+          if (position.isLegal(this.blanks[blank], opponent)) {
+            replies++;
+          }
+        }
+        position.undo();
+        key += replies * 2;
+      }
+      keys[index] = key;
+    }
+    // insertion sort, since there are only ever a handful of moves this late in the game
+    for (int index = 1; index < count; index++) {
+      int move = moves[index];
+      int key = keys[index];
+      int slot = index - 1;
+      while (slot >= 0 && keys[slot] > key) {
+        moves[slot + 1] = moves[slot];
+        keys[slot + 1] = keys[slot];
+        slot--;
+      }
+      moves[slot + 1] = move;
+      keys[slot + 1] = key;
+    }
+  }
+
+  /**
+   * Splits the blank cells into regions of cells touching each other, recording the region of
+   * every blank cell and the size of every region.
+   */
+  private void findRegions() {
+    HexPosition position = this.position;
+    BoardTopology topology = position.getTopology();
+    this.generation++;
+    int regions = 0;
+    for (int index = 0; index < this.blankCount; index++) {
+      int start = this.blanks[index];
+      if (position.get(start) != HexPosition.BLANK || this.marks[start] == this.generation) {
+        continue;
+      }
+      int size = 0;
+      int top = 0;
+      this.stack[top++] = start;
+      this.marks[start] = this.generation;
+      while (top > 0) {
+        int cell = this.stack[--top];
+        this.regionOf[cell] = regions;
+        size++;
+        for (int dir = 0; dir < BoardTopology.DIRECTIONS; dir++) {
+          int next = topology.neighbour(cell, dir);
+          if (next >= 0 && position.get(next) == HexPosition.BLANK
+                  && this.marks[next] != this.generation) {
+            this.marks[next] = this.generation;
+            this.stack[top++] = next;
+          }
+        }
+      }
+      this.regionSize[regions] = size;
+      regions++;
+    }
+  }
+
+  /**
+   * Determines if the solver chose the last move, rather than the backup plan.
+   *
+   * @return true if the last move was solved.
+   */
+  public boolean wasSolved() {
+    return this.solved;
+  }
+
+  /**
+   * Returns the final disc differential the solver proved for the last move it solved.
+   *
+   * @return how many more discs the player will finish with than the opponent, with best play.
+   */
+  public int getScore() {
+    return this.score;
+  }
+
+  /**
+   * Returns how many positions the last solve visited.
+   *
+   * @return the number of nodes searched for the last move.
+   */
+  public long getNodes() {
+    return this.nodes;
+  }
+}
@@ -0,0 +1,29 @@
+package strategy;
+
+import model.HexPosition;
+
+/**
+ * An Evaluator scores positions for the searching strategies, estimating how good a position
+ * that is not yet over is for the player to move. Higher scores are better for that player, and
+ * the score of a position for one player should be the negation of its score for the other.
+ */
+public interface Evaluator {
+
+  /**
+   * Scores a position from the point of view of the player to move.
+   *
+   * @param position the position to score, which must be left as it was found.
+   * @return the score of the position for the player to move.
+   */
+  int evaluate(HexPosition position);
+
+  /**
+   * Gets ready to score a position that a search will make and take back moves on, for
+   * evaluators that keep what they know about a position up to date move by move rather than
+   * reading the whole board each time. By default it does nothing.
+   *
+   * @param position the position the search runs on.
+   */
+  default void attach(HexPosition position) {
+  }
+}
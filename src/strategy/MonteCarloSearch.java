@@ -0,0 +1,484 @@
+package strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import model.CellModel;
+import model.Coordinate;
+import model.HexPosition;
+import model.ReversiModel;
+
+/**
+ * A Reversi strategy that chooses moves by Monte Carlo tree search. Each playout walks down a
+ * tree of moves from the current position, choosing at every step the move with the best upper
+ * confidence bound (UCT), adds one new position to the tree, then plays random moves to the end
+ * of the game and records who won in every position it passed. The move played is the one tried
+ * most often. When a Deadline passes, no more playouts are started and the move tried most often
+ * so far is played.
+ *
+ * <p>Playouts can run on several threads that share one tree. A thread walking down the tree
+ * counts a visit to every position it passes before it knows the result, a virtual loss, which
+ * steers the other threads onto different moves until the result comes in. The tree is kept in
+ * preallocated arrays updated with atomic operations, and the random games are played on each
+ * thread's own HexPosition, so playouts do not allocate or lock.
+ */
+public class MonteCarloSearch implements ReversiStrategy {
+
+  private static final int DEFAULT_TREE_SIZE = 1 << 18;
+  private static final double DEFAULT_EXPLORATION = 1.4;
+
+  // the states a position in the tree goes through, so that only one thread expands it
+  private static final int UNEXPANDED = 0;
+  private static final int EXPANDING = 1;
+  private static final int EXPANDED = 2;
+
+  private final int playouts;
+  private final int threads;
+  private final double exploration;
+  private final long seed;
+  private final int treeSize;
+
+  // the tree: the move leading to each node (-1 for a pass), where its children start and how
+  // many there are, whether it has been expanded, how often it was visited and the wins, counted
+  // in half points for the player who made the move, of the playouts through it
+  private int[] move;
+  private int[] firstChild;
+  private int[] childCount;
+  private AtomicIntegerArray state;
+  private AtomicIntegerArray visits;
+  private AtomicLongArray wins;
+  private final AtomicInteger nodeCount;
+  private final AtomicLong playoutsStarted;
+
+  private Worker[] workers;
+  private HexPosition root;
+  private Deadline deadline;
+  private long playoutsDone;
+  private long elapsedNanos;
+
+  /**
+   * Constructs a search that runs the given number of playouts for every move on one thread.
+   *
+   * @param playouts how many playouts to run for each move.
+   * @throws IllegalArgumentException if the number of playouts is not positive
+   */
+  public MonteCarloSearch(int playouts) {
+    this(playouts, 1);
+  }
+
+  /**
+   * Constructs a search that runs the given number of playouts for every move, shared between
+   * the given number of threads.
+   *
+   * @param playouts how many playouts to run for each move.
+   * @param threads  how many threads to run the playouts on.
+   * @throws IllegalArgumentException if the number of playouts or threads is not positive
+   */
+  public MonteCarloSearch(int playouts, int threads) {
+    this(playouts, threads, DEFAULT_EXPLORATION, 0L, DEFAULT_TREE_SIZE);
+  }
+
+  /**
+   * Constructs a search with its own exploration constant, random seed and tree size.
+   *
+   * @param playouts    how many playouts to run for each move.
+   * @param threads     how many threads to run the playouts on.
+   * @param exploration how strongly to favour moves that have been tried less often.
+   * @param seed        the seed of the random moves, so a single threaded search can be
+   *                    repeated exactly.
+   * @param treeSize    the most positions the tree can hold; once it is full, playouts carry on
+   *                    without growing it.
+   * @throws IllegalArgumentException if the number of playouts, threads or tree positions is not
+   *                                  positive, or the exploration constant is negative
+   */
+  public MonteCarloSearch(int playouts, int threads, double exploration, long seed,
+                          int treeSize) {
+    if (playouts < 1 || threads < 1 || treeSize < 1) {
+      throw new IllegalArgumentException("Playouts, threads and tree size must be positive");
+    }
+    if (!(exploration >= 0)) {
+      throw new IllegalArgumentException("Exploration cannot be negative");
+    }
+    this.playouts = playouts;
+    this.threads = threads;
+    this.exploration = exploration;
+    this.seed = seed;
+    this.treeSize = treeSize;
+    this.nodeCount = new AtomicInteger();
+    this.playoutsStarted = new AtomicLong();
+  }
+
+  /**
+   * Chooses the move that the playouts tried most often for the player.
+   *
+   * @param model  The ReversiModel representing the current state of the game.
+   * @param player The player making the move.
+   * @return An Optional containing the chosen coordinate if a move is made,
+   *         or empty if no valid move is found.
+   */
+  @Override
+  public Optional<Coordinate> chooseCoordinate(ReversiModel model, CellModel.CellStatus player) {
+    return this.chooseCoordinate(model, player, Deadline.none());
+  }
+
+  /**
+   * Chooses the move that the playouts run before the deadline tried most often for the player,
+   * or the first legal move if the deadline passed before any playout finished.
+   *
+   * @param model    The ReversiModel representing the current state of the game.
+   * @param player   The player making the move.
+   * @param deadline when to stop starting new playouts.
+   * @return An Optional containing the chosen coordinate if a move is made,
+   *         or empty if no valid move is found.
+   */
+  @Override
+  public Optional<Coordinate> chooseCoordinate(ReversiModel model, CellModel.CellStatus player,
+                                               Deadline deadline) {
+    long start = System.nanoTime();
+    HexPosition root = HexPosition.of(model, player);
+    this.root = null;
+    if (!root.hasMoves(root.getTurn())) {
+      this.playoutsDone = 0;
+      this.elapsedNanos = System.nanoTime() - start;
+      return Optional.empty();
+    }
+    if (this.move == null) {
+      this.move = new int[this.treeSize];
+      this.firstChild = new int[this.treeSize];
+      this.childCount = new int[this.treeSize];
+      this.state = new AtomicIntegerArray(this.treeSize);
+      this.visits = new AtomicIntegerArray(this.treeSize);
+      this.wins = new AtomicLongArray(this.treeSize);
+    }
+    int cellCount = root.getTopology().getCellCount();
+    if (this.workers == null || this.workers[0].moves.length != cellCount) {
+      this.workers = new Worker[this.threads];
+      for (int id = 0; id < this.threads; id++) {
+        this.workers[id] = new Worker(root, this.seed + id);
+      }
+    }
+    this.move[0] = -1;
+    this.state.set(0, UNEXPANDED);
+    this.visits.set(0, 0);
+    this.wins.set(0, 0);
+    this.nodeCount.set(1);
+    this.playoutsStarted.set(0);
+    this.deadline = deadline;
+
+    List<Future<?>> running = new ArrayList<Future<?>>();
+    for (int id = 1; id < this.threads; id++) {
+      this.workers[id].root = root;
+      running.add(SearchThreads.submit(this.workers[id]));
+    }
+    this.workers[0].root = root;
+    this.workers[0].run();
+    for (Future<?> helper : running) {
+      try {
+        helper.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("Playout thread failed", e.getCause());
+      }
+    }
+
+    int best = -1;
+    int mostVisits = -1;
+    for (int child = this.firstChild[0]; child < this.firstChild[0] + this.childCount[0];
+         child++) {
+      if (this.visits.get(child) > mostVisits) {
+        mostVisits = this.visits.get(child);
+        best = this.move[child];
+      }
+    }
+    if (best < 0) {
+      // the tree was too small to hold the moves from the root, so play the first legal one
+      root.legalMoves(root.getTurn(), this.workers[0].moves);
+      best = this.workers[0].moves[0];
+    }
+    this.root = root;
+    // every playout counts a visit to the root before it starts, and all of them have finished
+    this.playoutsDone = this.visits.get(0);
+    this.elapsedNanos = System.nanoTime() - start;
+    return Optional.of(root.coordinate(best));
+  }
+
+  /**
+   * Predicts the move from the tree of the last search, when the position is one of the
+   * positions the moves from its root lead to: the move the playouts tried most often from
+   * there, found without running any more of them.
+   *
+   * @param model  The ReversiModel representing the current state of the game.
+   * @param player The player whose move is predicted.
+   * @return An Optional containing the move tried most often, or empty if the last search's
+   *         tree does not reach the position or tried no move in it.
+   */
+  @Override
+  public Optional<Coordinate> predictCoordinate(ReversiModel model,
+                                                CellModel.CellStatus player) {
+    if (this.root == null) {
+      return Optional.empty();
+    }
+    HexPosition position = HexPosition.of(model, player);
+    HexPosition child = new HexPosition(this.root);
+    for (int node = this.firstChild[0]; node < this.firstChild[0] + this.childCount[0];
+         node++) {
+      if (this.move[node] < 0) {
+        child.pass();
+      } else {
+        child.play(this.move[node]);
+      }
+      boolean found = child.getHash() == position.getHash()
+              && child.getTurn() == position.getTurn();
+      child.undo();
+      if (found) {
+        int best = -1;
+        int mostVisits = 0;
+        if (this.state.get(node) == EXPANDED) {
+          for (int reply = this.firstChild[node];
+               reply < this.firstChild[node] + this.childCount[node]; reply++) {
+            if (this.visits.get(reply) > mostVisits) {
+              mostVisits = this.visits.get(reply);
+              best = this.move[reply];
+            }
+          }
+        }
+        return best < 0 ? Optional.empty() : Optional.of(position.coordinate(best));
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Returns how many playouts the last search ran.
+   *
+   * @return the number of playouts run for the last move.
+   */
+  public long getPlayouts() {
+    return this.playoutsDone;
+  }
+
+  /**
+   * Returns how fast the last search ran playouts, across all threads.
+   *
+   * @return the number of playouts run per second for the last move.
+   */
+  public long getPlayoutsPerSecond() {
+    if (this.elapsedNanos <= 0) {
+      return 0;
+    }
+    return (long) (this.playoutsDone * (1_000_000_000.0 / this.elapsedNanos));
+  }
+
+  /**
+   * Returns how many positions the tree of the last search grew to.
+   *
+   * @return the number of positions in the tree.
+   */
+  public int getTreeSize() {
+    return Math.min(this.nodeCount.get(), this.treeSize);
+  }
+
+  /**
+   * Returns how many threads the playouts run on.
+   *
+   * @return the number of playout threads.
+   */
+  public int getThreads() {
+    return this.threads;
+  }
+
+  /**
+   * One thread's share of the playouts, with its own copy of the position, buffers and random
+   * numbers.
+   */
+  private final class Worker implements Runnable {
+
+    private final HexPosition position;
+    private final int[] moves;
+    private final int[] path;
+    private final int[] movers;
+    private long random;
+    private HexPosition root;
+
+    /**
+     * Constructs a worker for positions the size of the given one.
+     *
+     * @param root a position of the size to search.
+     * @param seed the seed of the worker's random moves.
+     */
+    Worker(HexPosition root, long seed) {
+      this.position = new HexPosition(root);
+      int cellCount = root.getTopology().getCellCount();
+      this.moves = new int[cellCount];
+      this.path = new int[(cellCount * 2) + 2];
+      this.movers = new int[this.path.length];
+      this.random = seed ^ 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Runs playouts until the search has started as many as it was asked for or the deadline
+     * passes.
+     */
+    @Override
+    public void run() {
+      MonteCarloSearch search = MonteCarloSearch.this;
+      while (!search.deadline.isExpired()
+              && search.playoutsStarted.getAndIncrement() < search.playouts) {
+        this.playout();
+      }
+    }
+
+    /**
+     * Walks down the tree to a new position, plays a random game from it and records the result
+     * in every position on the way.
+     */
+    private void playout() {
+      MonteCarloSearch search = MonteCarloSearch.this;
+      HexPosition position = this.position;
+      position.copyFrom(this.root);
+      int node = 0;
+      int length = 0;
+      search.visits.incrementAndGet(0);
+      while (true) {
+        int state = search.state.get(node);
+        if (state == UNEXPANDED && search.state.compareAndSet(node, UNEXPANDED, EXPANDING)) {
+          this.expand(node);
+          state = EXPANDED;
+        }
+        if (state != EXPANDED || search.childCount[node] == 0) {
+          break;
+        }
+        int mover = position.getTurn();
+        node = this.select(node);
+        // the visit counts as a loss until the result comes in, keeping other threads away
+        search.visits.incrementAndGet(node);
+        this.path[length] = node;
+        this.movers[length] = mover;
+        length++;
+        if (search.move[node] < 0) {
+          position.pass();
+        } else {
+          position.play(search.move[node]);
+        }
+        if (search.visits.get(node) == 1) {
+          break;
+        }
+      }
+
+      int winner = this.rollout();
+      for (int step = 0; step < length; step++) {
+        int points = winner == HexPosition.BLANK ? 1 : winner == this.movers[step] ? 2 : 0;
+        search.wins.addAndGet(this.path[step], points);
+      }
+    }
+
+    /**
+     * Adds the moves from a position to the tree, a single pass when the player to move cannot
+     * play, or none when the game is over or the tree is full.
+     *
+     * @param node the position to expand, which this thread has claimed.
+     */
+    private void expand(int node) {
+      MonteCarloSearch search = MonteCarloSearch.this;
+      HexPosition position = this.position;
+      int player = position.getTurn();
+      int count = position.legalMoves(player, this.moves);
+      boolean pass = count == 0 && position.hasMoves(HexPosition.opponent(player));
+      int children = pass ? 1 : count;
+      // once the tree is full there is no need to claim space, which could overflow the count
+      int first = children == 0 || search.nodeCount.get() + children > search.treeSize
+              ? search.treeSize : search.nodeCount.getAndAdd(children);
+      if (children == 0 || first + children > search.treeSize) {
+        search.childCount[node] = 0;
+      } else {
+        for (int child = 0; child < children; child++) {
+          search.move[first + child] = pass ? -1 : this.moves[child];
+          search.firstChild[first + child] = 0;
+          search.childCount[first + child] = 0;
+          search.state.set(first + child, UNEXPANDED);
+          search.visits.set(first + child, 0);
+          search.wins.set(first + child, 0);
+        }
+        search.firstChild[node] = first;
+        search.childCount[node] = children;
+      }
+      // publishing the state makes the children visible to threads that read it
+      search.state.set(node, EXPANDED);
+    }
+
+    /**
+     * Chooses the child of a position with the best upper confidence bound, trying every child
+     * once before any twice.
+     *
+     * @param node an expanded position with children.
+     * @return the chosen child.
+     */
+    private int select(int node) {
+      MonteCarloSearch search = MonteCarloSearch.this;
+      double logVisits = Math.log(Math.max(1, search.visits.get(node)));
+      int first = search.firstChild[node];
+      int best = first;
+      double bestValue = Double.NEGATIVE_INFINITY;
+      for (int child = first; child < first + search.childCount[node]; child++) {
+        int childVisits = search.visits.get(child);
+        if (childVisits == 0) {
+          return child;
+        }
+        double value = (search.wins.get(child) / (2.0 * childVisits))
+                + (search.exploration * Math.sqrt(logVisits / childVisits));
+        if (value > bestValue) {
+          bestValue = value;
+          best = child;
+        }
+      }
+      return best;
+    }
+
+    /**
+     * Plays random moves from the current position until neither player can move.
+     *
+     * @return the color of the winner, or BLANK for a draw.
+     */
+    private int rollout() {
+      HexPosition position = this.position;
+      int passes = 0;
+      while (passes < 2) {
+        int count = position.legalMoves(position.getTurn(), this.moves);
+        if (count == 0) {
+          position.pass();
+          passes++;
+        } else {
+          position.play(this.moves[this.nextInt(count)]);
+          passes = 0;
+        }
+      }
+      int white = position.getCount(HexPosition.WHITE);
+      int black = position.getCount(HexPosition.BLACK);
+      if (white == black) {
+        return HexPosition.BLANK;
+      }
+      return white > black ? HexPosition.WHITE : HexPosition.BLACK;
+    }
+
+    /**
+     * Returns a random number from 0 up to the given bound, from the worker's own xorshift
+     * generator.
+     */
+    private int nextInt(int bound) {
+      long x = this.random;
+      x ^= x << 13;
+      x ^= x >>> 7;
+      x ^= x << 17;
+      this.random = x;
+      return (int) ((x >>> 33) % bound);
+    }
+  }
+}
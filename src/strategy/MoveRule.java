@@ -0,0 +1,24 @@
+package strategy;
+
+import model.CellModel;
+import model.MoveList;
+import model.ReversiModel;
+
+/**
+ * A MoveRule is one stage of a StrategyPipeline. It looks over the legal moves the pipeline has
+ * already found and either picks one of them or leaves the choice to the next stage. Rules only
+ * read the list and the game, so a whole pipeline costs a single pass over the board.
+ */
+public interface MoveRule {
+
+  /**
+   * Picks one of the legal moves of the player, or none.
+   *
+   * @param model  the game the moves were found in.
+   * @param player the player making the move.
+   * @param moves  the player's legal moves, in board order, which must not be changed.
+   * @return the position of the chosen move in the list, or -1 to leave the choice to the next
+   *         stage.
+   */
+  int choose(ReversiModel model, CellModel.CellStatus player, MoveList moves);
+}
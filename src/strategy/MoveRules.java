@@ -0,0 +1,70 @@
+package strategy;
+
+import model.CellClassification;
+
+/**
+ * The MoveRule stages that the chained strategies are made of, so that a StrategyPipeline can
+ * make the same choices as CaptureMost, PlayToCorner and AvoidCornerAdjacent chained together,
+ * while finding the legal moves only once.
+ */
+public final class MoveRules {
+
+  private MoveRules() {
+  }
+
+  /**
+   * Returns a rule that picks the move capturing the most discs, the first in board order if
+   * several capture the same number, just like CaptureMost.
+   *
+   * @return the capture most rule.
+   */
+  public static MoveRule captureMost() {
+    return (model, player, moves) -> {
+      int bestMove = -1;
+      int mostFlipped = 0;
+      for (int move = 0; move < moves.size(); move++) {
+        if (mostFlipped < moves.flips(move)) {
+          bestMove = move;
+          mostFlipped = moves.flips(move);
+        }
+      }
+      return bestMove;
+    };
+  }
+
+  /**
+   * Returns a rule that picks the first move in board order that takes a corner, just like
+   * PlayToCorner, or none if no move does.
+   *
+   * @return the corner rule.
+   */
+  public static MoveRule playToCorner() {
+    return (model, player, moves) -> {
+      CellClassification cells = model.getCellClassification();
+      for (int move = 0; move < moves.size(); move++) {
+        if (cells.isPacked(CellClassification.CORNER, moves.packedCoordinate(move))) {
+          return move;
+        }
+      }
+      return -1;
+    };
+  }
+
+  /**
+   * Returns a rule that picks the first move in board order that is not next to a corner, just
+   * like AvoidCornerAdjacent, or none if every move is.
+   *
+   * @return the corner avoiding rule.
+   */
+  public static MoveRule avoidCornerAdjacent() {
+    return (model, player, moves) -> {
+      CellClassification cells = model.getCellClassification();
+      for (int move = 0; move < moves.size(); move++) {
+        if (!cells.isPacked(CellClassification.CORNER_ADJACENT, moves.packedCoordinate(move))) {
+          return move;
+        }
+      }
+      return -1;
+    };
+  }
+}
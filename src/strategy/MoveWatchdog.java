@@ -0,0 +1,133 @@
+package strategy;
+
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import model.CellModel;
+import model.Coordinate;
+import model.ReversiModel;
+
+/**
+ * Runs strategies under a time budget per move and reports the moves that overrun it. Each move
+ * is given a Deadline at the end of its budget. If the strategy is still thinking a grace period
+ * after that, a watchdog thread reports it and cancels the deadline, so strategies that only stop
+ * when cancelled are stopped too. Every move that finishes after the grace period is counted and
+ * reported as an overrun, with how long it took.
+ *
+ * <p>A single daemon thread watches the moves of every watchdog, so watching a move costs one
+ * scheduled task and does not keep the program running.
+ */
+public final class MoveWatchdog {
+
+  private static final ScheduledExecutorService ALARMS =
+          Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "move-watchdog");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final long budgetMillis;
+  private final long graceMillis;
+  private final Consumer<String> reporter;
+  private final AtomicLong moves;
+  private final AtomicLong overruns;
+  private final AtomicLong worstNanos;
+
+  /**
+   * Constructs a watchdog that gives every move the same budget.
+   *
+   * @param budgetMillis how long a strategy has to choose each move.
+   * @param graceMillis  how far past the budget a move may run before it is an overrun.
+   * @param reporter     where to send a line describing each overrun.
+   * @throws IllegalArgumentException if the budget or grace period is negative or the reporter
+   *                                  is null
+   */
+  public MoveWatchdog(long budgetMillis, long graceMillis, Consumer<String> reporter) {
+    if (budgetMillis < 0 || graceMillis < 0) {
+      throw new IllegalArgumentException("Budget and grace period cannot be negative");
+    }
+    if (reporter == null) {
+      throw new IllegalArgumentException("Reporter cannot be null");
+    }
+    this.budgetMillis = budgetMillis;
+    this.graceMillis = graceMillis;
+    this.reporter = reporter;
+    this.moves = new AtomicLong();
+    this.overruns = new AtomicLong();
+    this.worstNanos = new AtomicLong();
+  }
+
+  /**
+   * Has a strategy choose a move within the budget, reporting it if it overruns.
+   *
+   * @param strategy the strategy choosing the move.
+   * @param model    The ReversiModel representing the current state of the game.
+   * @param player   The player for whom a move is being chosen (BLACK or WHITE).
+   * @return the move the strategy chose.
+   */
+  public Optional<Coordinate> choose(ReversiStrategy strategy, ReversiModel model,
+                                     CellModel.CellStatus player) {
+    long start = System.nanoTime();
+    Deadline deadline = Deadline.in(this.budgetMillis);
+    long limitMillis = this.budgetMillis + this.graceMillis;
+    ScheduledFuture<?> alarm = ALARMS.schedule(() -> {
+      this.reporter.accept(player + " is still choosing a move after " + limitMillis
+              + " ms, cancelling it");
+      deadline.cancel();
+    }, limitMillis, TimeUnit.MILLISECONDS);
+    try {
+      return strategy.chooseCoordinate(model, player, deadline);
+    } finally {
+      alarm.cancel(false);
+      long elapsed = System.nanoTime() - start;
+      this.moves.incrementAndGet();
+      this.worstNanos.accumulateAndGet(elapsed, Math::max);
+      if (elapsed > TimeUnit.MILLISECONDS.toNanos(limitMillis)) {
+        this.overruns.incrementAndGet();
+        this.reporter.accept(player + " took " + TimeUnit.NANOSECONDS.toMillis(elapsed)
+                + " ms to choose a move, over its budget of " + this.budgetMillis + " ms");
+      }
+    }
+  }
+
+  /**
+   * Returns how long each move may take.
+   *
+   * @return the budget per move in milliseconds.
+   */
+  public long getBudgetMillis() {
+    return this.budgetMillis;
+  }
+
+  /**
+   * Returns how many moves the watchdog has watched.
+   *
+   * @return the number of moves chosen.
+   */
+  public long getMoves() {
+    return this.moves.get();
+  }
+
+  /**
+   * Returns how many moves ran past their budget and grace period.
+   *
+   * @return the number of overruns.
+   */
+  public long getOverruns() {
+    return this.overruns.get();
+  }
+
+  /**
+   * Returns how long the slowest move took.
+   *
+   * @return the longest time taken by a move, in milliseconds.
+   */
+  public long getWorstMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(this.worstNanos.get());
+  }
+}
@@ -0,0 +1,155 @@
+package strategy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import model.CellListener;
+import model.HexPosition;
+
+/**
+ * An Evaluator that scores positions with the weights of a trained NTupleNetwork. The weights are
+ * copied into an int array, in sixteenths of a disc, when the evaluator is made, so a score is a
+ * sum of ints and stays exact however many moves are made and taken back.
+ *
+ * <p>A search position attached to the evaluator carries a listener that keeps the contents of
+ * every tuple, and the sum of their weights for every phase, up to date as discs are placed,
+ * flipped and taken back, so scoring it reads a single number. Positions that are not attached
+ * are scored by reading every tuple from the board. The evaluator itself holds no state that
+ * changes, so one evaluator can be shared by every thread of a search.
+ */
+public class NTupleEvaluator implements Evaluator {
+
+  /**
+   * How many units of score make one disc.
+   */
+  public static final int SCALE = 16;
+
+  // scores are kept well away from the scores of won and lost games
+  private static final int LIMIT = AlphaBetaSearch.WIN / 4;
+
+  private final NTupleNetwork network;
+  private final int[] weights;
+
+  /**
+   * Constructs an evaluator that scores positions with the given network's current weights.
+   *
+   * @param network the trained network.
+   * @throws IllegalArgumentException if the network is null
+   */
+  public NTupleEvaluator(NTupleNetwork network) {
+    if (network == null) {
+      throw new IllegalArgumentException("Network cannot be null");
+    }
+    this.network = network;
+    this.weights = new int[network.getWeightCount()];
+    for (int slot = 0; slot < this.weights.length; slot++) {
+      this.weights[slot] = Math.round(network.weight(slot) * SCALE);
+    }
+  }
+
+  /**
+   * Loads an evaluator from a weight file written by NTupleNetwork.save or NTupleTrainer.
+   *
+   * @param file the weight file.
+   * @return an evaluator with the file's weights.
+   * @throws IOException              if the file cannot be read
+   * @throws IllegalArgumentException if the file is not a weight file this version can read
+   */
+  public static NTupleEvaluator load(Path file) throws IOException {
+    return new NTupleEvaluator(NTupleNetwork.load(file));
+  }
+
+  @Override
+  public int evaluate(HexPosition position) {
+    int score;
+    CellListener listener = position.getListener();
+    if (listener instanceof Tracker && ((Tracker) listener).owner() == this) {
+      score = ((Tracker) listener).sums[this.network.phase(position.getBlankCount())];
+    } else {
+      int phase = this.network.phase(position.getBlankCount());
+      score = 0;
+      for (int tuple = 0; tuple < this.network.getTupleCount(); tuple++) {
+        score += this.weights[this.network.slot(phase, tuple,
+                this.network.index(tuple, position))];
+      }
+    }
+    score = Math.max(-LIMIT, Math.min(LIMIT, score));
+    return position.getTurn() == HexPosition.WHITE ? score : -score;
+  }
+
+  /**
+   * Attaches a listener to the position that keeps its tuples up to date, so that it is scored
+   * without reading the board.
+   *
+   * @param position a position the search will make and take back moves on.
+   * @throws IllegalArgumentException if the position is not the size of the network
+   */
+  @Override
+  public void attach(HexPosition position) {
+    if (position.getTopology().getSideSize() != this.network.getSideSize()) {
+      throw new IllegalArgumentException("Position is not the size of the network");
+    }
+    position.setListener(new Tracker(position));
+  }
+
+  /**
+   * Returns the network the evaluator's weights came from.
+   *
+   * @return the network.
+   */
+  public NTupleNetwork getNetwork() {
+    return this.network;
+  }
+
+  /**
+   * Keeps the contents of every tuple of one position, and the sum of their weights in every
+   * phase, up to date as its discs change.
+   */
+  private final class Tracker implements CellListener {
+
+    private final int[] indices;
+    private final int[] sums;
+
+    /**
+     * Reads every tuple of the position once.
+     *
+     * @param position the position to follow.
+     */
+    Tracker(HexPosition position) {
+      NTupleNetwork network = NTupleEvaluator.this.network;
+      this.indices = new int[network.getTupleCount()];
+      this.sums = new int[network.getPhases()];
+      for (int tuple = 0; tuple < this.indices.length; tuple++) {
+        this.indices[tuple] = network.index(tuple, position);
+        for (int phase = 0; phase < this.sums.length; phase++) {
+          this.sums[phase] += NTupleEvaluator.this.weights[network.slot(phase, tuple,
+                  this.indices[tuple])];
+        }
+      }
+    }
+
+    @Override
+    public void cellChanged(int cell, int from, int to) {
+      NTupleNetwork network = NTupleEvaluator.this.network;
+      int[] weights = NTupleEvaluator.this.weights;
+      int end = network.cellStart(cell + 1);
+      for (int entry = network.cellStart(cell); entry < end; entry++) {
+        int tuple = network.cellTuple(entry);
+        int before = this.indices[tuple];
+        int after = before + ((to - from) * network.cellPower(entry));
+        this.indices[tuple] = after;
+        for (int phase = 0; phase < this.sums.length; phase++) {
+          this.sums[phase] += weights[network.slot(phase, tuple, after)]
+                  - weights[network.slot(phase, tuple, before)];
+        }
+      }
+    }
+
+    /**
+     * Returns the evaluator whose weights are summed.
+     */
+    NTupleEvaluator owner() {
+      return NTupleEvaluator.this;
+    }
+  }
+}
@@ -0,0 +1,414 @@
+package strategy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import model.BoardTopology;
+import model.HexPosition;
+import model.HexSymmetry;
+
+/**
+ * The patterns and weights of an n-tuple evaluation for a hexagonal board of a given side size.
+ * An n-tuple is a short sequence of cells, and every way of filling it with blank, white and
+ * black discs has its own weight. The value of a position is the sum of the weights of the
+ * tuples as they are filled in that position, and estimates the final disc differential for
+ * white.
+ *
+ * <p>The tuples come in four shapes, all starting at a corner: the edge, the line of cells just
+ * inside it, the diagonal towards the center and the cells within two steps of the corner. Each
+ * shape is placed at every corner and in both directions using HexSymmetry, and all the copies
+ * of a shape share its weights. The game is split into phases by how many cells are still blank,
+ * and each phase has weights of its own.
+ *
+ * <p>Weights are kept in one float array, indexed by the phase, the shape and the contents of the
+ * tuple read as a number in base 3, with the cell values of HexPosition as its digits. A network
+ * is saved to and loaded from a versioned binary weight file: a header of five big-endian ints
+ * (the magic number, the format version, the side size, the number of phases and the number of
+ * shapes), the length of each shape, then every weight as a big-endian float.
+ */
+public final class NTupleNetwork {
+
+  /**
+   * The first int of every weight file.
+   */
+  public static final int MAGIC = 0x48584E54;
+
+  /**
+   * The version of the weight file format.
+   */
+  public static final int VERSION = 1;
+
+  /**
+   * The most cells in a tuple, which keeps the largest shape at 3^9 weights per phase.
+   */
+  public static final int MAX_TUPLE_LENGTH = 9;
+
+  private final int sideSize;
+  private final int phases;
+  private final int cellCount;
+  // the cells of every tuple and the shape whose weights it uses
+  private final int[][] tuples;
+  private final int[] shapeOf;
+  // the number of cells in each shape and where its weights start within a phase
+  private final int[] shapeLength;
+  private final int[] shapeOffset;
+  private final int phaseSize;
+  private final float[] weights;
+  // for every cell, the tuples it is part of and the place value of the cell in each, one cell
+  // after another from cellStart[cell] to cellStart[cell + 1]
+  private final int[] cellStart;
+  private final int[] cellTuple;
+  private final int[] cellPower;
+
+  /**
+   * Constructs a network for a board of the given side size with every weight 0.
+   *
+   * @param sideSize how many hexagons long a single side of the board is.
+   * @param phases   how many phases to split the game into, each with its own weights.
+   * @throws IllegalArgumentException if the side size is less than 2 or the number of phases is
+   *                                  not positive
+   */
+  public NTupleNetwork(int sideSize, int phases) {
+    BoardTopology topology = BoardTopology.of(sideSize);
+    if (phases < 1) {
+      throw new IllegalArgumentException("Number of phases must be positive");
+    }
+    this.sideSize = sideSize;
+    this.phases = phases;
+    this.cellCount = topology.getCellCount();
+
+    List<int[]> shapes = shapes(topology);
+    this.shapeLength = new int[shapes.size()];
+    this.shapeOffset = new int[shapes.size()];
+    int offset = 0;
+    for (int shape = 0; shape < shapes.size(); shape++) {
+      this.shapeLength[shape] = shapes.get(shape).length;
+      this.shapeOffset[shape] = offset;
+      offset += power(shapes.get(shape).length);
+    }
+    this.phaseSize = offset;
+    this.weights = new float[this.phaseSize * phases];
+
+    HexSymmetry symmetries = HexSymmetry.of(sideSize);
+    List<int[]> tuples = new ArrayList<int[]>();
+    List<Integer> shapeOf = new ArrayList<Integer>();
+    for (int shape = 0; shape < shapes.size(); shape++) {
+      List<int[]> copies = new ArrayList<int[]>();
+      for (int symmetry = 0; symmetry < HexSymmetry.COUNT; symmetry++) {
+        int[] copy = new int[this.shapeLength[shape]];
+        for (int place = 0; place < copy.length; place++) {
+          copy[place] = symmetries.image(symmetry, shapes.get(shape)[place]);
+        }
+        boolean seen = false;
+        for (int[] other : copies) {
+          seen |= Arrays.equals(other, copy);
+        }
+        if (!seen) {
+          copies.add(copy);
+          tuples.add(copy);
+          shapeOf.add(shape);
+        }
+      }
+    }
+    this.tuples = tuples.toArray(new int[0][]);
+    this.shapeOf = new int[shapeOf.size()];
+    for (int tuple = 0; tuple < this.shapeOf.length; tuple++) {
+      this.shapeOf[tuple] = shapeOf.get(tuple);
+    }
+
+    this.cellStart = new int[this.cellCount + 1];
+    for (int[] tuple : this.tuples) {
+      for (int cell : tuple) {
+        this.cellStart[cell + 1]++;
+      }
+    }
+    for (int cell = 0; cell < this.cellCount; cell++) {
+      this.cellStart[cell + 1] += this.cellStart[cell];
+    }
+    this.cellTuple = new int[this.cellStart[this.cellCount]];
+    this.cellPower = new int[this.cellTuple.length];
+    int[] filled = Arrays.copyOf(this.cellStart, this.cellCount);
+    for (int tuple = 0; tuple < this.tuples.length; tuple++) {
+      for (int place = 0; place < this.tuples[tuple].length; place++) {
+        int cell = this.tuples[tuple][place];
+        this.cellTuple[filled[cell]] = tuple;
+        this.cellPower[filled[cell]] = power(place);
+        filled[cell]++;
+      }
+    }
+  }
+
+  /**
+   * Lays out the four shapes of tuple on a board, each starting at the corner with the lowest r
+   * coordinate and as long as the board allows.
+   *
+   * @param topology the topology of the board.
+   * @return the cells of each shape, in order.
+   */
+  private static List<int[]> shapes(BoardTopology topology) {
+    int max = topology.getSideSize() - 1;
+    int[] edge = new int[Math.min(max + 1, MAX_TUPLE_LENGTH)];
+    for (int place = 0; place < edge.length; place++) {
+      edge[place] = topology.indexOf(place, -max);
+    }
+    // the second row starts one cell further out in q, since it is one cell longer
+    int[] inside = new int[Math.min(max + 2, MAX_TUPLE_LENGTH)];
+    for (int place = 0; place < inside.length; place++) {
+      inside[place] = topology.indexOf(place - 1, 1 - max);
+    }
+    int[] diagonal = new int[Math.min((max * 2) + 1, MAX_TUPLE_LENGTH)];
+    for (int place = 0; place < diagonal.length; place++) {
+      diagonal[place] = topology.indexOf(0, place - max);
+    }
+    List<Integer> near = new ArrayList<Integer>();
+    for (int cell = 0; cell < topology.getCellCount() && near.size() < MAX_TUPLE_LENGTH;
+         cell++) {
+      int q = topology.q(cell);
+      int r = topology.r(cell) + max;
+      if (Math.max(Math.abs(q), Math.max(Math.abs(r), Math.abs(q + r))) <= 2) {
+        near.add(cell);
+      }
+    }
+    int[] corner = new int[near.size()];
+    for (int place = 0; place < corner.length; place++) {
+      corner[place] = near.get(place);
+    }
+    List<int[]> shapes = new ArrayList<int[]>();
+    for (int[] shape : new int[][]{edge, inside, diagonal, corner}) {
+      if (shape.length >= 2) {
+        shapes.add(shape);
+      }
+    }
+    return shapes;
+  }
+
+  /**
+   * Returns 3 to the given power.
+   */
+  private static int power(int exponent) {
+    int result = 1;
+    for (int step = 0; step < exponent; step++) {
+      result *= 3;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the phase of the game a position with the given number of blank cells is in.
+   *
+   * @param blanks how many cells are blank.
+   * @return the phase, from 0 at the start of the game to the number of phases - 1 at the end.
+   */
+  public int phase(int blanks) {
+    int filled = Math.max(0, this.cellCount - blanks);
+    return Math.min(this.phases - 1, (filled * this.phases) / (this.cellCount + 1));
+  }
+
+  /**
+   * Reads the contents of a tuple in a position as a number in base 3.
+   *
+   * @param tuple    which tuple to read.
+   * @param position the position.
+   * @return the index of the tuple's weight within its shape.
+   */
+  int index(int tuple, HexPosition position) {
+    int index = 0;
+    int[] cells = this.tuples[tuple];
+    for (int place = cells.length - 1; place >= 0; place--) {
+      index = (index * 3) + position.get(cells[place]);
+    }
+    return index;
+  }
+
+  /**
+   * Returns where the weight for a tuple with the given contents is kept.
+   *
+   * @param phase the phase of the game.
+   * @param tuple which tuple.
+   * @param index the contents of the tuple, from index.
+   * @return the place of the weight in the weight array.
+   */
+  int slot(int phase, int tuple, int index) {
+    return (phase * this.phaseSize) + this.shapeOffset[this.shapeOf[tuple]] + index;
+  }
+
+  /**
+   * Estimates the final disc differential of a position for white, reading every tuple from the
+   * board.
+   *
+   * @param position the position, on a board of this network's side size.
+   * @return how many more discs white is expected to finish with than black.
+   */
+  public float value(HexPosition position) {
+    int phase = this.phase(position.getBlankCount());
+    float value = 0;
+    for (int tuple = 0; tuple < this.tuples.length; tuple++) {
+      value += this.weights[this.slot(phase, tuple, this.index(tuple, position))];
+    }
+    return value;
+  }
+
+  /**
+   * Moves the value of a position a step towards a target by gradient descent on its weights.
+   *
+   * @param position the position, on a board of this network's side size.
+   * @param target   the disc differential for white the position should be valued at.
+   * @param rate     how big a step to take, from 0 to 1.
+   * @return the error of the value before the step.
+   */
+  public float train(HexPosition position, float target, float rate) {
+    int phase = this.phase(position.getBlankCount());
+    int[] slots = new int[this.tuples.length];
+    float value = 0;
+    for (int tuple = 0; tuple < this.tuples.length; tuple++) {
+      slots[tuple] = this.slot(phase, tuple, this.index(tuple, position));
+      value += this.weights[slots[tuple]];
+    }
+    float error = target - value;
+    float step = (rate * error) / this.tuples.length;
+    for (int slot : slots) {
+      this.weights[slot] += step;
+    }
+    return error;
+  }
+
+  /**
+   * Writes the network to a weight file.
+   *
+   * @param file where to write the weights.
+   * @throws IOException if the file cannot be written
+   */
+  public void save(Path file) throws IOException {
+    try (OutputStream stream = Files.newOutputStream(file);
+         DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(this.sideSize);
+      out.writeInt(this.phases);
+      out.writeInt(this.shapeLength.length);
+      for (int length : this.shapeLength) {
+        out.writeInt(length);
+      }
+      for (float weight : this.weights) {
+        out.writeFloat(weight);
+      }
+    }
+  }
+
+  /**
+   * Reads a network from a weight file written by save.
+   *
+   * @param file the weight file.
+   * @return the network the file holds.
+   * @throws IOException              if the file cannot be read
+   * @throws IllegalArgumentException if the file is not a weight file of this version, or its
+   *                                  shapes do not match the ones laid out for its side size
+   */
+  public static NTupleNetwork load(Path file) throws IOException {
+    try (InputStream stream = Files.newInputStream(file);
+         DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+      if (in.readInt() != MAGIC) {
+        throw new IllegalArgumentException("Not a weight file");
+      }
+      if (in.readInt() != VERSION) {
+        throw new IllegalArgumentException("Weight file version not supported");
+      }
+      int sideSize = in.readInt();
+      int phases = in.readInt();
+      if (sideSize < 2 || phases < 1) {
+        throw new IllegalArgumentException("Weight file is damaged");
+      }
+      NTupleNetwork network = new NTupleNetwork(sideSize, phases);
+      if (in.readInt() != network.shapeLength.length) {
+        throw new IllegalArgumentException("Weight file shapes do not match");
+      }
+      for (int length : network.shapeLength) {
+        if (in.readInt() != length) {
+          throw new IllegalArgumentException("Weight file shapes do not match");
+        }
+      }
+      for (int slot = 0; slot < network.weights.length; slot++) {
+        network.weights[slot] = in.readFloat();
+      }
+      if (in.read() != -1) {
+        throw new IllegalArgumentException("Weight file is damaged");
+      }
+      return network;
+    }
+  }
+
+  /**
+   * Returns the weight kept in a slot.
+   */
+  float weight(int slot) {
+    return this.weights[slot];
+  }
+
+  /**
+   * Returns the first of the cell entries for a cell: the tuples the cell is part of and its
+   * place value in each run from cellStart(cell) up to cellStart(cell + 1).
+   */
+  int cellStart(int cell) {
+    return this.cellStart[cell];
+  }
+
+  /**
+   * Returns the tuple of a cell entry.
+   */
+  int cellTuple(int entry) {
+    return this.cellTuple[entry];
+  }
+
+  /**
+   * Returns the place value of the cell in the tuple of a cell entry.
+   */
+  int cellPower(int entry) {
+    return this.cellPower[entry];
+  }
+
+  /**
+   * Returns the side size of the board the network is for.
+   *
+   * @return the network's side size.
+   */
+  public int getSideSize() {
+    return this.sideSize;
+  }
+
+  /**
+   * Returns how many phases the game is split into.
+   *
+   * @return the number of phases.
+   */
+  public int getPhases() {
+    return this.phases;
+  }
+
+  /**
+   * Returns how many tuples are read from every position, counting each copy of a shape.
+   *
+   * @return the number of tuples.
+   */
+  public int getTupleCount() {
+    return this.tuples.length;
+  }
+
+  /**
+   * Returns how many weights the network has.
+   *
+   * @return the number of weights, across all phases.
+   */
+  public int getWeightCount() {
+    return this.weights.length;
+  }
+}
@@ -0,0 +1,171 @@
+package strategy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import model.BasicReversi;
+import model.HexPosition;
+import model.ReversiModel;
+
+/**
+ * Trains the weights of an NTupleNetwork by self-play, without a model, view or controller. The
+ * network plays games against itself, each move chosen by looking one move ahead with its own
+ * values, or now and then at random so that it sees more of the game. As each game ends, every
+ * position in it is streamed through a regression step towards the game's final disc
+ * differential, and only the moves of the game in progress are kept in memory.
+ */
+public final class NTupleTrainer {
+
+  private final NTupleNetwork network;
+  private final double rate;
+  private final double exploration;
+  private final Random random;
+  private final HexPosition start;
+  private final HexPosition position;
+  private final int[] moves;
+  private double squaredError;
+  private long positions;
+
+  /**
+   * Constructs a trainer for the given network.
+   *
+   * @param network     the network whose weights are trained.
+   * @param rate        how big a step each position takes towards its result, from 0 to 1.
+   * @param exploration the chance, from 0 to 1, of playing a random move instead of the best.
+   * @param seed        the seed of the random moves, so the same training can be run again.
+   * @throws IllegalArgumentException if the network is null or the rate or exploration is not
+   *                                  between 0 and 1
+   */
+  public NTupleTrainer(NTupleNetwork network, double rate, double exploration, long seed) {
+    if (network == null) {
+      throw new IllegalArgumentException("Network cannot be null");
+    }
+    if (!(rate > 0 && rate <= 1) || !(exploration >= 0 && exploration <= 1)) {
+      throw new IllegalArgumentException("Rate and exploration must be between 0 and 1");
+    }
+    this.network = network;
+    this.rate = rate;
+    this.exploration = exploration;
+    this.random = new Random(seed);
+    // start from the position a real game starts from, so the two cannot drift apart
+    ReversiModel game = new BasicReversi(network.getSideSize());
+    game.startGame();
+    this.start = HexPosition.of(game, game.whoseTurn());
+    this.position = new HexPosition(this.start);
+    this.moves = new int[this.start.getTopology().getCellCount()];
+  }
+
+  /**
+   * Plays the given number of games and learns from every position in them.
+   *
+   * @param games how many games to play.
+   * @return the mean squared error of the positions' values before they were trained, in discs.
+   */
+  public double train(int games) {
+    this.squaredError = 0;
+    this.positions = 0;
+    for (int game = 0; game < games; game++) {
+      int length = this.playGame();
+      float result = this.position.getCount(HexPosition.WHITE)
+              - this.position.getCount(HexPosition.BLACK);
+      // walk back through the game, training each position on the way
+      for (int ply = length - 1; ply >= 0; ply--) {
+        this.position.undo();
+        float error = this.network.train(this.position, result, (float) this.rate);
+        this.squaredError += error * error;
+        this.positions++;
+      }
+    }
+    return this.positions == 0 ? 0 : this.squaredError / this.positions;
+  }
+
+  /**
+   * Plays one game from the starting position, leaving the finished game in the position with
+   * its moves ready to be taken back.
+   *
+   * @return how many moves and passes the game took.
+   */
+  private int playGame() {
+    HexPosition position = this.position;
+    position.copyFrom(this.start);
+    int length = 0;
+    while (true) {
+      int player = position.getTurn();
+      int count = position.legalMoves(player, this.moves);
+      if (count == 0) {
+        if (!position.hasMoves(HexPosition.opponent(player))) {
+          break;
+        }
+        position.pass();
+      } else {
+        position.play(this.choose(count));
+      }
+      length++;
+    }
+    return length;
+  }
+
+  /**
+   * Chooses a move among the legal moves in the move buffer: at random now and then, and
+   * otherwise the move after which the network values the position best for the player.
+   *
+   * @param count how many legal moves there are.
+   * @return the chosen cell.
+   */
+  private int choose(int count) {
+    if (this.random.nextDouble() < this.exploration) {
+      return this.moves[this.random.nextInt(count)];
+    }
+    HexPosition position = this.position;
+    float sign = position.getTurn() == HexPosition.WHITE ? 1 : -1;
+    int best = this.moves[0];
+    float bestValue = Float.NEGATIVE_INFINITY;
+    for (int index = 0; index < count; index++) {
+      position.play(this.moves[index]);
+      float value = sign * this.network.value(position);
+      position.undo();
+      if (value > bestValue) {
+        bestValue = value;
+        best = this.moves[index];
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Returns how many positions the last call to train learnt from.
+   *
+   * @return the number of positions trained.
+   */
+  public long getPositions() {
+    return this.positions;
+  }
+
+  /**
+   * Trains a network from the command line and writes it to a weight file, reporting the error
+   * after every thousand games.
+   *
+   * @param args the side size, the number of games, the number of phases and the file to write
+   *             the weights to.
+   * @throws IOException if the file cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 4) {
+      throw new IllegalArgumentException("Usage: sideSize games phases file");
+    }
+    NTupleNetwork network = new NTupleNetwork(Integer.parseInt(args[0]),
+            Integer.parseInt(args[2]));
+    NTupleTrainer trainer = new NTupleTrainer(network, 0.05, 0.1, 1L);
+    int games = Integer.parseInt(args[1]);
+    for (int played = 0; played < games; played += 1000) {
+      double error = trainer.train(Math.min(1000, games - played));
+      System.out.println((played + Math.min(1000, games - played)) + " games, mean squared error "
+              + String.format("%.2f", error));
+    }
+    Path file = Paths.get(args[3]);
+    network.save(file);
+    System.out.println("Wrote " + network.getWeightCount() + " weights to " + file);
+  }
+}
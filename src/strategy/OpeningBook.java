@@ -0,0 +1,192 @@
+package strategy;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import model.BoardTopology;
+import model.CellModel;
+import model.Coordinate;
+import model.HexPosition;
+import model.HexSymmetry;
+import model.ReversiModel;
+
+/**
+ * A Reversi strategy that plays the moves of an opening book written by OpeningBookBuilder.
+ * The book is memory mapped rather than read in, so opening it costs the same however big it is
+ * and its pages are only loaded as positions are looked up. Positions are found by binary search
+ * on the hash of their canonical form, so one entry serves a position and all its symmetric
+ * images. When the book has no move for a position, the strategy falls back to a backup plan.
+ */
+public class OpeningBook implements ReversiStrategy {
+
+  private final ReversiStrategy backupPlan;
+  private final MappedByteBuffer book;
+  private final int sideSize;
+  private final int entries;
+  private final HexSymmetry symmetries;
+
+  /**
+   * Constructs an OpeningBook that reads the given book file.
+   *
+   * @param file       the book written by OpeningBookBuilder.
+   * @param backupPlan The backup strategy to use when the book has no move.
+   * @throws IOException              if the file cannot be read
+   * @throws IllegalArgumentException if the backup plan is null or the file is not a book
+   */
+  public OpeningBook(Path file, ReversiStrategy backupPlan) throws IOException {
+    if (backupPlan == null) {
+      throw new IllegalArgumentException("Backup plan cannot be null");
+    }
+    this.backupPlan = backupPlan;
+    // the mapping stays valid after the channel is closed
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < OpeningBookBuilder.HEADER_BYTES) {
+        throw new IllegalArgumentException("Not an opening book");
+      }
+      this.book = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (this.book.getInt(0) != OpeningBookBuilder.MAGIC
+            || this.book.getInt(4) != OpeningBookBuilder.VERSION) {
+      throw new IllegalArgumentException("Not an opening book");
+    }
+    this.sideSize = this.book.getInt(8);
+    this.entries = this.book.getInt(12);
+    if (this.sideSize < 2) {
+      throw new IllegalArgumentException("Opening book is damaged");
+    }
+    this.symmetries = HexSymmetry.of(this.sideSize);
+    if (this.entries < 0 || this.book.capacity() != OpeningBookBuilder.HEADER_BYTES
+            + ((long) this.entries * OpeningBookBuilder.ENTRY_BYTES)) {
+      throw new IllegalArgumentException("Opening book is damaged");
+    }
+  }
+
+  /**
+   * Chooses the book move for the position, or the move of the backup plan if the book has
+   * none.
+   *
+   * @param model  The ReversiModel representing the current state of the game.
+   * @param player The player making the move.
+   * @return An Optional containing the chosen coordinate if a move is made,
+   *         or empty if no valid move is found.
+   */
+  @Override
+  public Optional<Coordinate> chooseCoordinate(ReversiModel model, CellModel.CellStatus player) {
+    return this.chooseCoordinate(model, player, Deadline.none());
+  }
+
+  /**
+   * Chooses the book move the same way, passing the deadline on to the backup plan.
+   *
+   * @param model    The ReversiModel representing the current state of the game.
+   * @param player   The player making the move.
+   * @param deadline when the backup plan must stop looking for a better move.
+   * @return An Optional containing the chosen coordinate if a move is made,
+   *         or empty if no valid move is found.
+   */
+  @Override
+  public Optional<Coordinate> chooseCoordinate(ReversiModel model, CellModel.CellStatus player,
+                                               Deadline deadline) {
+    Optional<Coordinate> move = this.bookMove(model, player);
+    if (move.isPresent()) {
+      return move;
+    }
+    return this.backupPlan.chooseCoordinate(model, player, deadline);
+  }
+
+  /**
+   * Predicts the book move for the position, or the move the backup plan predicts if the book
+   * has none.
+   *
+   * @param model  The ReversiModel representing the current state of the game.
+   * @param player The player whose move is predicted.
+   * @return An Optional containing the predicted coordinate, or empty if there is none.
+   */
+  @Override
+  public Optional<Coordinate> predictCoordinate(ReversiModel model,
+                                                CellModel.CellStatus player) {
+    Optional<Coordinate> move = this.bookMove(model, player);
+    if (move.isPresent()) {
+      return move;
+    }
+    return this.backupPlan.predictCoordinate(model, player);
+  }
+
+  /**
+   * Looks up the move the book holds for the player in the game's position.
+   *
+   * @return the book move, or empty if the book has none that is legal in the game.
+   */
+  private Optional<Coordinate> bookMove(ReversiModel model, CellModel.CellStatus player) {
+    if (model.getSideSize() == this.sideSize) {
+      HexPosition position = HexPosition.of(model, player);
+      int symmetry = this.symmetries.canonicalSymmetry(position);
+      int entry = this.find(this.symmetries.hash(symmetry, position));
+      if (entry >= 0) {
+        int packed = this.book.getInt(this.offset(entry) + 8);
+        // the book move is for the canonical form, so turn it back to match the game
+        Coordinate move = this.symmetries.transform(this.symmetries.inverse(symmetry),
+                new Coordinate(Coordinate.packedQ(packed), Coordinate.packedR(packed)));
+        // a different position with the same hash could lead anywhere, so check the move
+        if (BoardTopology.of(this.sideSize).indexOf(move.q, move.r) >= 0
+                && model.countFlips(move, player) > 0) {
+          return Optional.of(move);
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Finds the entry for a position by binary search. Only absolute reads are made from the
+   * mapped book, so one book can be searched by several threads at once.
+   *
+   * @param hash the hash of the position.
+   * @return the index of the entry, or -1 if the book has none for the position.
+   */
+  private int find(long hash) {
+    int low = 0;
+    int high = this.entries - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      long found = this.book.getLong(this.offset(middle));
+      if (found < hash) {
+        low = middle + 1;
+      } else if (found > hash) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns where an entry starts in the book.
+   */
+  private int offset(int entry) {
+    return OpeningBookBuilder.HEADER_BYTES + (entry * OpeningBookBuilder.ENTRY_BYTES);
+  }
+
+  /**
+   * Returns how many positions the book has moves for.
+   *
+   * @return the number of entries in the book.
+   */
+  public int size() {
+    return this.entries;
+  }
+
+  /**
+   * Returns the side size of the board the book was built for.
+   *
+   * @return the book's side size.
+   */
+  public int getSideSize() {
+    return this.sideSize;
+  }
+}
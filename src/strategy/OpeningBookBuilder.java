@@ -0,0 +1,184 @@
+package strategy;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import model.BitboardReversi;
+import model.Coordinate;
+import model.HexPosition;
+import model.HexSymmetry;
+import model.MoveList;
+import model.ReversiModel;
+
+/**
+ * Builds an opening book file for OpeningBook by self-play. An expert strategy plays many games
+ * against itself, and for every position in the first few moves of each game the book records
+ * the move the expert chose. Now and then a random move is played instead of the expert's, so
+ * that the games branch out and the book covers more than one line.
+ *
+ * <p>Positions that are symmetric images of each other are stored once, under the hash of their
+ * canonical form from HexSymmetry, with the book move turned to match that form.
+ *
+ * <p>The file starts with a header of four ints: the magic number, the format version, the side
+ * size of the board and the number of entries. Each entry is a long canonical position hash
+ * followed by the int packed coordinate of the book move and the int number of games the move was
+ * chosen in, and the entries are sorted by hash so they can be binary searched. Everything is
+ * big-endian.
+ */
+public final class OpeningBookBuilder {
+
+  /**
+   * The first int of every opening book file.
+   */
+  public static final int MAGIC = 0x48584F42;
+
+  /**
+   * The version of the file format written by this builder.
+   */
+  public static final int VERSION = 2;
+
+  /**
+   * The number of bytes in the header of a book file.
+   */
+  public static final int HEADER_BYTES = 16;
+
+  /**
+   * The number of bytes in each entry of a book file.
+   */
+  public static final int ENTRY_BYTES = 16;
+
+  private final int sideSize;
+  private final ReversiStrategy expert;
+  private final int plies;
+  private final int games;
+  private final double variety;
+  private final long seed;
+
+  /**
+   * Constructs a builder for books of the given board size.
+   *
+   * @param sideSize how many hexagons long a single side of the board is.
+   * @param expert   the strategy whose moves are recorded.
+   * @param plies    how many moves into each game to record.
+   * @param games    how many games to play.
+   * @param variety  the chance, from 0 to 1, of playing a random move instead of the expert's.
+   * @param seed     the seed of the random moves, so the same book can be built again.
+   * @throws IllegalArgumentException if the expert is null, the side size is less than 2, the
+   *                                  plies or games are not positive or the variety is not
+   *                                  between 0 and 1
+   */
+  public OpeningBookBuilder(int sideSize, ReversiStrategy expert, int plies, int games,
+                            double variety, long seed) {
+    if (expert == null) {
+      throw new IllegalArgumentException("Expert cannot be null");
+    }
+    if (sideSize < 2) {
+      throw new IllegalArgumentException("Size of board inadequate");
+    }
+    if (plies < 1 || games < 1) {
+      throw new IllegalArgumentException("Plies and games must be positive");
+    }
+    if (!(variety >= 0 && variety <= 1)) {
+      throw new IllegalArgumentException("Variety must be between 0 and 1");
+    }
+    this.sideSize = sideSize;
+    this.expert = expert;
+    this.plies = plies;
+    this.games = games;
+    this.variety = variety;
+    this.seed = seed;
+  }
+
+  /**
+   * Plays the self-play games and writes the book they produce.
+   *
+   * @param file where to write the book.
+   * @return how many positions the book holds.
+   * @throws IOException if the file cannot be written
+   */
+  public int build(Path file) throws IOException {
+    // for every position, how often each move was chosen, keyed by packed coordinate
+    Map<Long, Map<Integer, Integer>> choices = new HashMap<Long, Map<Integer, Integer>>();
+    Random random = new Random(this.seed);
+    HexSymmetry symmetries = HexSymmetry.of(this.sideSize);
+    MoveList moves = new MoveList();
+    for (int game = 0; game < this.games; game++) {
+      ReversiModel model = new BitboardReversi(this.sideSize);
+      model.startGame();
+      for (int ply = 0; ply < this.plies; ply++) {
+        model.findLegalMoves(model.whoseTurn(), moves);
+        if (moves.isEmpty()) {
+          break;
+        }
+        Optional<Coordinate> choice = this.expert.chooseCoordinate(model, model.whoseTurn());
+        if (!choice.isPresent()) {
+          break;
+        }
+        // symmetric positions share one entry, with the move turned to match the canonical form
+        HexPosition position = HexPosition.of(model, model.whoseTurn());
+        int symmetry = symmetries.canonicalSymmetry(position);
+        choices.computeIfAbsent(symmetries.hash(symmetry, position),
+                hash -> new HashMap<Integer, Integer>())
+                .merge(symmetries.transform(symmetry, choice.get()).pack(), 1, Integer::sum);
+        if (random.nextDouble() < this.variety) {
+          model.makeMove(moves.coordinate(random.nextInt(moves.size())));
+        } else {
+          model.makeMove(choice.get());
+        }
+      }
+    }
+
+    List<Long> hashes = new ArrayList<Long>(choices.keySet());
+    hashes.sort(null);
+    try (OutputStream stream = Files.newOutputStream(file);
+         DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(this.sideSize);
+      out.writeInt(hashes.size());
+      for (long hash : hashes) {
+        int bestMove = 0;
+        int mostGames = 0;
+        for (Map.Entry<Integer, Integer> move : choices.get(hash).entrySet()) {
+          if (move.getValue() > mostGames) {
+            bestMove = move.getKey();
+            mostGames = move.getValue();
+          }
+        }
+        out.writeLong(hash);
+        out.writeInt(bestMove);
+        out.writeInt(mostGames);
+      }
+    }
+    return hashes.size();
+  }
+
+  /**
+   * Builds a book with an alpha-beta expert from the command line.
+   *
+   * @param args the side size, the number of games, the number of plies to record, and the file
+   *             to write the book to.
+   * @throws IOException if the file cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 4) {
+      throw new IllegalArgumentException("Usage: sideSize games plies file");
+    }
+    OpeningBookBuilder builder = new OpeningBookBuilder(Integer.parseInt(args[0]),
+            new AlphaBetaSearch(6, 500_000), Integer.parseInt(args[2]),
+            Integer.parseInt(args[1]), 0.25, 1L);
+    int entries = builder.build(Paths.get(args[3]));
+    System.out.println("Wrote " + entries + " positions to " + args[3]);
+  }
+}
@@ -32,12 +32,27 @@ public class PlayToCorner implements ReversiStrategy {
    */
   @Override
   public Optional<Coordinate> chooseCoordinate(ReversiModel model, CellModel.CellStatus player) {
+    return this.chooseCoordinate(model, player, Deadline.none());
+  }
+
+  /**
+   * Chooses a coordinate the same way, passing the deadline on to the backup plan.
+   *
+   * @param model    The ReversiModel representing the current state of the game.
+   * @param player   The player making the move.
+   * @param deadline when the backup plan must stop looking for a better move.
+   * @return An Optional containing the chosen coordinate if a move is made,
+   *         or empty if no valid move is found.
+   */
+  @Override
+  public Optional<Coordinate> chooseCoordinate(ReversiModel model, CellModel.CellStatus player,
+                                               Deadline deadline) {
     List<Coordinate> corners = model.getCorners();
     for (Coordinate c : corners) {
-      if (model.playADisc(model.getClickedCell(c), player, false)) {
+      if (model.countFlips(c, player) > 0) {
         return Optional.of(c);
       }
     }
-    return backupPlan.chooseCoordinate(model, player);
+    return backupPlan.chooseCoordinate(model, player, deadline);
   }
 }
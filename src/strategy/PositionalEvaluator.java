@@ -0,0 +1,68 @@
+package strategy;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import model.BoardTopology;
+import model.CellClassification;
+import model.HexPosition;
+
+/**
+ * An Evaluator that weighs every disc by the kind of cell it sits on and adds how many more moves
+ * the player to move has than the opponent. Corners can never be flipped and are worth the most,
+ * cells next to a corner give the corner away and count against their owner, and edge cells are
+ * worth a little more than interior ones.
+ */
+public class PositionalEvaluator implements Evaluator {
+
+  private static final int CORNER = 20;
+  private static final int CORNER_ADJACENT = -6;
+  private static final int EDGE = 2;
+  private static final int INTERIOR = 1;
+  private static final int MOBILITY = 3;
+
+  private static final Map<Integer, int[]> WEIGHTS = new ConcurrentHashMap<Integer, int[]>();
+
+  @Override
+  public int evaluate(HexPosition position) {
+    int[] weights = weights(position.getTopology());
+    int player = position.getTurn();
+    int score = 0;
+    for (int cell = 0; cell < weights.length; cell++) {
+      int color = position.get(cell);
+      if (color == player) {
+        score += weights[cell];
+      } else if (color != HexPosition.BLANK) {
+        score -= weights[cell];
+      }
+    }
+    return score + (MOBILITY * (position.countMoves(player)
+            - position.countMoves(HexPosition.opponent(player))));
+  }
+
+  /**
+   * Returns the weight of every cell of a board, working them out the first time a board of that
+   * size is scored.
+   *
+   * @param topology the topology of the board.
+   * @return the weights, indexed by cell.
+   */
+  private static int[] weights(BoardTopology topology) {
+    return WEIGHTS.computeIfAbsent(topology.getSideSize(), size -> {
+      CellClassification cells = CellClassification.of(size);
+      int[] weights = new int[topology.getCellCount()];
+      for (int cell = 0; cell < weights.length; cell++) {
+        if (cells.is(CellClassification.CORNER, cell)) {
+          weights[cell] = CORNER;
+        } else if (cells.is(CellClassification.CORNER_ADJACENT, cell)) {
+          weights[cell] = CORNER_ADJACENT;
+        } else if (cells.is(CellClassification.EDGE, cell)) {
+          weights[cell] = EDGE;
+        } else {
+          weights[cell] = INTERIOR;
+        }
+      }
+      return weights;
+    });
+  }
+}
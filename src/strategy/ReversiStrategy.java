@@ -10,6 +10,10 @@ import model.ReversiModel;
  * The ReversiStrategy interface represents a strategy for making moves in a Reversi game.
  * Implementing classes provide logic for choosing a coordinate on the game board based on the
  * current game state.
+ *
+ * <p>A strategy can also be given a Deadline to choose its move by. Strategies that search keep
+ * the best move found so far and return it as soon as the deadline passes; the rest answer
+ * quickly enough that they can ignore it.
  */
 public interface ReversiStrategy {
 
@@ -22,4 +26,37 @@ public interface ReversiStrategy {
    *         or empty otherwise.
    */
   Optional<Coordinate> chooseCoordinate(ReversiModel model, CellModel.CellStatus player);
+
+  /**
+   * Chooses a coordinate on the Reversi game board within a time limit. Once the deadline has
+   * passed, or been cancelled, the strategy returns the best move it has found so far rather
+   * than finishing its search. By default the deadline is ignored, which suits strategies that
+   * never search.
+   *
+   * @param model    The ReversiModel representing the current state of the game.
+   * @param player   The player for whom a move is being chosen (BLACK or WHITE).
+   * @param deadline when the strategy must stop looking for a better move.
+   * @return An Optional containing the chosen coordinate if a valid move is found,
+   *         or empty otherwise.
+   */
+  default Optional<Coordinate> chooseCoordinate(ReversiModel model, CellModel.CellStatus player,
+                                                Deadline deadline) {
+    return this.chooseCoordinate(model, player);
+  }
+
+  /**
+   * Predicts the move the player would choose, from what the strategy learned in its last
+   * search, without searching again. An AI player uses it to guess the opponent's reply to its
+   * own move, so the position should be one the last search looked at. By default the strategy
+   * simply chooses the move, which suits strategies that never search.
+   *
+   * @param model  The ReversiModel representing the current state of the game.
+   * @param player The player whose move is predicted.
+   * @return An Optional containing the predicted coordinate, or empty if the strategy has no
+   *         prediction or the player has no valid move.
+   */
+  default Optional<Coordinate> predictCoordinate(ReversiModel model,
+                                                 CellModel.CellStatus player) {
+    return this.chooseCoordinate(model, player);
+  }
 }
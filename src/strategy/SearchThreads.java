@@ -0,0 +1,48 @@
+package strategy;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The threads every search in the program runs its background work on: the helper workers of
+ * the parallel searches and the pondering of the AI players. One pool is shared by all of them,
+ * so making a strategy for every game does not leave threads behind when the game is over. The
+ * pool starts threads as they are needed and stops them once they have been idle for a minute,
+ * and its threads are daemons, so an unfinished game does not keep the program running.
+ */
+public final class SearchThreads {
+
+  private static final AtomicInteger COUNT = new AtomicInteger();
+  private static final ExecutorService POOL = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "search-" + COUNT.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private SearchThreads() {
+  }
+
+  /**
+   * Runs a task on a thread of the shared pool.
+   *
+   * @param task the task to run.
+   * @return the future of the task, which is done when the task has finished.
+   */
+  public static Future<?> submit(Runnable task) {
+    return POOL.submit(task);
+  }
+
+  /**
+   * Runs a task that returns a result on a thread of the shared pool.
+   *
+   * @param task the task to run.
+   * @param <T>  the type of the task's result.
+   * @return the future holding the task's result.
+   */
+  public static <T> Future<T> submit(Callable<T> task) {
+    return POOL.submit(task);
+  }
+}
@@ -0,0 +1,68 @@
+package strategy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import model.CellModel;
+import model.Coordinate;
+import model.MoveList;
+import model.ReversiModel;
+
+/**
+ * A Reversi strategy made of MoveRule stages. The legal moves are found once per turn, in a
+ * single pass over the board, and each stage in turn either picks one of them or leaves the
+ * choice to the next stage, the way a chain of fallback strategies does. Unlike a chain, where
+ * every strategy searches the board again, the stages share the one list of moves.
+ *
+ * <p>For example, a pipeline of MoveRules.avoidCornerAdjacent, MoveRules.playToCorner and
+ * MoveRules.captureMost makes the same choices as
+ * AvoidCornerAdjacent(PlayToCorner(CaptureMost)).
+ */
+public class StrategyPipeline implements ReversiStrategy {
+
+  private final List<MoveRule> rules;
+  private final MoveList moves;
+
+  /**
+   * Constructs a pipeline of the given stages, which are asked for a move in order.
+   *
+   * @param rules the stages of the pipeline.
+   * @throws IllegalArgumentException if there are no stages or any of them is null
+   */
+  public StrategyPipeline(MoveRule... rules) {
+    if (rules.length == 0) {
+      throw new IllegalArgumentException("Pipeline needs at least one rule");
+    }
+    for (MoveRule rule : rules) {
+      if (rule == null) {
+        throw new IllegalArgumentException("Rules cannot be null");
+      }
+    }
+    this.rules = Arrays.asList(rules.clone());
+    this.moves = new MoveList();
+  }
+
+  /**
+   * Chooses the move picked by the first stage that picks one.
+   *
+   * @param model  The ReversiModel representing the current state of the game.
+   * @param player The player making the move.
+   * @return An Optional containing the chosen coordinate if a move is made,
+   *         or empty if no valid move is found or no stage picks one.
+   */
+  @Override
+  public Optional<Coordinate> chooseCoordinate(ReversiModel model, CellModel.CellStatus player) {
+    model.findLegalMoves(player, this.moves);
+    if (this.moves.isEmpty()) {
+      return Optional.empty();
+    }
+    for (MoveRule rule : this.rules) {
+      int move = rule.choose(model, player, this.moves);
+      if (move >= 0) {
+        return Optional.of(this.moves.coordinate(move));
+      }
+    }
+    return Optional.empty();
+  }
+}
@@ -0,0 +1,206 @@
+package strategy;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size table of search results keyed by position hash, shared by any number of search
+ * threads without locks. Each entry packs the search depth, the kind of bound the score is, the
+ * score and the best move found into a single long, stored next to the position's hash
+ * exclusive-ored with that long. An entry is only trusted when the two words still exclusive-or
+ * back to the hash being probed, so an entry torn by two threads writing at once simply reads as
+ * a miss instead of as a wrong result.
+ *
+ * <p>The table has a power of two number of slots, one entry per slot. A new result replaces the
+ * slot's entry when it is for a different position or was searched at least as deep.
+ */
+public final class TranspositionTable {
+
+  /**
+   * The score is the exact value of the position.
+   */
+  public static final int EXACT = 1;
+
+  /**
+   * The score is a lower bound: the search failed high.
+   */
+  public static final int LOWER = 2;
+
+  /**
+   * The score is an upper bound: the search failed low.
+   */
+  public static final int UPPER = 3;
+
+  /**
+   * Returned by probe when the table has no entry for the position.
+   */
+  public static final long MISS = 0L;
+
+  private static final int MOVE_BITS = 16;
+  private static final int DEPTH_SHIFT = 16;
+  private static final int BOUND_SHIFT = 24;
+  private static final int SCORE_SHIFT = 26;
+
+  private final long[] keys;
+  private final long[] entries;
+  private final int mask;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder collisions;
+
+  /**
+   * Constructs an empty table with room for the given number of entries, rounded up to a power
+   * of two.
+   *
+   * @param entries the smallest number of entries the table should hold.
+   * @throws IllegalArgumentException if the number of entries is not positive or too large
+   */
+  public TranspositionTable(int entries) {
+    if (entries < 1 || entries > (1 << 30)) {
+      throw new IllegalArgumentException("Invalid number of table entries");
+    }
+    int size = Integer.highestOneBit(entries);
+    if (size < entries) {
+      size <<= 1;
+    }
+    this.keys = new long[size];
+    this.entries = new long[size];
+    this.mask = size - 1;
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+    this.collisions = new LongAdder();
+  }
+
+  /**
+   * Looks up the entry stored for a position.
+   *
+   * @param hash the hash of the position.
+   * @return the packed entry, to be read with depth, bound, score and move, or MISS if there is
+   *         no trustworthy entry for the position.
+   */
+  public long probe(long hash) {
+    int slot = (int) hash & this.mask;
+    long entry = this.entries[slot];
+    long key = this.keys[slot];
+    if (entry != MISS && (key ^ entry) == hash) {
+      this.hits.increment();
+      return entry;
+    }
+    if (entry != MISS) {
+      this.collisions.increment();
+    }
+    this.misses.increment();
+    return MISS;
+  }
+
+  /**
+   * Stores the result of searching a position.
+   *
+   * @param hash  the hash of the position.
+   * @param depth how many plies deep the position was searched, from 0 to 255.
+   * @param bound EXACT, LOWER or UPPER.
+   * @param score the score found for the position.
+   * @param move  the index of the best move found, or -1 if there is none.
+   */
+  public void store(long hash, int depth, int bound, int score, int move) {
+    int slot = (int) hash & this.mask;
+    long old = this.entries[slot];
+    if (old != MISS && (this.keys[slot] ^ old) == hash && depth(old) > depth) {
+      return;
+    }
+    long entry = ((long) (move + 1) & ((1L << MOVE_BITS) - 1))
+            | ((long) Math.min(Math.max(depth, 0), 255) << DEPTH_SHIFT)
+            | ((long) bound << BOUND_SHIFT)
+            | ((long) score << SCORE_SHIFT);
+    this.entries[slot] = entry;
+    this.keys[slot] = hash ^ entry;
+  }
+
+  /**
+   * Empties the table and resets its counters.
+   */
+  public void clear() {
+    for (int slot = 0; slot < this.keys.length; slot++) {
+      this.entries[slot] = MISS;
+      this.keys[slot] = 0L;
+    }
+    this.hits.reset();
+    this.misses.reset();
+    this.collisions.reset();
+  }
+
+  /**
+   * Returns the depth stored in a packed entry.
+   *
+   * @param entry an entry returned by probe.
+   * @return how many plies deep the position was searched.
+   */
+  public static int depth(long entry) {
+    return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+  }
+
+  /**
+   * Returns the kind of bound stored in a packed entry.
+   *
+   * @param entry an entry returned by probe.
+   * @return EXACT, LOWER or UPPER.
+   */
+  public static int bound(long entry) {
+    return (int) (entry >>> BOUND_SHIFT) & 0x3;
+  }
+
+  /**
+   * Returns the score stored in a packed entry.
+   *
+   * @param entry an entry returned by probe.
+   * @return the score of the position.
+   */
+  public static int score(long entry) {
+    return (int) (entry >> SCORE_SHIFT);
+  }
+
+  /**
+   * Returns the best move stored in a packed entry.
+   *
+   * @param entry an entry returned by probe.
+   * @return the index of the best move, or -1 if there is none.
+   */
+  public static int move(long entry) {
+    return (int) (entry & ((1L << MOVE_BITS) - 1)) - 1;
+  }
+
+  /**
+   * Returns how many entries the table holds.
+   *
+   * @return the number of entries.
+   */
+  public int size() {
+    return this.keys.length;
+  }
+
+  /**
+   * Returns how many probes found an entry for their position.
+   *
+   * @return the number of hits.
+   */
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  /**
+   * Returns how many probes found no entry for their position.
+   *
+   * @return the number of misses.
+   */
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  /**
+   * Returns how many of the misses found the slot taken by another position.
+   *
+   * @return the number of collisions.
+   */
+  public long getCollisions() {
+    return this.collisions.sum();
+  }
+}
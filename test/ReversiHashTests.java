@@ -0,0 +1,253 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import controller.ReversiMockControllerImplementation;
+import model.BasicReversi;
+import model.BitboardReversi;
+import model.Cell;
+import model.CellModel;
+import model.Coordinate;
+import model.HexPosition;
+import model.HexSymmetry;
+import model.MoveList;
+import model.ReversiModel;
+import model.ZobristKeys;
+
+/**
+ * A test class to test the Zobrist hashing of positions kept by the Reversi models.
+ */
+public class ReversiHashTests {
+
+  /**
+   * Starts a model with mock controllers listening to both players, so that moves played with
+   * playADisc can switch turns.
+   *
+   * @param model the model to start.
+   * @return the started model.
+   */
+  private ReversiModel start(ReversiModel model) {
+    model.listenForTurn(new ReversiMockControllerImplementation(model, null, null),
+            CellModel.CellStatus.BLACK);
+    model.listenForTurn(new ReversiMockControllerImplementation(model, null, null),
+            CellModel.CellStatus.WHITE);
+    model.startGame();
+    return model;
+  }
+
+  /**
+   * Returns a description of every cell on the board and whose turn it is, so that two positions
+   * are equal exactly when their descriptions are.
+   *
+   * @param model the model to describe.
+   * @return the description of the position.
+   */
+  private String describe(ReversiModel model) {
+    StringBuilder position = new StringBuilder(model.whoseTurn().name());
+    for (List<Cell> row : model.getBoard()) {
+      for (Cell cell : row) {
+        position.append(cell.getCellStatus().ordinal());
+      }
+    }
+    return position.toString();
+  }
+
+  /**
+   * Returns the hash of the model's position computed from scratch.
+   *
+   * @param model the model to hash.
+   * @return the hash of the position.
+   */
+  private long rehash(ReversiModel model) {
+    return ZobristKeys.of(model.getSideSize()).hash(model.getBoard(), model.whoseTurn());
+  }
+
+  // test both models agree on the hash of the starting position, and it is stable across models
+  @Test
+  public void testStartingHash() {
+    ReversiModel basic = this.start(new BasicReversi(5));
+    ReversiModel bitboard = this.start(new BitboardReversi(5));
+    Assert.assertEquals(basic.getPositionHash(), bitboard.getPositionHash());
+    Assert.assertEquals(basic.getPositionHash(), this.rehash(basic));
+    Assert.assertEquals(basic.getPositionHash(), this.start(new BasicReversi(5)).getPositionHash());
+    Assert.assertNotEquals(basic.getPositionHash(),
+            this.start(new BasicReversi(4)).getPositionHash());
+  }
+
+  // test the hash is kept up to date by playADisc, passTurn, makeMove, makePass and unmakeMove
+  @Test
+  public void testIncrementalHashMatchesRehash() {
+    Random random = new Random(7);
+    for (int sideSize = 2; sideSize <= 6; sideSize++) {
+      for (ReversiModel model : new ReversiModel[]{
+          this.start(new BasicReversi(sideSize)), this.start(new BitboardReversi(sideSize))}) {
+        MoveList moves = new MoveList();
+        while (!model.isGameOver()) {
+          long before = model.getPositionHash();
+          model.findLegalMoves(model.whoseTurn(), moves);
+          if (moves.isEmpty()) {
+            model.makePass();
+            Assert.assertEquals(model.getPositionHash(), this.rehash(model));
+            model.unmakeMove();
+            Assert.assertEquals(model.getPositionHash(), before);
+            model.passTurn(model.whoseTurn());
+          } else {
+            int move = random.nextInt(moves.size());
+            model.makeMove(moves.coordinate(move));
+            Assert.assertEquals(model.getPositionHash(), this.rehash(model));
+            model.unmakeMove();
+            Assert.assertEquals(model.getPositionHash(), before);
+            model.playADisc(model.getClickedCell(moves.packedCoordinate(move)),
+                    model.whoseTurn(), true);
+          }
+          Assert.assertEquals(model.getPositionHash(), this.rehash(model));
+        }
+      }
+    }
+  }
+
+  // test no two different positions reached in many random games share a hash
+  @Test
+  public void testCollisionRate() {
+    Random random = new Random(11);
+    Map<Long, String> seen = new HashMap<Long, String>();
+    int positions = 0;
+    int collisions = 0;
+    for (int sideSize = 3; sideSize <= 7; sideSize++) {
+      for (int game = 0; game < 500; game++) {
+        ReversiModel model = new BitboardReversi(sideSize);
+        model.startGame();
+        MoveList moves = new MoveList();
+        int passes = 0;
+        while (passes < 2 && model.getBlankCount() > 0) {
+          String position = this.describe(model);
+          String previous = seen.put(model.getPositionHash(), position);
+          positions++;
+          if (previous != null && !previous.equals(position)) {
+            collisions++;
+          }
+          model.findLegalMoves(model.whoseTurn(), moves);
+          if (moves.isEmpty()) {
+            model.makePass();
+            passes++;
+          } else {
+            model.makeMove(moves.coordinate(random.nextInt(moves.size())));
+            passes = 0;
+          }
+        }
+      }
+    }
+    Assert.assertTrue(positions > 100000);
+    Assert.assertEquals(collisions, 0);
+  }
+
+  // test flipping cells through getBoard keeps the scores, blank count and hash in step
+  @Test
+  public void testBoardFlipsUpdateModel() {
+    for (ReversiModel model : new ReversiModel[]{this.start(new BasicReversi(4)),
+        this.start(new BitboardReversi(4))}) {
+      int flipped = 0;
+      for (List<Cell> row : model.getBoard()) {
+        for (Cell cell : row) {
+          if (cell.getCellStatus() == CellModel.CellStatus.BLANK) {
+            cell.flipToBlack();
+            flipped++;
+            break;
+          }
+        }
+      }
+      Assert.assertEquals(model.getScore(CellModel.CellStatus.BLACK), 3 + flipped);
+      Assert.assertEquals(model.getScore(CellModel.CellStatus.WHITE), 3);
+      Assert.assertEquals(model.getBlankCount(), 37 - 6 - flipped);
+      Assert.assertEquals(model.getPositionHash(), this.rehash(model));
+      Cell white = model.getClickedCell(new Coordinate(1, -1));
+      white.flipToBlank();
+      Assert.assertEquals(model.getScore(CellModel.CellStatus.WHITE), 2);
+      Assert.assertEquals(model.getBlankCount(), 37 - 5 - flipped);
+      Assert.assertEquals(model.getPositionHash(), this.rehash(model));
+      white.flipToWhite();
+      Assert.assertEquals(model.getScore(CellModel.CellStatus.WHITE), 3);
+      Assert.assertEquals(model.getPositionHash(), this.rehash(model));
+    }
+  }
+
+  // test every symmetry is undone by its inverse and the twelve symmetries are all different
+  @Test
+  public void testSymmetryInverses() {
+    for (int sideSize = 2; sideSize <= 7; sideSize++) {
+      HexSymmetry symmetries = HexSymmetry.of(sideSize);
+      int cellCount = 3 * sideSize * (sideSize - 1) + 1;
+      Set<String> permutations = new HashSet<String>();
+      for (int symmetry = 0; symmetry < HexSymmetry.COUNT; symmetry++) {
+        StringBuilder permutation = new StringBuilder();
+        for (int cell = 0; cell < cellCount; cell++) {
+          int image = symmetries.image(symmetry, cell);
+          Assert.assertEquals(symmetries.image(symmetries.inverse(symmetry), image), cell);
+          permutation.append(image).append(',');
+        }
+        permutations.add(permutation.toString());
+      }
+      Assert.assertEquals(permutations.size(), HexSymmetry.COUNT);
+      Assert.assertEquals(symmetries.transform(1, new Coordinate(1, 0)), new Coordinate(0, 1));
+    }
+  }
+
+  // test a position and all of its symmetric images share one canonical hash
+  @Test
+  public void testCanonicalHashSharedByImages() {
+    Random random = new Random(13);
+    for (int sideSize = 3; sideSize <= 6; sideSize++) {
+      HexSymmetry symmetries = HexSymmetry.of(sideSize);
+      ReversiModel model = new BitboardReversi(sideSize);
+      model.startGame();
+      MoveList moves = new MoveList();
+      for (int move = 0; move < sideSize * 3; move++) {
+        model.findLegalMoves(model.whoseTurn(), moves);
+        if (moves.isEmpty()) {
+          break;
+        }
+        model.makeMove(moves.coordinate(random.nextInt(moves.size())));
+      }
+      HexPosition position = HexPosition.of(model, model.whoseTurn());
+      long canonical = symmetries.canonicalHash(position);
+      Assert.assertEquals(symmetries.canonicalHash(model.getBoard(), model.whoseTurn()),
+              canonical);
+      Assert.assertEquals(symmetries.hash(symmetries.canonicalSymmetry(position), position),
+              canonical);
+      HexPosition image = new HexPosition(sideSize);
+      for (int symmetry = 0; symmetry < HexSymmetry.COUNT; symmetry++) {
+        symmetries.transform(symmetry, position, image);
+        Assert.assertEquals(image.getHash(), symmetries.hash(symmetry, position));
+        Assert.assertEquals(symmetries.canonicalHash(image), canonical);
+        Assert.assertEquals(image.getCount(HexPosition.WHITE),
+                position.getCount(HexPosition.WHITE));
+      }
+    }
+  }
+
+  // test the first moves of a game, which are symmetric to each other, share canonical hashes
+  @Test
+  public void testSymmetricPositionsDedupe() {
+    ReversiModel model = new BitboardReversi(5);
+    model.startGame();
+    HexSymmetry symmetries = HexSymmetry.of(5);
+    MoveList moves = new MoveList();
+    model.findLegalMoves(model.whoseTurn(), moves);
+    Set<Long> hashes = new HashSet<Long>();
+    Set<Long> canonical = new HashSet<Long>();
+    for (int move = 0; move < moves.size(); move++) {
+      model.makeMove(moves.coordinate(move));
+      hashes.add(model.getPositionHash());
+      canonical.add(symmetries.canonicalHash(HexPosition.of(model, model.whoseTurn())));
+      model.unmakeMove();
+    }
+    Assert.assertEquals(hashes.size(), moves.size());
+    Assert.assertEquals(canonical.size(), 1);
+  }
+}
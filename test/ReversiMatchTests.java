@@ -0,0 +1,226 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import match.HeadlessGame;
+import match.LatencyStats;
+import match.Sprt;
+import match.SprtMatch;
+import match.Standing;
+import match.StrategyFactory;
+import match.Tournament;
+import model.BasicReversi;
+import model.BitboardReversi;
+import model.CellModel;
+import model.Coordinate;
+import model.MoveList;
+import model.ReversiModel;
+import strategy.ReversiStrategy;
+
+/**
+ * A test class to test the headless games and tournaments played between strategies.
+ */
+public class ReversiMatchTests {
+
+  // test that a game can be played to the end with playADisc and passTurn without controllers
+  @Test
+  public void testModelsPlayWithoutControllers() {
+    for (ReversiModel model : new ReversiModel[]{new BasicReversi(4), new BitboardReversi(4)}) {
+      model.startGame();
+      MoveList moves = new MoveList();
+      while (!model.isGameOver()) {
+        CellModel.CellStatus player = model.whoseTurn();
+        model.findLegalMoves(player, moves);
+        if (moves.isEmpty()) {
+          model.passTurn(player);
+        } else {
+          model.playADisc(model.getClickedCell(moves.packedCoordinate(0)), player, true);
+          Assert.assertNotEquals(model.whoseTurn(), player);
+        }
+      }
+      Assert.assertTrue(model.getScore(CellModel.CellStatus.BLACK)
+              + model.getScore(CellModel.CellStatus.WHITE) > 6);
+    }
+  }
+
+  // test that every strategy name can be made into a strategy that chooses a legal move
+  @Test
+  public void testStrategyFactory() {
+    for (String name : StrategyFactory.getNames()) {
+      ReversiModel model = new BitboardReversi(4);
+      model.startGame();
+      ReversiStrategy strategy = StrategyFactory.create(name, 1, 7L);
+      Optional<Coordinate> move = strategy.chooseCoordinate(model, model.whoseTurn());
+      Assert.assertTrue(move.isPresent());
+      Assert.assertTrue(model.countFlips(move.get(), model.whoseTurn()) > 0);
+    }
+    Assert.assertTrue(StrategyFactory.searches("alphaBeta"));
+    Assert.assertFalse(StrategyFactory.searches("captureMost"));
+  }
+
+  // test that a headless game is played to the end and replays the same from the same seeds
+  @Test
+  public void testHeadlessGame() {
+    HeadlessGame game = HeadlessGame.play(5, StrategyFactory.create("random", 1, 3L),
+            StrategyFactory.create("captureMost", 1, 3L), 100, 4, 11L);
+    HeadlessGame again = HeadlessGame.play(5, StrategyFactory.create("random", 1, 3L),
+            StrategyFactory.create("captureMost", 1, 3L), 100, 4, 11L);
+    int black = game.getScore(CellModel.CellStatus.BLACK);
+    int white = game.getScore(CellModel.CellStatus.WHITE);
+    Assert.assertTrue(black + white <= 61);
+    Assert.assertEquals(game.getWinner(), black > white ? CellModel.CellStatus.BLACK
+            : black < white ? CellModel.CellStatus.WHITE : CellModel.CellStatus.BLANK);
+    Assert.assertEquals(again.getScore(CellModel.CellStatus.BLACK), black);
+    Assert.assertEquals(again.getScore(CellModel.CellStatus.WHITE), white);
+    Assert.assertTrue(game.getMoveNanos(CellModel.CellStatus.BLACK).length > 0);
+    Assert.assertTrue(game.getMoveNanos(CellModel.CellStatus.WHITE).length > 0);
+  }
+
+  // test that a tournament plays every game and pairs its openings with the colors swapped
+  @Test
+  public void testTournament() throws InterruptedException {
+    Tournament tournament = new Tournament(2, 100, 3, 5L);
+    tournament.add("captureMost", "captureMost", 4, 6);
+    tournament.add("avoidCorner", "random", 5, 4);
+    List<Standing> standings = tournament.run();
+    Assert.assertEquals(standings.size(), 2);
+    Standing mirror = standings.get(0);
+    Assert.assertEquals(mirror.getGames(), 6);
+    // the same strategy on both sides plays the same game twice from each opening
+    Assert.assertEquals(mirror.getWins(), mirror.getLosses());
+    Assert.assertEquals(mirror.getMeanDifferential(), 0.0, 1e-9);
+    Standing other = standings.get(1);
+    Assert.assertEquals(other.getFirst(), "avoidCorner");
+    Assert.assertEquals(other.getSideSize(), 5);
+    Assert.assertEquals(other.getWins() + other.getLosses() + other.getDraws(), 4);
+    Assert.assertTrue(other.getFirstLatency().getCount() > 0);
+    // running again replays the games rather than adding to the first run's standings
+    List<Standing> again = tournament.run();
+    Assert.assertEquals(again.get(0).getGames(), 6);
+    Assert.assertEquals(again.get(1).getWins(), other.getWins());
+    Assert.assertEquals(again.get(1).getLosses(), other.getLosses());
+  }
+
+  // test the mean, percentiles and worst of a set of move times
+  @Test
+  public void testLatencyStats() {
+    LatencyStats stats = new LatencyStats();
+    Assert.assertEquals(stats.getMeanMillis(), 0.0, 1e-9);
+    long[] times = new long[100];
+    for (int move = 0; move < times.length; move++) {
+      times[move] = (100 - move) * 1_000_000L;
+    }
+    stats.addAll(times);
+    Assert.assertEquals(stats.getCount(), 100);
+    Assert.assertEquals(stats.getMeanMillis(), 50.5, 1e-9);
+    Assert.assertEquals(stats.getPercentileMillis(0.5), 50.0, 1e-9);
+    Assert.assertEquals(stats.getPercentileMillis(0.95), 95.0, 1e-9);
+    Assert.assertEquals(stats.getMaxMillis(), 100.0, 1e-9);
+    stats.addAll(new long[]{500_000_000L});
+    Assert.assertEquals(stats.getMaxMillis(), 500.0, 1e-9);
+  }
+
+  // test the Elo estimate, its interval and the log-likelihood ratio of the SPRT
+  @Test
+  public void testSprtStatistics() {
+    Sprt sprt = new Sprt(0, 20, 0.05, 0.05);
+    Assert.assertEquals(sprt.getUpperBound(), Math.log(19), 1e-9);
+    Assert.assertEquals(sprt.getLowerBound(), -Math.log(19), 1e-9);
+    Assert.assertEquals(sprt.getDecision(), Sprt.Decision.CONTINUE);
+    for (int pair = 0; pair < 10; pair++) {
+      sprt.addPair(0);
+      sprt.addPair(2);
+      sprt.addPair(2);
+      sprt.addPair(4);
+    }
+    Assert.assertEquals(sprt.getPairCount(), 40L);
+    Assert.assertEquals(sprt.getPairs(2), 20L);
+    Assert.assertEquals(sprt.getScore(), 0.5, 1e-9);
+    Assert.assertEquals(sprt.getElo(), 0.0, 1e-9);
+    Assert.assertEquals(sprt.getEloLower(1.96), -sprt.getEloUpper(1.96), 1e-9);
+    Assert.assertTrue(sprt.getEloUpper(1.96) > 0);
+    // an even score is evidence against the candidate being 20 Elo stronger
+    Assert.assertTrue(sprt.getLlr() < 0);
+    Assert.assertEquals(sprt.getDecision(), Sprt.Decision.CONTINUE);
+    for (int pair = 0; pair < 100; pair++) {
+      sprt.addPair(3);
+    }
+    Assert.assertTrue(sprt.getElo() > 20);
+    Assert.assertEquals(sprt.getDecision(), Sprt.Decision.ACCEPT_H1);
+  }
+
+  // test that a single pair cannot decide the test however one-sided it is
+  @Test
+  public void testSprtNeedsSeveralPairs() {
+    Sprt sprt = new Sprt(0, 20, 0.05, 0.05);
+    sprt.addPair(4);
+    Assert.assertEquals(sprt.getDecision(), Sprt.Decision.CONTINUE);
+    Assert.assertEquals(sprt.getElo(), Double.POSITIVE_INFINITY, 0);
+    int pairs = 1;
+    while (sprt.getDecision() == Sprt.Decision.CONTINUE) {
+      sprt.addPair(0);
+      pairs++;
+    }
+    Assert.assertEquals(sprt.getDecision(), Sprt.Decision.ACCEPT_H0);
+    Assert.assertTrue(pairs > 5);
+  }
+
+  // test that an SPRT match finds a strong strategy stronger and equal strategies not stronger
+  @Test
+  public void testSprtMatch() throws InterruptedException {
+    List<String> reports = new ArrayList<String>();
+    SprtMatch strong = new SprtMatch("avoidCorner", "random", 6, 100, 2, 2, 1L, reports::add);
+    Sprt stronger = strong.run(new Sprt(0, 20, 0.05, 0.05), 1000);
+    Assert.assertEquals(stronger.getDecision(), Sprt.Decision.ACCEPT_H1);
+    Assert.assertTrue(stronger.getEloLower(1.96) > 0);
+    // one thread finishes the pairs in order, so the match is the same every time
+    SprtMatch equal = new SprtMatch("random", "random", 4, 100, 2, 1, 1L, reports::add);
+    Sprt same = equal.run(new Sprt(0, 20, 0.05, 0.05), 2000);
+    Assert.assertEquals(same.getDecision(), Sprt.Decision.ACCEPT_H0);
+    Assert.assertTrue(same.getEloLower(1.96) < 0 && same.getEloUpper(1.96) > 0);
+    Assert.assertFalse(reports.isEmpty());
+    // a match that runs out of pairs stops undecided
+    Sprt undecided = equal.run(new Sprt(0, 20, 0.05, 0.05), 3);
+    Assert.assertEquals(undecided.getPairCount(), 3L);
+    Assert.assertEquals(undecided.getDecision(), Sprt.Decision.CONTINUE);
+  }
+
+  // test that a pair cannot score more than two wins
+  @Test(expected = IllegalArgumentException.class)
+  public void testSprtBadPair() {
+    new Sprt(0, 20, 0.05, 0.05).addPair(5);
+  }
+
+  // test that the alternative hypothesis must claim more Elo than the null hypothesis
+  @Test(expected = IllegalArgumentException.class)
+  public void testSprtBadHypotheses() {
+    new Sprt(20, 0, 0.05, 0.05);
+  }
+
+  // test that a strategy name the factory does not know is rejected
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownStrategy() {
+    StrategyFactory.create("dartboard", 1, 7L);
+  }
+
+  // test that a tournament rejects a pairing with a strategy it does not know
+  @Test(expected = IllegalArgumentException.class)
+  public void testTournamentUnknownStrategy() {
+    new Tournament(1, 100, 0, 1L).add("captureMost", "dartboard", 4, 2);
+  }
+
+  // test that a headless game needs a strategy for both players
+  @Test(expected = IllegalArgumentException.class)
+  public void testHeadlessGameNullStrategy() {
+    HeadlessGame.play(5, null, StrategyFactory.create("random", 1, 3L), 100, 0, 1L);
+  }
+
+  // test that a percentile outside 0 to 1 is rejected
+  @Test(expected = IllegalArgumentException.class)
+  public void testLatencyStatsBadPercentile() {
+    new LatencyStats().getPercentileMillis(1.5);
+  }
+}
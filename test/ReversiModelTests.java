@@ -3,9 +3,15 @@ import org.junit.Test;
 
 import java.util.List;
 
+import controller.ReversiMockControllerImplementation;
 import model.BasicReversi;
+import model.BitboardReversi;
+import model.BoardTopology;
 import model.Cell;
+import model.CellClassification;
 import model.CellModel;
+import model.Coordinate;
+import model.MoveList;
 import model.ReversiModel;
 import view.ReversiTextView;
 import view.TextView;
@@ -215,4 +221,219 @@ public class ReversiModelTests {
   }
 
 
+  // test the topology indexes cells in board order and walks lines to the edge of the board
+  @Test
+  public void testTopologyRays() {
+    BoardTopology topology = BoardTopology.of(4);
+    Assert.assertSame(topology, BoardTopology.of(4));
+    Assert.assertEquals(topology.getCellCount(), 37);
+    Assert.assertEquals(topology.indexOf(0, -3), 0);
+    Assert.assertEquals(topology.indexOf(0, 0), 18);
+    Assert.assertEquals(topology.indexOf(3, 3), -1);
+    // the top left corner looks across the top row and down the left edge
+    Assert.assertEquals(topology.rayLength(0, 0), 3);
+    Assert.assertEquals(topology.rayLength(0, 1), 0);
+    Assert.assertEquals(topology.rayCell(0, 0, 2), 3);
+    Assert.assertEquals(topology.rayLength(18, 2), 3);
+    Assert.assertEquals(topology.rayCell(18, 2, 0), topology.indexOf(0, 1));
+  }
+
+  // test coordinates with the same q and r are equal and pack into a single int
+  @Test
+  public void testCoordinateValueSemantics() {
+    Assert.assertEquals(new Coordinate(2, -3), new Coordinate(2, -3));
+    Assert.assertEquals(new Coordinate(2, -3).hashCode(), new Coordinate(2, -3).hashCode());
+    Assert.assertNotEquals(new Coordinate(2, -3), new Coordinate(-3, 2));
+    int packed = Coordinate.pack(-5, 7);
+    Assert.assertEquals(Coordinate.packedQ(packed), -5);
+    Assert.assertEquals(Coordinate.packedR(packed), 7);
+  }
+
+  // test getClickedCell finds cells by value, whether given a coordinate or a packed coordinate
+  @Test
+  public void testGetClickedCell() {
+    Cell corner = this.model.getBoard().get(0).get(3);
+    Assert.assertSame(this.model.getClickedCell(new Coordinate(3, -3)), corner);
+    Assert.assertSame(this.model.getClickedCell(Coordinate.pack(3, -3)), corner);
+    Assert.assertSame(this.bitModel.getClickedCell(new Coordinate(-3, 3)),
+            this.bitModel.getBoard().get(6).get(0));
+  }
+
+  // test getClickedCell rejects coordinates off the board
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetClickedCellOffBoard() {
+    this.model.getClickedCell(new Coordinate(3, 3));
+  }
+
+  // bitboard model with mock controllers so that moves can switch turns
+  ReversiModel bitModel = new BitboardReversi(4);
+
+  /**
+   * Starts the bitboard model with mock controllers listening to both players.
+   */
+  private void initBitboard() {
+    this.bitModel.listenForTurn(new ReversiMockControllerImplementation(
+            this.bitModel, null, null), CellModel.CellStatus.BLACK);
+    this.bitModel.listenForTurn(new ReversiMockControllerImplementation(
+            this.bitModel, null, null), CellModel.CellStatus.WHITE);
+    this.bitModel.startGame();
+  }
+
+  // test the bitboard model starts with the same board as BasicReversi
+  @Test
+  public void testBitboardInitialBoard() {
+    this.initConditions();
+    this.initBitboard();
+    Assert.assertEquals(new ReversiTextView(this.bitModel).toString(), t.toString());
+    Assert.assertEquals(this.bitModel.getScore(CellModel.CellStatus.WHITE), 3);
+    Assert.assertEquals(this.bitModel.getScore(CellModel.CellStatus.BLACK), 3);
+  }
+
+  // test the bitboard model flips discs in a row and diagonally
+  @Test
+  public void testBitboardPlayADisc() {
+    this.initBitboard();
+    Assert.assertTrue(this.bitModel.playADisc(
+            this.bitModel.getBoard().get(2).get(1), CellModel.CellStatus.WHITE, false));
+    Assert.assertEquals(this.bitModel.getLastTurnTilesFlipped(), 1);
+    Assert.assertFalse(this.bitModel.playADisc(
+            this.bitModel.getBoard().get(2).get(0), CellModel.CellStatus.WHITE, false));
+    this.bitModel.playADisc(
+            this.bitModel.getBoard().get(2).get(1), CellModel.CellStatus.WHITE, true);
+    String board =
+            "   _ _ _ _ \n"
+                    + "  _ _ _ _ _ \n"
+                    + " _ O O O _ _ \n"
+                    + "_ _ O _ X _ _ \n"
+                    + " _ _ X O _ _ \n"
+                    + "  _ _ _ _ _ \n"
+                    + "   _ _ _ _ \n";
+    Assert.assertEquals(new ReversiTextView(this.bitModel).toString(), board);
+    Assert.assertEquals(this.bitModel.whoseTurn(), CellModel.CellStatus.BLACK);
+  }
+
+  // test the bitboard model rejects a move into a filled cell
+  @Test(expected = IllegalStateException.class)
+  public void testBitboardPlayADiscInFilledCell() {
+    this.initBitboard();
+    this.bitModel.playADisc(
+            this.bitModel.getBoard().get(2).get(2), CellModel.CellStatus.WHITE, true);
+  }
+
+  // test the blank count starts with every cell but the six starting discs and drops by one a move
+  @Test
+  public void testBlankCount() {
+    this.initBitboard();
+    Assert.assertEquals(this.bitModel.getBlankCount(), 31);
+    this.bitModel.playADisc(
+            this.bitModel.getBoard().get(2).get(1), CellModel.CellStatus.WHITE, true);
+    Assert.assertEquals(this.bitModel.getBlankCount(), 30);
+    Assert.assertEquals(this.bitModel.getScore(CellModel.CellStatus.WHITE), 5);
+    Assert.assertEquals(this.bitModel.getScore(CellModel.CellStatus.BLACK), 2);
+    this.initConditions();
+    Assert.assertEquals(this.model.getBlankCount(), 31);
+  }
+
+  // test findLegalMoves lists every opening move in board order with its flip count
+  @Test
+  public void testFindLegalMoves() {
+    this.initConditions();
+    this.initBitboard();
+    MoveList moves = new MoveList();
+    this.model.findLegalMoves(CellModel.CellStatus.WHITE, moves);
+    Assert.assertEquals(moves.size(), 6);
+    Assert.assertEquals(moves.coordinate(0), new Coordinate(1, -2));
+    Assert.assertEquals(moves.flips(0), 1);
+    MoveList bitMoves = new MoveList();
+    this.bitModel.findLegalMoves(CellModel.CellStatus.WHITE, bitMoves);
+    Assert.assertEquals(bitMoves.size(), 6);
+    for (int move = 0; move < moves.size(); move++) {
+      Assert.assertEquals(bitMoves.coordinate(move), moves.coordinate(move));
+      Assert.assertEquals(bitMoves.flips(move), moves.flips(move));
+    }
+  }
+
+  // test countFlips probes for either color without touching the model
+  @Test
+  public void testCountFlipsIsPure() {
+    this.initConditions();
+    this.initBitboard();
+    for (ReversiModel probed : new ReversiModel[]{this.model, this.bitModel}) {
+      probed.playADisc(probed.getBoard().get(2).get(1), CellModel.CellStatus.WHITE, false);
+      Assert.assertEquals(probed.getLastTurnTilesFlipped(), 1);
+      // it is white's turn, but black can be probed all the same
+      Assert.assertEquals(probed.countFlips(new Coordinate(2, -1), CellModel.CellStatus.BLACK),
+              1);
+      Assert.assertEquals(probed.countFlips(new Coordinate(-2, -1), CellModel.CellStatus.BLACK), 0);
+      Assert.assertEquals(probed.countFlips(new Coordinate(0, 0), CellModel.CellStatus.WHITE), 0);
+      Assert.assertEquals(probed.getLastTurnTilesFlipped(), 1);
+      Assert.assertEquals(probed.whoseTurn(), CellModel.CellStatus.WHITE);
+    }
+  }
+
+  // test makeMove and makePass can be taken back in order, restoring the board and the turn
+  @Test
+  public void testMakeAndUnmakeMove() {
+    this.initConditions();
+    this.initBitboard();
+    for (ReversiModel searched : new ReversiModel[]{this.model, this.bitModel}) {
+      String start = new ReversiTextView(searched).toString();
+      searched.makeMove(new Coordinate(-1, -1));
+      Assert.assertEquals(searched.whoseTurn(), CellModel.CellStatus.BLACK);
+      Assert.assertEquals(searched.getScore(CellModel.CellStatus.WHITE), 5);
+      String afterMove = new ReversiTextView(searched).toString();
+      searched.makePass();
+      Assert.assertEquals(searched.whoseTurn(), CellModel.CellStatus.WHITE);
+      searched.unmakeMove();
+      Assert.assertEquals(new ReversiTextView(searched).toString(), afterMove);
+      searched.unmakeMove();
+      Assert.assertEquals(new ReversiTextView(searched).toString(), start);
+      Assert.assertEquals(searched.whoseTurn(), CellModel.CellStatus.WHITE);
+      Assert.assertEquals(searched.getScore(CellModel.CellStatus.WHITE), 3);
+      Assert.assertEquals(searched.getBlankCount(), 31);
+    }
+  }
+
+  // test unmakeMove with nothing to take back
+  @Test(expected = IllegalStateException.class)
+  public void testUnmakeMoveEmpty() {
+    this.initConditions();
+    this.model.unmakeMove();
+  }
+
+  // test the cell classification against the corners and rings worked out from coordinates
+  @Test
+  public void testCellClassification() {
+    for (int size = 2; size <= 8; size++) {
+      ReversiModel basic = new BasicReversi(size);
+      CellClassification cells = basic.getCellClassification();
+      Assert.assertSame(new BitboardReversi(size).getCellClassification(), cells);
+      BoardTopology topology = cells.getTopology();
+      for (int cell = 0; cell < topology.getCellCount(); cell++) {
+        Coordinate coordinate = new Coordinate(topology.q(cell), topology.r(cell));
+        boolean corner = false;
+        boolean adjacent = false;
+        for (Coordinate cornerCell : basic.getCorners()) {
+          corner |= cornerCell.equals(coordinate);
+          adjacent |= Math.abs(coordinate.q - cornerCell.q) + Math.abs(coordinate.r - cornerCell.r)
+                  + Math.abs(coordinate.s - cornerCell.s) == 2;
+        }
+        int distance = Math.max(Math.abs(coordinate.q),
+                Math.max(Math.abs(coordinate.r), Math.abs(coordinate.s)));
+        Assert.assertEquals(cells.is(CellClassification.CORNER, cell), corner);
+        Assert.assertEquals(cells.is(CellClassification.CORNER_ADJACENT, cell), adjacent);
+        Assert.assertEquals(cells.isPacked(CellClassification.CORNER_ADJACENT,
+                coordinate.pack()), adjacent);
+        Assert.assertEquals(cells.is(CellClassification.EDGE, cell), distance == size - 1);
+        Assert.assertEquals(cells.is(CellClassification.INTERIOR, cell), distance < size - 1);
+        Assert.assertEquals(cells.ring(cell), size - 1 - distance);
+      }
+      int corners = 0;
+      for (long word : cells.getMask(CellClassification.CORNER)) {
+        corners += Long.bitCount(word);
+      }
+      Assert.assertEquals(corners, 6);
+    }
+  }
+
 }
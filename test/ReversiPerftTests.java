@@ -0,0 +1,115 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import model.BasicReversi;
+import model.BitboardReversi;
+import model.HexPosition;
+import model.MoveList;
+import model.Perft;
+import model.ReversiModel;
+
+/**
+ * A test class to test the move generators against reference counts of the paths of moves from
+ * the start position.
+ */
+public class ReversiPerftTests {
+
+  // the counts from the start position, by side size from 2 and then by depth from 0; on side
+  // size 2 neither player can move, so the game ends after two passes
+  private static final long[][] REFERENCE = {
+    {1, 1, 1, 1, 1, 1, 1, 1, 1},
+    {1, 6, 18, 30, 42, 48, 48, 48, 48},
+    {1, 6, 24, 72, 234, 738, 2514, 8394, 30462},
+    {1, 6, 24, 72, 234, 780, 2844, 11124, 45840},
+    {1, 6, 24, 72, 234, 780, 2874, 11400, 48498},
+  };
+
+  /**
+   * Counts paths the slow way, through a model's own moves, passes and isGameOver.
+   *
+   * @param model the started model to count from.
+   * @param depth how many plies long the paths are.
+   * @return the number of paths.
+   */
+  private long modelCount(ReversiModel model, int depth) {
+    if (depth == 0 || model.isGameOver()) {
+      return 1;
+    }
+    MoveList moves = new MoveList();
+    model.findLegalMoves(model.whoseTurn(), moves);
+    if (moves.isEmpty()) {
+      model.makePass();
+      long nodes = this.modelCount(model, depth - 1);
+      model.unmakeMove();
+      return nodes;
+    }
+    long nodes = 0;
+    for (int move = 0; move < moves.size(); move++) {
+      model.makeMove(moves.coordinate(move));
+      nodes += this.modelCount(model, depth - 1);
+      model.unmakeMove();
+    }
+    return nodes;
+  }
+
+  // test that the perft counts match the reference table on every size and depth
+  @Test
+  public void testReferenceCounts() {
+    for (int size = 0; size < REFERENCE.length; size++) {
+      HexPosition start = Perft.startPosition(size + 2);
+      for (int depth = 0; depth < REFERENCE[size].length; depth++) {
+        Assert.assertEquals(Perft.count(start, depth), REFERENCE[size][depth]);
+      }
+    }
+  }
+
+  // test that counting in parallel gives the same counts and leaves the position unchanged
+  @Test
+  public void testParallelCounts() {
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      for (int size = 0; size < REFERENCE.length; size++) {
+        HexPosition start = Perft.startPosition(size + 2);
+        long hash = start.getHash();
+        for (int depth = 0; depth < REFERENCE[size].length; depth++) {
+          Assert.assertEquals(Perft.count(start, depth, pool), REFERENCE[size][depth]);
+        }
+        Assert.assertEquals(start.getHash(), hash);
+        Assert.assertEquals(start.getPly(), 0);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  // test that both models generate the moves and passes the reference counts were made with
+  @Test
+  public void testModelsMatchReference() {
+    for (int size = 0; size < REFERENCE.length; size++) {
+      for (ReversiModel model : new ReversiModel[]{new BasicReversi(size + 2),
+          new BitboardReversi(size + 2)}) {
+        model.startGame();
+        for (int depth = 0; depth <= 6; depth++) {
+          Assert.assertEquals(this.modelCount(model, depth), REFERENCE[size][depth]);
+        }
+      }
+    }
+  }
+
+  // test that a game ended by two passes is counted once however deep the count goes
+  @Test
+  public void testFinishedGameCountsOnce() {
+    HexPosition position = Perft.startPosition(3);
+    position.pass();
+    position.pass();
+    Assert.assertEquals(Perft.count(position, 5), 1L);
+  }
+
+  // test that a negative depth is rejected
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeDepth() {
+    Perft.count(Perft.startPosition(4), -1);
+  }
+}
@@ -0,0 +1,670 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import model.BitboardReversi;
+import model.CellModel;
+import model.Coordinate;
+import model.HexPosition;
+import model.MoveList;
+import model.ReversiModel;
+import player.AIPlayer;
+import player.Player;
+import strategy.AlphaBetaSearch;
+import strategy.CaptureMost;
+import strategy.Deadline;
+import strategy.EndgameSolver;
+import strategy.MonteCarloSearch;
+import strategy.MoveWatchdog;
+import strategy.NTupleEvaluator;
+import strategy.NTupleNetwork;
+import strategy.NTupleTrainer;
+import strategy.OpeningBook;
+import strategy.OpeningBookBuilder;
+import strategy.PlayToCorner;
+import strategy.ReversiStrategy;
+import strategy.TranspositionTable;
+
+/**
+ * A test class to test the pieces shared by the searching Reversi strategies.
+ */
+public class ReversiSearchTests {
+
+  // test that the table rounds its size up to a power of two
+  @Test
+  public void testTableSizeIsPowerOfTwo() {
+    Assert.assertEquals(new TranspositionTable(1000).size(), 1024);
+    Assert.assertEquals(new TranspositionTable(1024).size(), 1024);
+    Assert.assertEquals(new TranspositionTable(1).size(), 1);
+  }
+
+  // test that a table cannot be made with no entries
+  @Test(expected = IllegalArgumentException.class)
+  public void testTableNeedsEntries() {
+    new TranspositionTable(0);
+  }
+
+  // test that a stored entry reads back with every field intact
+  @Test
+  public void testTableStoresEntry() {
+    TranspositionTable table = new TranspositionTable(64);
+    long hash = 0x123456789ABCDEF0L;
+    Assert.assertEquals(table.probe(hash), TranspositionTable.MISS);
+    table.store(hash, 7, TranspositionTable.LOWER, -42, 30);
+    long entry = table.probe(hash);
+    Assert.assertNotEquals(entry, TranspositionTable.MISS);
+    Assert.assertEquals(TranspositionTable.depth(entry), 7);
+    Assert.assertEquals(TranspositionTable.bound(entry), TranspositionTable.LOWER);
+    Assert.assertEquals(TranspositionTable.score(entry), -42);
+    Assert.assertEquals(TranspositionTable.move(entry), 30);
+    table.store(hash, 0, TranspositionTable.EXACT, 5, -1);
+    Assert.assertEquals(TranspositionTable.depth(table.probe(hash)), 7);
+    Assert.assertEquals(table.getHits(), 2);
+    Assert.assertEquals(table.getMisses(), 1);
+  }
+
+  // test that a position sharing a slot with another is reported as a collision, not a hit
+  @Test
+  public void testTableCollision() {
+    TranspositionTable table = new TranspositionTable(16);
+    table.store(0x10L, 3, TranspositionTable.EXACT, 1, 2);
+    Assert.assertEquals(table.probe(0x20L), TranspositionTable.MISS);
+    Assert.assertEquals(table.getCollisions(), 1);
+    table.store(0x20L, 1, TranspositionTable.UPPER, 9, 4);
+    Assert.assertEquals(TranspositionTable.score(table.probe(0x20L)), 9);
+    Assert.assertEquals(table.probe(0x10L), TranspositionTable.MISS);
+    table.clear();
+    Assert.assertEquals(table.probe(0x20L), TranspositionTable.MISS);
+    Assert.assertEquals(table.getHits(), 0);
+  }
+
+  /**
+   * Plays a whole game between two strategies with makeMove and makePass.
+   *
+   * @param sideSize the side size of the board.
+   * @param white    the strategy playing white, which moves first.
+   * @param black    the strategy playing black.
+   * @return the finished game.
+   */
+  private ReversiModel playGame(int sideSize, ReversiStrategy white, ReversiStrategy black) {
+    ReversiModel model = new BitboardReversi(sideSize);
+    model.startGame();
+    int passes = 0;
+    while (passes < 2) {
+      CellModel.CellStatus player = model.whoseTurn();
+      Optional<Coordinate> move = (player == CellModel.CellStatus.WHITE ? white : black)
+              .chooseCoordinate(model, player);
+      if (move.isPresent()) {
+        model.makeMove(move.get());
+        passes = 0;
+      } else {
+        model.makePass();
+        passes++;
+      }
+    }
+    return model;
+  }
+
+  // test a copied position plays, passes and takes back moves exactly like the model
+  @Test
+  public void testPositionMatchesModel() {
+    Random random = new Random(3);
+    for (int sideSize = 2; sideSize <= 6; sideSize++) {
+      ReversiModel model = new BitboardReversi(sideSize);
+      model.startGame();
+      HexPosition position = HexPosition.of(model, model.whoseTurn());
+      long start = position.getHash();
+      Assert.assertEquals(start, model.getPositionHash());
+      MoveList moves = new MoveList();
+      int[] cells = new int[position.getTopology().getCellCount()];
+      int passes = 0;
+      while (passes < 2) {
+        model.findLegalMoves(model.whoseTurn(), moves);
+        Assert.assertEquals(position.legalMoves(position.getTurn(), cells), moves.size());
+        if (moves.isEmpty()) {
+          model.makePass();
+          position.pass();
+          passes++;
+        } else {
+          int move = random.nextInt(moves.size());
+          Coordinate coordinate = moves.coordinate(move);
+          Assert.assertEquals(position.play(position.getTopology().indexOf(coordinate.q,
+                  coordinate.r)), moves.flips(move));
+          model.makeMove(coordinate);
+          passes = 0;
+        }
+        Assert.assertEquals(position.getHash(), model.getPositionHash());
+        Assert.assertEquals(position.getCount(HexPosition.WHITE),
+                model.getScore(CellModel.CellStatus.WHITE));
+        Assert.assertEquals(position.getCount(HexPosition.BLACK),
+                model.getScore(CellModel.CellStatus.BLACK));
+      }
+      while (position.getPly() > 0) {
+        position.undo();
+      }
+      Assert.assertEquals(position.getHash(), start);
+    }
+  }
+
+  // test the search picks a legal move without changing the game, and reports its work
+  @Test
+  public void testAlphaBetaLeavesModelUnchanged() {
+    ReversiModel model = new BitboardReversi(5);
+    model.startGame();
+    long hash = model.getPositionHash();
+    AlphaBetaSearch search = new AlphaBetaSearch(4);
+    Optional<Coordinate> move = search.chooseCoordinate(model, model.whoseTurn());
+    Assert.assertTrue(move.isPresent());
+    Assert.assertTrue(model.countFlips(move.get(), model.whoseTurn()) > 0);
+    Assert.assertEquals(model.getPositionHash(), hash);
+    Assert.assertEquals(search.getDepthReached(), 4);
+    Assert.assertTrue(search.getNodes() > 0);
+    Assert.assertTrue(search.getTable().getHits() + search.getTable().getMisses() > 0);
+  }
+
+  // test the search stops at its node budget and still plays a legal move
+  @Test
+  public void testAlphaBetaNodeBudget() {
+    ReversiModel model = new BitboardReversi(6);
+    model.startGame();
+    AlphaBetaSearch search = new AlphaBetaSearch(20, 500);
+    Optional<Coordinate> move = search.chooseCoordinate(model, model.whoseTurn());
+    Assert.assertTrue(move.isPresent());
+    Assert.assertTrue(model.countFlips(move.get(), model.whoseTurn()) > 0);
+    Assert.assertTrue(search.getNodes() <= 500);
+    Assert.assertTrue(search.getDepthReached() < 20);
+  }
+
+  // test looking ahead beats capturing the most discs, playing either color
+  @Test
+  public void testAlphaBetaBeatsCaptureMost() {
+    ReversiModel whiteGame = this.playGame(4, new AlphaBetaSearch(4), new CaptureMost());
+    Assert.assertTrue(whiteGame.getScore(CellModel.CellStatus.WHITE)
+            > whiteGame.getScore(CellModel.CellStatus.BLACK));
+    ReversiModel blackGame = this.playGame(4, new CaptureMost(), new AlphaBetaSearch(4));
+    Assert.assertTrue(blackGame.getScore(CellModel.CellStatus.BLACK)
+            > blackGame.getScore(CellModel.CellStatus.WHITE));
+  }
+
+  // test searching on several threads finishes, picks a legal move and counts every thread's nodes
+  @Test
+  public void testParallelAlphaBeta() {
+    ReversiModel model = new BitboardReversi(5);
+    model.startGame();
+    long hash = model.getPositionHash();
+    AlphaBetaSearch search = new AlphaBetaSearch(5, Long.MAX_VALUE, 4);
+    Optional<Coordinate> move = search.chooseCoordinate(model, model.whoseTurn());
+    Assert.assertTrue(move.isPresent());
+    Assert.assertTrue(model.countFlips(move.get(), model.whoseTurn()) > 0);
+    Assert.assertEquals(model.getPositionHash(), hash);
+    Assert.assertEquals(search.getDepthReached(), 5);
+    Assert.assertEquals(search.getThreads(), 4);
+    ReversiModel game = this.playGame(4, new AlphaBetaSearch(4, Long.MAX_VALUE, 3),
+            new CaptureMost());
+    Assert.assertTrue(game.getScore(CellModel.CellStatus.WHITE)
+            > game.getScore(CellModel.CellStatus.BLACK));
+  }
+
+  // test a search cannot be made without threads
+  @Test(expected = IllegalArgumentException.class)
+  public void testAlphaBetaNeedsThreads() {
+    new AlphaBetaSearch(4, 100, 0);
+  }
+
+  // test the tree search picks a legal move without changing the game, and reports its rate
+  @Test
+  public void testMonteCarloLeavesModelUnchanged() {
+    ReversiModel model = new BitboardReversi(5);
+    model.startGame();
+    long hash = model.getPositionHash();
+    MonteCarloSearch search = new MonteCarloSearch(2000);
+    Optional<Coordinate> move = search.chooseCoordinate(model, model.whoseTurn());
+    Assert.assertTrue(move.isPresent());
+    Assert.assertTrue(model.countFlips(move.get(), model.whoseTurn()) > 0);
+    Assert.assertEquals(model.getPositionHash(), hash);
+    Assert.assertEquals(search.getPlayouts(), 2000);
+    Assert.assertTrue(search.getPlayoutsPerSecond() > 0);
+    Assert.assertTrue(search.getTreeSize() > 1);
+  }
+
+  // test the same seed makes a single threaded tree search choose the same move
+  @Test
+  public void testMonteCarloRepeatable() {
+    ReversiModel model = new BitboardReversi(6);
+    model.startGame();
+    Assert.assertEquals(new MonteCarloSearch(500, 1, 1.4, 9L, 4096)
+            .chooseCoordinate(model, model.whoseTurn()),
+            new MonteCarloSearch(500, 1, 1.4, 9L, 4096)
+            .chooseCoordinate(model, model.whoseTurn()));
+  }
+
+  // test a tree too small to hold a single position still plays a legal move
+  @Test
+  public void testMonteCarloFullTree() {
+    ReversiModel model = new BitboardReversi(4);
+    model.startGame();
+    Optional<Coordinate> move = new MonteCarloSearch(100, 1, 1.4, 0L, 1)
+            .chooseCoordinate(model, model.whoseTurn());
+    Assert.assertTrue(model.countFlips(move.get(), model.whoseTurn()) > 0);
+  }
+
+  // test playouts on several threads sharing one tree beat capturing the most discs in most of
+  // a set of seeded games; the threads still make the games vary, so a majority is asked for
+  @Test
+  public void testParallelMonteCarloBeatsCaptureMost() {
+    int wins = 0;
+    int games = 5;
+    for (long seed = 1; seed <= games; seed++) {
+      ReversiModel game = this.playGame(4, new CaptureMost(),
+              new MonteCarloSearch(3000, 3, 1.4, seed, 1 << 16));
+      if (game.getScore(CellModel.CellStatus.BLACK)
+              > game.getScore(CellModel.CellStatus.WHITE)) {
+        wins++;
+      }
+    }
+    Assert.assertTrue(wins * 2 > games);
+  }
+
+  /**
+   * Finds the final disc differential of a position for the player to move by trying every line
+   * of play, with no pruning or ordering.
+   *
+   * @param position the position to solve.
+   * @return the disc differential with best play from both sides.
+   */
+  private int bruteForce(HexPosition position) {
+    int player = position.getTurn();
+    int opponent = HexPosition.opponent(player);
+    int[] moves = new int[position.getTopology().getCellCount()];
+    int count = position.legalMoves(player, moves);
+    if (count == 0) {
+      if (!position.hasMoves(opponent)) {
+        return position.getCount(player) - position.getCount(opponent);
+      }
+      position.pass();
+      int score = -this.bruteForce(position);
+      position.undo();
+      return score;
+    }
+    int best = Integer.MIN_VALUE;
+    for (int index = 0; index < count; index++) {
+      position.play(moves[index]);
+      best = Math.max(best, -this.bruteForce(position));
+      position.undo();
+    }
+    return best;
+  }
+
+  /**
+   * Plays random moves from the start of a game until only the given number of blank cells are
+   * left, or the game ends.
+   *
+   * @param sideSize the side size of the board.
+   * @param blanks   how many blank cells to leave.
+   * @param random   where to take the random moves from.
+   * @return the model of the game.
+   */
+  private ReversiModel randomEndgame(int sideSize, int blanks, Random random) {
+    ReversiModel model = new BitboardReversi(sideSize);
+    model.startGame();
+    MoveList moves = new MoveList();
+    int passes = 0;
+    while (passes < 2 && model.getBlankCount() > blanks) {
+      model.findLegalMoves(model.whoseTurn(), moves);
+      if (moves.isEmpty()) {
+        model.makePass();
+        passes++;
+      } else {
+        model.makeMove(moves.coordinate(random.nextInt(moves.size())));
+        passes = 0;
+      }
+    }
+    return model;
+  }
+
+  // test the solver finds the same final score as trying every line of play, and a move getting it
+  @Test
+  public void testEndgameSolverIsExact() {
+    Random random = new Random(5);
+    EndgameSolver solver = new EndgameSolver(new CaptureMost(), 9, 60_000);
+    int solved = 0;
+    for (int game = 0; game < 30; game++) {
+      ReversiModel model = this.randomEndgame(game % 2 == 0 ? 3 : 4, 9, random);
+      HexPosition position = HexPosition.of(model, model.whoseTurn());
+      if (!position.hasMoves(position.getTurn())) {
+        continue;
+      }
+      Optional<Coordinate> move = solver.chooseCoordinate(model, model.whoseTurn());
+      Assert.assertTrue(solver.wasSolved());
+      int expected = this.bruteForce(position);
+      Assert.assertEquals(solver.getScore(), expected);
+      position.play(position.getTopology().indexOf(move.get().q, move.get().r));
+      Assert.assertEquals(-this.bruteForce(position), expected);
+      solved++;
+    }
+    Assert.assertTrue(solved > 20);
+  }
+
+  // test the solver leaves the game to its backup plan until few enough cells are blank
+  @Test
+  public void testEndgameSolverUsesBackupEarly() {
+    ReversiModel model = new BitboardReversi(4);
+    model.startGame();
+    EndgameSolver solver = new EndgameSolver(new CaptureMost());
+    Assert.assertEquals(solver.chooseCoordinate(model, model.whoseTurn()),
+            new CaptureMost().chooseCoordinate(model, model.whoseTurn()));
+    Assert.assertFalse(solver.wasSolved());
+  }
+
+  // test the solver gives up and uses its backup plan when it runs out of time
+  @Test
+  public void testEndgameSolverTimeCap() {
+    ReversiModel model = this.randomEndgame(6, 60, new Random(1));
+    Coordinate marker = new Coordinate(99, 99);
+    EndgameSolver solver = new EndgameSolver((game, player) -> Optional.of(marker), 100, 1);
+    Assert.assertEquals(solver.chooseCoordinate(model, model.whoseTurn()), Optional.of(marker));
+    Assert.assertFalse(solver.wasSolved());
+    Assert.assertTrue(solver.getNodes() > 0);
+  }
+
+  // test a built book plays the expert's moves and falls back to its backup plan off the book
+  @Test
+  public void testOpeningBook() throws IOException {
+    Path file = Files.createTempFile("book", ".bin");
+    try {
+      ReversiStrategy expert = new AlphaBetaSearch(3);
+      int entries = new OpeningBookBuilder(4, expert, 4, 50, 0.3, 2L).build(file);
+      Assert.assertTrue(entries > 4);
+      Assert.assertEquals(Files.size(file), OpeningBookBuilder.HEADER_BYTES
+              + ((long) entries * OpeningBookBuilder.ENTRY_BYTES));
+      Coordinate marker = new Coordinate(99, 99);
+      OpeningBook book = new OpeningBook(file, (game, player) -> Optional.of(marker));
+      Assert.assertEquals(book.size(), entries);
+      Assert.assertEquals(book.getSideSize(), 4);
+
+      ReversiModel model = new BitboardReversi(4);
+      model.startGame();
+      Optional<Coordinate> move = book.chooseCoordinate(model, model.whoseTurn());
+      Assert.assertEquals(move, new AlphaBetaSearch(3).chooseCoordinate(model, model.whoseTurn()));
+      ReversiModel other = new BitboardReversi(5);
+      other.startGame();
+      Assert.assertEquals(book.chooseCoordinate(other, other.whoseTurn()), Optional.of(marker));
+      ReversiModel late = this.randomEndgame(4, 10, new Random(4));
+      Assert.assertEquals(book.chooseCoordinate(late, late.whoseTurn()), Optional.of(marker));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  // test a file that is not an opening book is refused
+  @Test(expected = IllegalArgumentException.class)
+  public void testOpeningBookRejectsOtherFiles() throws IOException {
+    Path file = Files.createTempFile("book", ".bin");
+    try {
+      Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17});
+      new OpeningBook(file, new CaptureMost());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  // test a deadline passes when its time runs out or it is cancelled, and not before
+  @Test
+  public void testDeadline() {
+    Deadline none = Deadline.none();
+    Assert.assertFalse(none.isExpired());
+    Assert.assertEquals(none.remainingNanos(), Long.MAX_VALUE);
+    none.cancel();
+    Assert.assertTrue(none.isExpired());
+    Assert.assertTrue(none.isCancelled());
+    Assert.assertTrue(Deadline.in(0).isExpired());
+    Deadline later = Deadline.in(60_000);
+    Assert.assertFalse(later.isExpired());
+    Assert.assertTrue(later.remainingNanos() > 0);
+  }
+
+  // test the searches play the best move found so far when the deadline passes
+  @Test
+  public void testSearchesStopAtDeadline() {
+    ReversiModel model = new BitboardReversi(7);
+    model.startGame();
+    ReversiStrategy[] searches = {new AlphaBetaSearch(60), new MonteCarloSearch(100_000_000),
+      new EndgameSolver(new AlphaBetaSearch(60), 200, 60_000)};
+    for (ReversiStrategy search : searches) {
+      long start = System.nanoTime();
+      Optional<Coordinate> move = search.chooseCoordinate(model, model.whoseTurn(),
+              Deadline.in(200));
+      Assert.assertTrue(System.nanoTime() - start < 2_000_000_000L);
+      Assert.assertTrue(move.isPresent());
+      Assert.assertTrue(model.countFlips(move.get(), model.whoseTurn()) > 0);
+      // with no time at all, the searches still answer with a legal move
+      move = search.chooseCoordinate(model, model.whoseTurn(), Deadline.in(0));
+      Assert.assertTrue(move.isPresent());
+      Assert.assertTrue(model.countFlips(move.get(), model.whoseTurn()) > 0);
+    }
+  }
+
+  // test the watchdog counts moves, and reports and cancels the ones that run too long
+  @Test
+  public void testMoveWatchdog() {
+    ReversiModel model = new BitboardReversi(4);
+    model.startGame();
+    List<String> reports = new CopyOnWriteArrayList<String>();
+    MoveWatchdog watchdog = new MoveWatchdog(200, 100, reports::add);
+    Optional<Coordinate> move = watchdog.choose(new CaptureMost(), model, model.whoseTurn());
+    Assert.assertTrue(move.isPresent());
+    Assert.assertEquals(watchdog.getMoves(), 1L);
+
+    // a strategy that ignores the clock and only stops when its deadline is cancelled
+    ReversiStrategy stubborn = new ReversiStrategy() {
+      @Override
+      public Optional<Coordinate> chooseCoordinate(ReversiModel game,
+                                                   CellModel.CellStatus player) {
+        return Optional.empty();
+      }
+
+      @Override
+      public Optional<Coordinate> chooseCoordinate(ReversiModel game,
+                                                   CellModel.CellStatus player,
+                                                   Deadline deadline) {
+        while (!deadline.isCancelled()) {
+          Thread.yield();
+        }
+        return Optional.empty();
+      }
+    };
+    watchdog.choose(stubborn, model, model.whoseTurn());
+    Assert.assertEquals(watchdog.getMoves(), 2L);
+    Assert.assertEquals(watchdog.getOverruns(), 1L);
+    Assert.assertTrue(watchdog.getWorstMillis() >= 300);
+    Assert.assertEquals(reports.size(), 2);
+  }
+
+  // test a copy of a game has the same position, and playing on it leaves the game alone
+  @Test
+  public void testCopyOfGame() {
+    ReversiModel game = new BitboardReversi(5);
+    game.startGame();
+    for (int move = 0; move < 6; move++) {
+      game.makeMove(new CaptureMost().chooseCoordinate(game, game.whoseTurn()).get());
+    }
+    BitboardReversi copy = BitboardReversi.copyOf(game);
+    Assert.assertEquals(copy.getPositionHash(), game.getPositionHash());
+    Assert.assertEquals(copy.whoseTurn(), game.whoseTurn());
+    Assert.assertEquals(copy.getScore(CellModel.CellStatus.BLACK),
+            game.getScore(CellModel.CellStatus.BLACK));
+    Assert.assertEquals(copy.getScore(CellModel.CellStatus.WHITE),
+            game.getScore(CellModel.CellStatus.WHITE));
+    long hash = game.getPositionHash();
+    MoveList moves = new MoveList();
+    copy.findLegalMoves(copy.whoseTurn(), moves);
+    copy.makeMove(moves.coordinate(0));
+    Assert.assertEquals(game.getPositionHash(), hash);
+  }
+
+  /**
+   * Plays a game between two players, making each move they choose on the model directly.
+   *
+   * @param sideSize the side size of the board.
+   * @param white    the player with the white discs, which moves first.
+   * @param black    the player with the black discs.
+   * @return the moves of the game, one per line, with "pass" for a pass.
+   */
+  private String playPlayers(int sideSize, Player white, Player black) {
+    ReversiModel model = new BitboardReversi(sideSize);
+    model.startGame();
+    StringBuilder moves = new StringBuilder();
+    int passes = 0;
+    while (passes < 2) {
+      Optional<Coordinate> move = (model.whoseTurn() == CellModel.CellStatus.WHITE ? white
+              : black).play(model);
+      if (move.isPresent()) {
+        model.makeMove(move.get());
+        moves.append(move.get().q).append(',').append(move.get().r).append('\n');
+        passes = 0;
+      } else {
+        model.makePass();
+        moves.append("pass\n");
+        passes++;
+      }
+    }
+    return moves.toString();
+  }
+
+  // test pondering takes the pondered move when the opponent plays the predicted reply
+  @Test
+  public void testPonderHits() {
+    String expected = this.playPlayers(5, new AIPlayer(CellModel.CellStatus.WHITE,
+            new CaptureMost()), new AIPlayer(CellModel.CellStatus.BLACK, new CaptureMost()));
+    AIPlayer pondering = new AIPlayer(CellModel.CellStatus.WHITE, new CaptureMost(), null, true);
+    // the reply is predicted before play returns, so however fast the opponent is, every
+    // prediction is made in time and a miss would mean a wrong one
+    String game = this.playPlayers(5, pondering,
+            new AIPlayer(CellModel.CellStatus.BLACK, new CaptureMost()));
+    Assert.assertEquals(game, expected);
+    Assert.assertTrue(pondering.getPonderHits() > 0);
+    Assert.assertEquals(pondering.getPonderMisses(), 0);
+  }
+
+  // test the searches predict the reply to their move from their last search alone
+  @Test
+  public void testSearchesPredictReply() {
+    for (ReversiStrategy search : new ReversiStrategy[]{new AlphaBetaSearch(4),
+        new MonteCarloSearch(2000)}) {
+      ReversiModel model = new BitboardReversi(5);
+      model.startGame();
+      Assert.assertFalse(search.predictCoordinate(model, model.whoseTurn()).isPresent());
+      model.makeMove(search.chooseCoordinate(model, model.whoseTurn()).get());
+      Optional<Coordinate> reply = search.predictCoordinate(model, model.whoseTurn());
+      Assert.assertTrue(reply.isPresent());
+      Assert.assertTrue(model.countFlips(reply.get(), model.whoseTurn()) > 0);
+    }
+  }
+
+  // test pondering makes no difference to the moves when the prediction misses
+  @Test
+  public void testPonderMisses() {
+    String expected = this.playPlayers(5,
+            new AIPlayer(CellModel.CellStatus.WHITE, new AlphaBetaSearch(3)),
+            new AIPlayer(CellModel.CellStatus.BLACK, new PlayToCorner(new CaptureMost())));
+    AIPlayer pondering = new AIPlayer(CellModel.CellStatus.WHITE, new AlphaBetaSearch(3), null,
+            true);
+    String game = this.playPlayers(5, pondering,
+            new AIPlayer(CellModel.CellStatus.BLACK, new PlayToCorner(new CaptureMost())));
+    Assert.assertEquals(game, expected);
+    Assert.assertTrue(pondering.getPonderHits() + pondering.getPonderMisses() > 0);
+  }
+
+  // test a position scored move by move scores the same as one read from the board
+  @Test
+  public void testNTupleIncrementalMatchesFullScore() {
+    NTupleNetwork network = new NTupleNetwork(5, 3);
+    new NTupleTrainer(network, 0.05, 0.2, 1L).train(50);
+    NTupleEvaluator evaluator = new NTupleEvaluator(network);
+    Random random = new Random(3);
+    ReversiModel model = new BitboardReversi(5);
+    model.startGame();
+    HexPosition position = HexPosition.of(model, model.whoseTurn());
+    evaluator.attach(position);
+    int[] moves = new int[position.getTopology().getCellCount()];
+    boolean scored = false;
+    for (int game = 0; game < 20; game++) {
+      int played = 0;
+      while (true) {
+        int count = position.legalMoves(position.getTurn(), moves);
+        if (count == 0) {
+          break;
+        }
+        position.play(moves[random.nextInt(count)]);
+        played++;
+        Assert.assertEquals(evaluator.evaluate(position),
+                evaluator.evaluate(new HexPosition(position)));
+        scored |= evaluator.evaluate(position) != 0;
+      }
+      // take back part of the game and carry on from there
+      for (int undo = random.nextInt(played + 1); undo > 0; undo--) {
+        position.undo();
+        Assert.assertEquals(evaluator.evaluate(position),
+                evaluator.evaluate(new HexPosition(position)));
+      }
+    }
+    Assert.assertTrue(scored);
+  }
+
+  // test training moves a position's value towards its target
+  @Test
+  public void testNTupleTraining() {
+    NTupleNetwork network = new NTupleNetwork(4, 2);
+    ReversiModel model = new BitboardReversi(4);
+    model.startGame();
+    HexPosition position = HexPosition.of(model, model.whoseTurn());
+    Assert.assertEquals(network.value(position), 0f, 0f);
+    for (int step = 0; step < 200; step++) {
+      network.train(position, 5f, 0.1f);
+    }
+    Assert.assertEquals(network.value(position), 5f, 0.01f);
+    NTupleTrainer trainer = new NTupleTrainer(network, 0.05, 0.1, 2L);
+    Assert.assertTrue(trainer.train(10) > 0);
+    Assert.assertTrue(trainer.getPositions() >= 10);
+  }
+
+  // test a weight file gives back the network it was written from, and other files are refused
+  @Test
+  public void testNTupleWeightFile() throws IOException {
+    NTupleNetwork network = new NTupleNetwork(4, 2);
+    new NTupleTrainer(network, 0.05, 0.2, 4L).train(20);
+    Path file = Files.createTempFile("weights", ".ntw");
+    try {
+      network.save(file);
+      NTupleNetwork loaded = NTupleNetwork.load(file);
+      Assert.assertEquals(loaded.getPhases(), 2);
+      Assert.assertEquals(loaded.getWeightCount(), network.getWeightCount());
+      ReversiModel model = this.playGame(4, new CaptureMost(), new CaptureMost());
+      model.unmakeMove();
+      HexPosition position = HexPosition.of(model, model.whoseTurn());
+      Assert.assertEquals(loaded.value(position), network.value(position), 0f);
+      ReversiStrategy search = new AlphaBetaSearch(3, Long.MAX_VALUE,
+              NTupleEvaluator.load(file), new TranspositionTable(1024));
+      Assert.assertTrue(search.chooseCoordinate(model, model.whoseTurn()).isPresent()
+              || !model.anyValidMoves());
+      byte[] bytes = Files.readAllBytes(file);
+      bytes[7] = 9;
+      Files.write(file, bytes);
+      try {
+        NTupleNetwork.load(file);
+        Assert.fail("A weight file of another version was read");
+      } catch (IllegalArgumentException e) {
+        Assert.assertEquals(e.getMessage(), "Weight file version not supported");
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
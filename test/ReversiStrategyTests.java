@@ -3,17 +3,24 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Random;
 
 import model.BasicReversi;
+import model.BitboardReversi;
 import model.Cell;
 import model.Coordinate;
 import model.MockReversi;
+import model.MoveList;
 import model.ReversiModel;
 import player.AIPlayer;
 import player.Player;
 import strategy.AvoidCornerAdjacent;
 import strategy.CaptureMost;
+import strategy.MoveRules;
 import strategy.PlayToCorner;
+import strategy.ReversiStrategy;
+import strategy.StrategyPipeline;
 
 import static model.CellModel.CellStatus.BLACK;
 import static model.CellModel.CellStatus.WHITE;
@@ -152,10 +159,39 @@ public class ReversiStrategyTests {
 
   }
 
-
-
-
-
-
-
+  // test the fused pipelines choose exactly what the chained strategies they replace choose
+  @Test
+  public void testPipelinesMatchChainedStrategies() {
+    ReversiStrategy[] chained = {new CaptureMost(), new PlayToCorner(new CaptureMost()),
+        new AvoidCornerAdjacent(new PlayToCorner(new CaptureMost()))};
+    ReversiStrategy[] fused = {new StrategyPipeline(MoveRules.captureMost()),
+        new StrategyPipeline(MoveRules.playToCorner(), MoveRules.captureMost()),
+        new StrategyPipeline(MoveRules.avoidCornerAdjacent(), MoveRules.playToCorner(),
+                MoveRules.captureMost())};
+    Random random = new Random(17);
+    MoveList moves = new MoveList();
+    for (int sideSize = 2; sideSize <= 6; sideSize++) {
+      for (int round = 0; round < 10; round++) {
+        ReversiModel game = new BitboardReversi(sideSize);
+        game.startGame();
+        int passes = 0;
+        while (passes < 2) {
+          for (int strategy = 0; strategy < chained.length; strategy++) {
+            Optional<Coordinate> expected =
+                    chained[strategy].chooseCoordinate(game, game.whoseTurn());
+            Assert.assertEquals(fused[strategy].chooseCoordinate(game, game.whoseTurn()),
+                    expected);
+          }
+          game.findLegalMoves(game.whoseTurn(), moves);
+          if (moves.isEmpty()) {
+            game.makePass();
+            passes++;
+          } else {
+            game.makeMove(moves.coordinate(random.nextInt(moves.size())));
+            passes = 0;
+          }
+        }
+      }
+    }
+  }
 }